@@ -42,7 +42,7 @@ import org.wso2.siddhi.core.stream.output.sink.SinkCallback;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
-import org.wso2.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
+import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
@@ -57,6 +57,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
@@ -316,12 +317,48 @@ public class SiddhiAppRuntime {
             // first, pause all the event sources
             eventSourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            byte[] snapshots = siddhiAppContext.getSnapshotService().snapshot();
-            // start the snapshot persisting task asynchronously
-            AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshots,
-                    siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName());
-            String revision = asyncSnapshotPersistor.getRevision();
-            Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+            PersistenceService persistenceService = siddhiAppContext.getPersistenceService();
+            String revision = persistenceService.nextRevision();
+            if (persistenceService.isSnapshotStreamed()) {
+                // the snapshot is encoded straight into the store while the events are held back
+                persistenceService.streamSnapshot(revision, false);
+                return new PersistenceReference(CompletableFuture.completedFuture(null), revision);
+            }
+            Object snapshot = persistenceService.captureSnapshot(revision);
+            // start the snapshot encoding and persisting task asynchronously
+            Future future = siddhiAppContext.getExecutorService().submit(() ->
+                    persistenceService.saveSnapshot(snapshot, revision));
+            return new PersistenceReference(future, revision);
+        } finally {
+            // at the end, resume the event sources
+            eventSourceMap.values().forEach(list -> list.forEach(Source::resume));
+        }
+    }
+
+    /**
+     * Persist only the state changed since the previous persist or restore, chained to that revision, such that
+     * restoring any of these revisions restores the complete state. The first call after starting the app persists
+     * the full state, and calling {@link #persist()} starts a new chain, as does any call once the chain reaches the
+     * length set via {@link SiddhiManager#setIncrementalSnapshotsPerBase(int)}.
+     *
+     * @return reference to the asynchronous persisting task
+     */
+    public PersistenceReference persistIncrementally() {
+        try {
+            // first, pause all the event sources
+            eventSourceMap.values().forEach(list -> list.forEach(Source::pause));
+            // take snapshots of the changed execution units
+            PersistenceService persistenceService = siddhiAppContext.getPersistenceService();
+            String revision = persistenceService.nextRevision();
+            if (persistenceService.isSnapshotStreamed()) {
+                // the snapshot is encoded straight into the store while the events are held back
+                persistenceService.streamSnapshot(revision, true);
+                return new PersistenceReference(CompletableFuture.completedFuture(null), revision);
+            }
+            Object snapshot = persistenceService.captureIncrementalSnapshot(revision);
+            // start the snapshot encoding and persisting task asynchronously
+            Future future = siddhiAppContext.getExecutorService().submit(() ->
+                    persistenceService.saveSnapshot(snapshot, revision));
             return new PersistenceReference(future, revision);
         } finally {
             // at the end, resume the event sources
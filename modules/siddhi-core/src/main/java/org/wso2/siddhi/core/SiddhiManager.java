@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.parser.SiddhiAppParser;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
@@ -97,6 +98,42 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the codec used to encode and decode the snapshots of the Siddhi Manager instance.
+     * {@link org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec} is used by default, and
+     * {@link org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec} uses plain Java serialization.
+     *
+     * @param snapshotCodec Snapshot Codec implementation to be used.
+     */
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.siddhiContext.setSnapshotCodec(snapshotCodec);
+    }
+
+    /**
+     * Method to set whether the states are copied when persisting the Siddhi apps of the Siddhi Manager instance.
+     * By default, snapshots persisted to a {@link org.wso2.siddhi.core.util.persistence.StreamingPersistenceStore}
+     * are encoded straight into the store while the events are held back, hence the heap usage does not grow with
+     * the size of the states. Copying the states holds back the events only until they are copied, and the copies
+     * are encoded and saved asynchronously. Snapshots persisted to other stores are always copied.
+     *
+     * @param snapshotStatesCopied whether the states are copied when persisting.
+     */
+    public void setSnapshotStatesCopied(boolean snapshotStatesCopied) {
+        this.siddhiContext.setSnapshotStatesCopied(snapshotStatesCopied);
+    }
+
+    /**
+     * Method to set the number of incremental snapshots chained to a base snapshot for the Siddhi apps of the Siddhi
+     * Manager instance. Once a chain reaches this length, the next incremental snapshot is taken as a full base
+     * snapshot, such that restoring a revision loads a bounded number of revisions, and the persistence stores can
+     * drop the older chains. Defaults to 10, and 0 chains all the incremental snapshots to the same base.
+     *
+     * @param incrementalSnapshotsPerBase number of incremental snapshots chained to a base snapshot.
+     */
+    public void setIncrementalSnapshotsPerBase(int incrementalSnapshotsPerBase) {
+        this.siddhiContext.setIncrementalSnapshotsPerBase(incrementalSnapshotsPerBase);
+    }
+
     /**
      * Method to set configManager for the Siddhi Manager instance.
      *
@@ -22,15 +22,20 @@ import com.lmax.disruptor.ExceptionHandler;
 import org.wso2.siddhi.core.function.Script;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
 import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -50,7 +55,10 @@ public class SiddhiAppContext {
 
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
+    private TimerWheel timerWheel;
     private List<EternalReferencedHolder> eternalReferencedHolders;
+    private ThreadLocal<List<EternalReferencedHolder>> recordedEternalReferencedHolders =
+            new ThreadLocal<List<EternalReferencedHolder>>();
     private SnapshotService snapshotService;
 
     private ThreadBarrier threadBarrier = null;
@@ -60,6 +68,8 @@ public class SiddhiAppContext {
     private Map<String, Script> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
     private int bufferSize;
+    private String waitStrategy;
+    private String producerType;
 
     public SiddhiAppContext() {
         this.eternalReferencedHolders = new CopyOnWriteArrayList<EternalReferencedHolder>();
@@ -130,8 +140,50 @@ public class SiddhiAppContext {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
         eternalReferencedHolders.add(eternalReferencedHolder);
+        List<EternalReferencedHolder> recordedList = recordedEternalReferencedHolders.get();
+        if (recordedList != null) {
+            recordedList.add(eternalReferencedHolder);
+        }
+    }
+
+    /**
+     * Remove the given holders, so that they are no longer started and stopped with the Siddhi app
+     *
+     * @param eternalReferencedHolders holders to be removed
+     */
+    public void removeEternalReferencedHolders(List<EternalReferencedHolder> eternalReferencedHolders) {
+        Set<EternalReferencedHolder> removedHolders = Collections.newSetFromMap(
+                new IdentityHashMap<EternalReferencedHolder, Boolean>(eternalReferencedHolders.size()));
+        removedHolders.addAll(eternalReferencedHolders);
+        this.eternalReferencedHolders.removeIf(removedHolders::contains);
+    }
+
+    /**
+     * Start recording the holders added by the current thread
+     */
+    public void startRecordingEternalReferencedHolders() {
+        recordedEternalReferencedHolders.set(new ArrayList<EternalReferencedHolder>());
+    }
+
+    /**
+     * Stop recording the holders added by the current thread
+     *
+     * @return holders added since {@link #startRecordingEternalReferencedHolders()}
+     */
+    public List<EternalReferencedHolder> stopRecordingEternalReferencedHolders() {
+        List<EternalReferencedHolder> recordedList = recordedEternalReferencedHolders.get();
+        recordedEternalReferencedHolders.remove();
+        return recordedList;
     }
 
     public List<EternalReferencedHolder> getEternalReferencedHolders() {
@@ -217,4 +269,20 @@ public class SiddhiAppContext {
     public void setBufferSize(int bufferSize) {
         this.bufferSize = bufferSize;
     }
+
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(String waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public String getProducerType() {
+        return producerType;
+    }
+
+    public void setProducerType(String producerType) {
+        this.producerType = producerType;
+    }
 }
@@ -25,6 +25,8 @@ import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.config.InMemoryConfigManager;
 import org.wso2.siddhi.core.util.extension.holder.AbstractExtensionHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
 
 import java.util.HashMap;
@@ -42,6 +44,9 @@ public class SiddhiContext {
     private ExceptionHandler<Object> defaultDisrupterExceptionHandler;
     private Map<String, Class> siddhiExtensions = new HashMap<>();
     private PersistenceStore persistenceStore = null;
+    private SnapshotCodec snapshotCodec = new BinarySnapshotCodec();
+    private boolean snapshotStatesCopied = false;
+    private int incrementalSnapshotsPerBase = 10;
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap;
@@ -84,6 +89,30 @@ public class SiddhiContext {
         this.persistenceStore = persistenceStore;
     }
 
+    public SnapshotCodec getSnapshotCodec() {
+        return snapshotCodec;
+    }
+
+    public void setSnapshotCodec(SnapshotCodec snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+    }
+
+    public boolean isSnapshotStatesCopied() {
+        return snapshotStatesCopied;
+    }
+
+    public void setSnapshotStatesCopied(boolean snapshotStatesCopied) {
+        this.snapshotStatesCopied = snapshotStatesCopied;
+    }
+
+    public int getIncrementalSnapshotsPerBase() {
+        return incrementalSnapshotsPerBase;
+    }
+
+    public void setIncrementalSnapshotsPerBase(int incrementalSnapshotsPerBase) {
+        this.incrementalSnapshotsPerBase = incrementalSnapshotsPerBase;
+    }
+
     public void setConfigManager(ConfigManager configManager) {
         this.configManager = configManager;
     }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.event;
+
+/**
+ * Pool of reusable {@link ComplexEvent}s. Events are borrowed while they are processed and returned once no
+ * processor holds a reference to them anymore, so that the same instances can be used again instead of creating
+ * new events.
+ *
+ * @param <E> type of the pooled event
+ */
+public interface EventPool<E extends ComplexEvent> {
+
+    /**
+     * Borrowing an event
+     *
+     * @return if an event exist in the pool an existing event if not a new event will be returned
+     */
+    E borrowEvent();
+
+    /**
+     * Collects the used events
+     * If the pool has space the returned events will be added to the pool else they will be dropped
+     *
+     * @param event used event chain
+     */
+    void returnEvents(E event);
+
+    /**
+     * @return Occupied buffer size
+     */
+    int getBufferedEventsSize();
+
+    /**
+     * @return Maximum number of events retained by the pool
+     */
+    int getSize();
+
+    /**
+     * @return Number of borrows served from the pool
+     */
+    long getHitCount();
+
+    /**
+     * @return Number of borrows which had to create a new event
+     */
+    long getMissCount();
+}
@@ -20,7 +20,12 @@ package org.wso2.siddhi.core.event.state;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.util.snapshot.SnapshotInputStream;
+import org.wso2.siddhi.core.util.snapshot.SnapshotOutputStream;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -254,5 +259,30 @@ public class StateEvent implements ComplexEvent {
         this.id = id;
     }
 
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        if (stream instanceof SnapshotOutputStream) {
+            stream.writeObject(streamEvents);
+            ((SnapshotOutputStream) stream).writeValues(outputData);
+            stream.writeByte(type.ordinal());
+            stream.writeLong(timestamp);
+            stream.writeLong(id);
+            stream.writeObject(next);
+        } else {
+            stream.defaultWriteObject();
+        }
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        if (stream instanceof SnapshotInputStream) {
+            streamEvents = (StreamEvent[]) stream.readObject();
+            outputData = ((SnapshotInputStream) stream).readValues();
+            type = Type.values()[stream.readByte()];
+            timestamp = stream.readLong();
+            id = stream.readLong();
+            next = (StateEvent) stream.readObject();
+        } else {
+            stream.defaultReadObject();
+        }
+    }
 
 }
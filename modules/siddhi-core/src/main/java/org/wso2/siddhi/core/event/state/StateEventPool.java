@@ -17,17 +17,22 @@
  */
 package org.wso2.siddhi.core.event.state;
 
+import org.wso2.siddhi.core.event.EventPool;
+
 /**
- * Event pool containing StreamEvent for reuse
- * This is not a thread safe implementation
+ * Event pool containing StateEvent for reuse
+ * This is not a thread safe implementation, the pool is owned by a single query, and its hit and miss counts are
+ * read by the statistics without synchronization
  */
-public class StateEventPool {
+public class StateEventPool implements EventPool<StateEvent> {
 
     private StateEventFactory eventFactory;
     private int size;
     private int index = 0;
     private StateEvent stateEventList;
     private long id = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
 
     public StateEventPool(MetaStateEvent metaStateEvent, int size) {
         eventFactory = new StateEventFactory(metaStateEvent.getStreamEventCount(),
@@ -45,15 +50,18 @@ public class StateEventPool {
      *
      * @return if StateEvent exist in the pool an existing event if not a new StateEvent will be returned
      */
+    @Override
     public StateEvent borrowEvent() {
         if (index > 0) {
             StateEvent event = stateEventList;
             stateEventList = stateEventList.getNext();
             event.setNext(null);
             index--;
+            hitCount++;
             event.setId(++id);
             return event;
         } else {
+            missCount++;
             StateEvent event = eventFactory.newInstance();
             event.setId(++id);
             return event;
@@ -66,6 +74,7 @@ public class StateEventPool {
      *
      * @param stateEvent used event
      */
+    @Override
     public void returnEvents(StateEvent stateEvent) {
         if (stateEvent != null) {
             if (index < size) {
@@ -86,11 +95,23 @@ public class StateEventPool {
     /**
      * @return Occupied buffer size
      */
+    @Override
     public int getBufferedEventsSize() {
         return index;
     }
 
+    @Override
     public int getSize() {
         return size;
     }
+
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount;
+    }
 }
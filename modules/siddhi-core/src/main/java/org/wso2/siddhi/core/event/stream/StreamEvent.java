@@ -18,6 +18,8 @@
 package org.wso2.siddhi.core.event.stream;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.util.snapshot.SnapshotInputStream;
+import org.wso2.siddhi.core.util.snapshot.SnapshotOutputStream;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -226,6 +228,10 @@ public class StreamEvent implements ComplexEvent {
 
     private void writeObject(ObjectOutputStream stream)
             throws IOException {
+        if (stream instanceof SnapshotOutputStream) {
+            writeEvents((SnapshotOutputStream) stream);
+            return;
+        }
         stream.writeObject(beforeWindowData);
         stream.writeObject(onAfterWindowData);
         stream.writeObject(outputData);
@@ -247,6 +253,10 @@ public class StreamEvent implements ComplexEvent {
 
     private void readObject(ObjectInputStream stream)
             throws IOException, ClassNotFoundException {
+        if (stream instanceof SnapshotInputStream) {
+            readEvents((SnapshotInputStream) stream);
+            return;
+        }
         StreamEvent previousStreamEvent;
         beforeWindowData = (Object[]) stream.readObject();
         onAfterWindowData = (Object[]) stream.readObject();
@@ -267,4 +277,42 @@ public class StreamEvent implements ComplexEvent {
             isNextAvailable = stream.readBoolean();
         }
     }
+
+    /**
+     * Write the event chain with the attribute values as type tagged primitives.
+     */
+    private void writeEvents(SnapshotOutputStream stream) throws IOException {
+        StreamEvent nextEvent = this;
+        do {
+            stream.writeValues(nextEvent.beforeWindowData);
+            stream.writeValues(nextEvent.onAfterWindowData);
+            stream.writeValues(nextEvent.outputData);
+            stream.writeByte(nextEvent.type.ordinal());
+            stream.writeLong(nextEvent.timestamp);
+            nextEvent = nextEvent.next;
+            stream.writeBoolean(nextEvent != null);
+        } while (nextEvent != null);
+    }
+
+    private void readEvents(SnapshotInputStream stream) throws IOException, ClassNotFoundException {
+        Type[] types = Type.values();
+        StreamEvent previousStreamEvent = null;
+        StreamEvent currentEvent = this;
+        boolean isNextAvailable;
+        do {
+            currentEvent.beforeWindowData = stream.readValues();
+            currentEvent.onAfterWindowData = stream.readValues();
+            currentEvent.outputData = stream.readValues();
+            currentEvent.type = types[stream.readByte()];
+            currentEvent.timestamp = stream.readLong();
+            if (previousStreamEvent != null) {
+                previousStreamEvent.next = currentEvent;
+            }
+            previousStreamEvent = currentEvent;
+            isNextAvailable = stream.readBoolean();
+            if (isNextAvailable) {
+                currentEvent = new StreamEvent(0, 0, 0);
+            }
+        } while (isNextAvailable);
+    }
 }
@@ -17,19 +17,24 @@
  */
 package org.wso2.siddhi.core.event.stream;
 
+import org.wso2.siddhi.core.event.EventPool;
+
 import java.io.Serializable;
 
 /**
  * Event pool containing StreamEvent for reuse
- * This is not a thread safe implementation
+ * This is not a thread safe implementation, the pool is owned by a single query, and its hit and miss counts are
+ * read by the statistics without synchronization
  */
-public class StreamEventPool implements Serializable {
+public class StreamEventPool implements EventPool<StreamEvent>, Serializable {
 
     private static final long serialVersionUID = -1743558131917334571L;
     private StreamEventFactory eventFactory;
     private int size;
     private int index = 0;
     private StreamEvent streamEventList;
+    private long hitCount = 0;
+    private long missCount = 0;
 
     public StreamEventPool(MetaStreamEvent metaStreamEvent, int size) {
         eventFactory = new StreamEventFactory(metaStreamEvent.getBeforeWindowData().size(),
@@ -48,14 +53,17 @@ public class StreamEventPool implements Serializable {
      *
      * @return if StreamEvent exist in the pool an existing event if not a new StreamEvent will be returned
      */
+    @Override
     public StreamEvent borrowEvent() {
         if (index > 0) {
             StreamEvent event = streamEventList;
             streamEventList = streamEventList.getNext();
             event.setNext(null);
             index--;
+            hitCount++;
             return event;
         } else {
+            missCount++;
             return eventFactory.newInstance();
         }
     }
@@ -66,6 +74,7 @@ public class StreamEventPool implements Serializable {
      *
      * @param streamEvent used event
      */
+    @Override
     public void returnEvents(StreamEvent streamEvent) {
         if (streamEvent != null) {
             if (index < size) {
@@ -86,11 +95,23 @@ public class StreamEventPool implements Serializable {
     /**
      * @return Occupied buffer size
      */
+    @Override
     public int getBufferedEventsSize() {
         return index;
     }
 
+    @Override
     public int getSize() {
         return size;
     }
+
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount;
+    }
 }
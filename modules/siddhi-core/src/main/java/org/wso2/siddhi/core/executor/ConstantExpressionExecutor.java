@@ -24,13 +24,19 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 /**
  * Executor class for Constant Siddhi expressions. Function execution logic is implemented in execute method.
  */
-public class ConstantExpressionExecutor implements ExpressionExecutor {
+public class ConstantExpressionExecutor implements PrimitiveExpressionExecutor {
     private Object value;
     private Attribute.Type type;
+    private long longValue;
+    private double doubleValue;
 
     public ConstantExpressionExecutor(Object value, Attribute.Type type) {
         this.value = value;
         this.type = type;
+        if (value instanceof Number) {
+            this.longValue = ((Number) value).longValue();
+            this.doubleValue = ((Number) value).doubleValue();
+        }
     }
 
     @Override
@@ -42,6 +48,21 @@ public class ConstantExpressionExecutor implements ExpressionExecutor {
         return type;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return value instanceof Number;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return longValue;
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return doubleValue;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return this;
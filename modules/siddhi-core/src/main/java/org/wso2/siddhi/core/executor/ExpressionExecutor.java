@@ -21,6 +21,9 @@ package org.wso2.siddhi.core.executor;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 /**
  * Parent interface for all Expression Executors classes.
  */
@@ -30,6 +33,58 @@ public interface ExpressionExecutor {
 
     Attribute.Type getReturnType();
 
+    /**
+     * Clone the executor for the given partition key. Executor subtrees holding no state are returned as they are
+     * and shared between the keys, while an executor holding state per key, along with all its parent executors, is
+     * still cloned as a whole for each key.
+     *
+     * @param key partition key of the clone
+     * @return the executor itself if it holds no state, else a new executor for the key
+     */
     ExpressionExecutor cloneExecutor(String key);
 
+    /**
+     * Clone an executor having a single child executor. When the child is not cloned, as it holds no state per key,
+     * the executor itself is returned, such that stateless executor trees are shared between the clones.
+     *
+     * @param executor      executor to be cloned
+     * @param key           partition key of the clone
+     * @param childExecutor child executor of the executor
+     * @param constructor   constructor of the executor from its child executor
+     * @return the executor itself, or a new executor over the cloned child
+     */
+    static ExpressionExecutor cloneWithChildren(ExpressionExecutor executor, String key,
+                                                ExpressionExecutor childExecutor,
+                                                Function<ExpressionExecutor, ExpressionExecutor> constructor) {
+        ExpressionExecutor childClone = childExecutor.cloneExecutor(key);
+        if (childClone == childExecutor) {
+            return executor;
+        }
+        return constructor.apply(childClone);
+    }
+
+    /**
+     * Clone an executor having a left and a right child executor. When neither child is cloned, as they hold no
+     * state per key, the executor itself is returned, such that stateless executor trees are shared between the
+     * clones.
+     *
+     * @param executor      executor to be cloned
+     * @param key           partition key of the clone
+     * @param leftExecutor  left child executor of the executor
+     * @param rightExecutor right child executor of the executor
+     * @param constructor   constructor of the executor from its left and right child executors
+     * @return the executor itself, or a new executor over the cloned children
+     */
+    static ExpressionExecutor cloneWithChildren(ExpressionExecutor executor, String key,
+                                                ExpressionExecutor leftExecutor, ExpressionExecutor rightExecutor,
+                                                BiFunction<ExpressionExecutor, ExpressionExecutor,
+                                                        ExpressionExecutor> constructor) {
+        ExpressionExecutor leftClone = leftExecutor.cloneExecutor(key);
+        ExpressionExecutor rightClone = rightExecutor.cloneExecutor(key);
+        if (leftClone == leftExecutor && rightClone == rightExecutor) {
+            return executor;
+        }
+        return constructor.apply(leftClone, rightClone);
+    }
+
 }
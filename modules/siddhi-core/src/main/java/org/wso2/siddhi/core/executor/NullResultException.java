@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor;
+
+/**
+ * Signals that a {@link PrimitiveExpressionExecutor} evaluates to null, so that nullness is derived while evaluating
+ * instead of walking the expression tree a second time. A single instance without a stack trace is reused since it
+ * is thrown per event and always caught by the executor that boxes the result.
+ */
+public final class NullResultException extends RuntimeException {
+
+    public static final NullResultException INSTANCE = new NullResultException();
+
+    private NullResultException() {
+        super("Expression evaluated to null", null, false, false);
+    }
+}
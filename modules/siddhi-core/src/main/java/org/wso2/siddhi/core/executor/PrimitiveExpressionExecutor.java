@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.executor;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+/**
+ * Expression Executor which can evaluate numeric results as primitives, so that nested arithmetic and comparisons
+ * do not box intermediate values. The primitive methods are only valid when {@link #isPrimitiveExecutable()}
+ * returns true. When {@link #execute(ComplexEvent)} would have returned null they throw
+ * {@link NullResultException#INSTANCE}, which the caller that boxes or compares the result catches.
+ */
+public interface PrimitiveExpressionExecutor extends ExpressionExecutor {
+
+    /**
+     * @return true if this executor and all of its children can be evaluated without boxing
+     */
+    boolean isPrimitiveExecutable();
+
+    /**
+     * @param event event to be evaluated
+     * @return result as a long, only meaningful for {@link Attribute.Type#INT} and {@link Attribute.Type#LONG}
+     * @throws NullResultException if the result is null
+     */
+    long executeAsLong(ComplexEvent event);
+
+    /**
+     * @param event event to be evaluated
+     * @return result as a double
+     * @throws NullResultException if the result is null
+     */
+    double executeAsDouble(ComplexEvent event);
+
+    /**
+     * @param event event to be evaluated
+     * @return result as a float, converting integral results directly to keep Java float promotion semantics
+     * @throws NullResultException if the result is null
+     */
+    default float executeAsFloat(ComplexEvent event) {
+        Attribute.Type type = getReturnType();
+        if (type == Attribute.Type.INT || type == Attribute.Type.LONG) {
+            return (float) executeAsLong(event);
+        }
+        return (float) executeAsDouble(event);
+    }
+
+    /**
+     * @param expressionExecutor executor to be checked
+     * @return true if the executor supports primitive evaluation of its numeric result
+     */
+    static boolean isPrimitiveExecutable(ExpressionExecutor expressionExecutor) {
+        return expressionExecutor instanceof PrimitiveExpressionExecutor &&
+                ((PrimitiveExpressionExecutor) expressionExecutor).isPrimitiveExecutable();
+    }
+}
@@ -29,7 +29,7 @@ import static org.wso2.siddhi.core.util.SiddhiConstants.UNKNOWN_STATE;
  * Executor class for Siddhi event attributes. This executor is used to extract attribute value from
  * {@link ComplexEvent}.
  */
-public class VariableExpressionExecutor implements ExpressionExecutor {
+public class VariableExpressionExecutor implements PrimitiveExpressionExecutor {
     private Attribute attribute;
     private int[] position = new int[]{UNKNOWN_STATE, UNKNOWN_STATE, UNKNOWN_STATE, UNKNOWN_STATE};
     //Position[stream event chain index, stream event index, stream attribute type index, stream attribute index]
@@ -51,6 +51,37 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return attribute.getType();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        switch (attribute.getType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return getNumber(event).longValue();
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return getNumber(event).doubleValue();
+    }
+
+    private Number getNumber(ComplexEvent event) {
+        Object value = event.getAttribute(position);
+        if (value == null) {
+            throw NullResultException.INSTANCE;
+        }
+        return (Number) value;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return this;
@@ -77,8 +77,8 @@ public class AndConditionExpressionExecutor extends ConditionExpressionExecutor
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AndConditionExpressionExecutor(leftConditionExecutor.cloneExecutor(key), rightConditionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftConditionExecutor, rightConditionExecutor,
+                AndConditionExpressionExecutor::new);
     }
 
 }
@@ -51,7 +51,7 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new BoolConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, conditionExecutor, BoolConditionExpressionExecutor::new);
     }
 
 
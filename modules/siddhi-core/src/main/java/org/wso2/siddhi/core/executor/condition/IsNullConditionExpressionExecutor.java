@@ -43,7 +43,8 @@ public class IsNullConditionExpressionExecutor extends ConditionExpressionExecut
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new IsNullConditionExpressionExecutor(expressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, expressionExecutor,
+                IsNullConditionExpressionExecutor::new);
     }
 
 }
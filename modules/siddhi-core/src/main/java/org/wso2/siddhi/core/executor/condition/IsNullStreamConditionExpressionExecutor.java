@@ -53,7 +53,7 @@ public class IsNullStreamConditionExpressionExecutor extends ConditionExpression
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new IsNullStreamConditionExpressionExecutor(eventPosition);
+        return this;
     }
 
 }
@@ -51,7 +51,7 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new NotConditionExpressionExecutor(conditionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, conditionExecutor, NotConditionExpressionExecutor::new);
     }
 
 
@@ -79,8 +79,8 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new OrConditionExpressionExecutor(leftConditionExecutor.cloneExecutor(key), rightConditionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftConditionExecutor, rightConditionExecutor,
+                OrConditionExpressionExecutor::new);
     }
 
 
@@ -19,24 +19,42 @@ package org.wso2.siddhi.core.executor.condition.compare;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Parent Executor class for Compare conditions. common evaluation logic is implemented within executor.
+ * When both operands are numeric and support {@link PrimitiveExpressionExecutor} evaluation the comparison is done on
+ * primitives, using the same numeric promotion as the type specific sub classes.
  */
 public abstract class CompareConditionExpressionExecutor extends ConditionExpressionExecutor {
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    protected Attribute.Type primitiveCompareType;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        if (PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor)) {
+            this.primitiveCompareType = resolvePrimitiveCompareType(leftExpressionExecutor.getReturnType(),
+                    rightExpressionExecutor.getReturnType());
+        }
     }
 
 
     public Boolean execute(ComplexEvent event) {
+        if (primitiveCompareType != null) {
+            try {
+                return executePrimitive(event);
+            } catch (NullResultException e) {
+                return false;
+            }
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return !(left == null || right == null) && execute(left, right);
@@ -44,4 +62,35 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected abstract Boolean execute(Object left, Object right);
 
+    protected abstract boolean compare(long left, long right);
+
+    protected abstract boolean compare(double left, double right);
+
+    protected boolean executePrimitive(ComplexEvent event) {
+        PrimitiveExpressionExecutor left = (PrimitiveExpressionExecutor) leftExpressionExecutor;
+        PrimitiveExpressionExecutor right = (PrimitiveExpressionExecutor) rightExpressionExecutor;
+        switch (primitiveCompareType) {
+            case LONG:
+                return compare(left.executeAsLong(event), right.executeAsLong(event));
+            case FLOAT:
+                return compare(left.executeAsFloat(event), right.executeAsFloat(event));
+            default:
+                return compare(left.executeAsDouble(event), right.executeAsDouble(event));
+        }
+    }
+
+    private static Attribute.Type resolvePrimitiveCompareType(Attribute.Type leftType, Attribute.Type rightType) {
+        if (leftType == Attribute.Type.DOUBLE || rightType == Attribute.Type.DOUBLE) {
+            return Attribute.Type.DOUBLE;
+        } else if (leftType == Attribute.Type.FLOAT || rightType == Attribute.Type.FLOAT) {
+            if (leftType == Attribute.Type.LONG || rightType == Attribute.Type.LONG) {
+                // Type specific executors are not consistent on float/long promotion, hence keep the boxed path.
+                return null;
+            }
+            return Attribute.Type.FLOAT;
+        } else {
+            return Attribute.Type.LONG;
+        }
+    }
+
 }
@@ -37,7 +37,7 @@ public class EqualCompareConditionExpressionExecutorBoolBool extends EqualCompar
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new EqualCompareConditionExpressionExecutorBoolBool(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                EqualCompareConditionExpressionExecutorBoolBool::new);
     }
 }
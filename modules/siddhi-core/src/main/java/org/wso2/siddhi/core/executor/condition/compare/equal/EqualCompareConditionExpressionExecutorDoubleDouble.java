@@ -41,7 +41,7 @@ public class EqualCompareConditionExpressionExecutorDoubleDouble extends
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new EqualCompareConditionExpressionExecutorDoubleDouble(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                EqualCompareConditionExpressionExecutorDoubleDouble::new);
     }
 }
@@ -41,7 +41,7 @@ public class EqualCompareConditionExpressionExecutorDoubleFloat extends
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new EqualCompareConditionExpressionExecutorDoubleFloat(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                EqualCompareConditionExpressionExecutorDoubleFloat::new);
     }
 }
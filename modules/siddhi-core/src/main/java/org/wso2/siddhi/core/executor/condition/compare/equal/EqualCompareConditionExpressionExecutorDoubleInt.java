@@ -41,7 +41,7 @@ public class EqualCompareConditionExpressionExecutorDoubleInt extends
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new EqualCompareConditionExpressionExecutorDoubleInt(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                EqualCompareConditionExpressionExecutorDoubleInt::new);
     }
 }
@@ -41,7 +41,7 @@ public class EqualCompareConditionExpressionExecutorDoubleLong extends
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new EqualCompareConditionExpressionExecutorDoubleLong(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                EqualCompareConditionExpressionExecutorDoubleLong::new);
     }
 }
@@ -39,7 +39,7 @@ public class GreaterThanCompareConditionExpressionExecutorDoubleLong extends
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GreaterThanCompareConditionExpressionExecutorDoubleLong(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                GreaterThanCompareConditionExpressionExecutorDoubleLong::new);
     }
 }
@@ -42,7 +42,7 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble exte
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble(leftExpressionExecutor
-                .cloneExecutor(key), rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                GreaterThanEqualCompareConditionExpressionExecutorDoubleDouble::new);
     }
 }
@@ -41,7 +41,7 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleFloat exten
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GreaterThanEqualCompareConditionExpressionExecutorDoubleFloat(leftExpressionExecutor.cloneExecutor
-                (key), rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                GreaterThanEqualCompareConditionExpressionExecutorDoubleFloat::new);
     }
 }
@@ -41,7 +41,7 @@ public class GreaterThanEqualCompareConditionExpressionExecutorDoubleLong extend
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GreaterThanEqualCompareConditionExpressionExecutorDoubleLong(leftExpressionExecutor.cloneExecutor
-                (key), rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                GreaterThanEqualCompareConditionExpressionExecutorDoubleLong::new);
     }
 }
@@ -41,7 +41,7 @@ public class GreaterThanEqualCompareConditionExpressionExecutorFloatDouble exten
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GreaterThanEqualCompareConditionExpressionExecutorFloatDouble(leftExpressionExecutor.cloneExecutor
-                (key), rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                GreaterThanEqualCompareConditionExpressionExecutorFloatDouble::new);
     }
 }
@@ -19,6 +19,7 @@ package org.wso2.siddhi.core.executor.condition.compare.notequal;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
 import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
 
 /**
@@ -32,8 +33,25 @@ public abstract class NotEqualCompareConditionExpressionExecutor extends Compare
     }
 
     public Boolean execute(ComplexEvent event) {
+        if (primitiveCompareType != null) {
+            try {
+                return executePrimitive(event);
+            } catch (NullResultException e) {
+                return true;
+            }
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
         return left == null || right == null || execute(left, right);
     }
+
+    @Override
+    protected boolean compare(long left, long right) {
+        return left != right;
+    }
+
+    @Override
+    protected boolean compare(double left, double right) {
+        return left != right;
+    }
 }
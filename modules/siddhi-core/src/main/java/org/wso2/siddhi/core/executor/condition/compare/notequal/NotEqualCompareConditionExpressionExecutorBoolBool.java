@@ -37,7 +37,7 @@ public class NotEqualCompareConditionExpressionExecutorBoolBool extends NotEqual
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new NotEqualCompareConditionExpressionExecutorBoolBool(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                NotEqualCompareConditionExpressionExecutorBoolBool::new);
     }
 }
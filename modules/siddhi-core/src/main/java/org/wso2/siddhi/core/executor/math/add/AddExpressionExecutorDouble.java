@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.add;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorDouble implements ExpressionExecutor {
+public class AddExpressionExecutorDouble implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public AddExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return executeAsDouble(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -45,14 +57,30 @@ public class AddExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() + ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (long) executeAsDouble(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsDouble(event) +
+                ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsDouble(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AddExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                AddExpressionExecutorDouble::new);
     }
 
 }
@@ -19,23 +19,35 @@ package org.wso2.siddhi.core.executor.math.add;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorFloat implements ExpressionExecutor {
+public class AddExpressionExecutorFloat implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
     public AddExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
                                       ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return (float) executeAsDouble(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -44,14 +56,30 @@ public class AddExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() + ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (long) executeAsDouble(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsFloat(event) +
+                ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsFloat(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AddExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                AddExpressionExecutorFloat::new);
     }
 
 }
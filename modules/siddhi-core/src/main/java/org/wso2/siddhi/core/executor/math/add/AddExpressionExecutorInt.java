@@ -19,23 +19,35 @@ package org.wso2.siddhi.core.executor.math.add;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorInt implements ExpressionExecutor {
+public class AddExpressionExecutorInt implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
     public AddExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                     ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return (int) executeAsLong(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -45,14 +57,30 @@ public class AddExpressionExecutorInt implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (int) ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsLong(event) +
+                (int) ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsLong(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return executeAsLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AddExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                AddExpressionExecutorInt::new);
     }
 
 }
@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.add;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorLong implements ExpressionExecutor {
+public class AddExpressionExecutorLong implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public AddExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
                                      ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return executeAsLong(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -46,14 +58,30 @@ public class AddExpressionExecutorLong implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsLong(event) +
+                ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsLong(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return executeAsLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new AddExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                AddExpressionExecutorLong::new);
     }
 
 }
@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Divide function. Function execution logic is implemented in execute here.
  */
-public class DivideExpressionExecutorDouble implements ExpressionExecutor {
+public class DivideExpressionExecutorDouble implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                           ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return executeAsDouble(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -50,14 +62,34 @@ public class DivideExpressionExecutorDouble implements ExpressionExecutor {
 
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (long) executeAsDouble(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        double left = ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsDouble(event);
+        double right = ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsDouble(event);
+        if (right == 0.0) {
+            throw NullResultException.INSTANCE;
+        }
+        return left / right;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                DivideExpressionExecutorDouble::new);
     }
 
 }
@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Divide function. Function execution logic is implemented in execute here.
  */
-public class DivideExpressionExecutorFloat implements ExpressionExecutor {
+public class DivideExpressionExecutorFloat implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorFloat(ExpressionExecutor leftExpressionExecutor,
                                          ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return (float) executeAsDouble(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -49,14 +61,34 @@ public class DivideExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (long) executeAsDouble(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        float left = ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsFloat(event);
+        float right = ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsFloat(event);
+        if (right == 0.0f) {
+            throw NullResultException.INSTANCE;
+        }
+        return left / right;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorFloat(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                DivideExpressionExecutorFloat::new);
     }
 
 }
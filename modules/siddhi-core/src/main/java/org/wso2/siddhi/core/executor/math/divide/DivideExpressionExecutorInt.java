@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer Divide function. Function execution logic is implemented in execute here.
  */
-public class DivideExpressionExecutorInt implements ExpressionExecutor {
+public class DivideExpressionExecutorInt implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return (int) executeAsLong(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -49,14 +61,34 @@ public class DivideExpressionExecutorInt implements ExpressionExecutor {
         return ((Number) leftObject).intValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        int left = (int) ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsLong(event);
+        int right = (int) ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsLong(event);
+        if (right == 0) {
+            throw NullResultException.INSTANCE;
+        }
+        return left / right;
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return executeAsLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                DivideExpressionExecutorInt::new);
     }
 
 }
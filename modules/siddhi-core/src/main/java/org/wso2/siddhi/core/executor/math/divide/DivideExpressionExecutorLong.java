@@ -19,24 +19,36 @@ package org.wso2.siddhi.core.executor.math.divide;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long Divide function. Function execution logic is implemented in execute here.
  */
-public class DivideExpressionExecutorLong implements ExpressionExecutor {
+public class DivideExpressionExecutorLong implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
                                         ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return executeAsLong(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -49,14 +61,34 @@ public class DivideExpressionExecutorLong implements ExpressionExecutor {
         return ((Number) leftObject).longValue() / right;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        long left = ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsLong(event);
+        long right = ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsLong(event);
+        if (right == 0L) {
+            throw NullResultException.INSTANCE;
+        }
+        return left / right;
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return executeAsLong(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new DivideExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
-                .cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                DivideExpressionExecutorLong::new);
     }
 
 }
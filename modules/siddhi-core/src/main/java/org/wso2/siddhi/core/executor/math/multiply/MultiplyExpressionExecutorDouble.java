@@ -20,24 +20,36 @@ package org.wso2.siddhi.core.executor.math.multiply;
 
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.NullResultException;
+import org.wso2.siddhi.core.executor.PrimitiveExpressionExecutor;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
+public class MultiplyExpressionExecutorDouble implements PrimitiveExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public MultiplyExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                             ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = PrimitiveExpressionExecutor.isPrimitiveExecutable(leftExpressionExecutor) &&
+                PrimitiveExpressionExecutor.isPrimitiveExecutable(rightExpressionExecutor);
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            try {
+                return executeAsDouble(event);
+            } catch (NullResultException e) {
+                return null;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -46,14 +58,30 @@ public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() * ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeAsLong(ComplexEvent event) {
+        return (long) executeAsDouble(event);
+    }
+
+    @Override
+    public double executeAsDouble(ComplexEvent event) {
+        return ((PrimitiveExpressionExecutor) leftExpressionExecutor).executeAsDouble(event) *
+                ((PrimitiveExpressionExecutor) rightExpressionExecutor).executeAsDouble(event);
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
 
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
-        return new MultiplyExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key),
-                rightExpressionExecutor.cloneExecutor(key));
+        return ExpressionExecutor.cloneWithChildren(this, key, leftExpressionExecutor, rightExpressionExecutor,
+                MultiplyExpressionExecutorDouble::new);
     }
 
 }
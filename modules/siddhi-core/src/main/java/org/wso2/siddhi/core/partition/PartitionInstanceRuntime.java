@@ -18,6 +18,8 @@
 package org.wso2.siddhi.core.partition;
 
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 
 import java.util.List;
 
@@ -28,12 +30,27 @@ import java.util.List;
 public class PartitionInstanceRuntime {
     private String key;
     private List<QueryRuntime> queryRuntimeList;
+    private List<String> streamJunctionKeys;
+    private List<Snapshotable> snapshotables;
+    private List<EternalReferencedHolder> eternalReferencedHolders;
+    private volatile long lastUsedTimestamp;
 
     public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList) {
         this.key = key;
         this.queryRuntimeList = queryRuntimeList;
     }
 
+    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList, List<String> streamJunctionKeys,
+                                    List<Snapshotable> snapshotables,
+                                    List<EternalReferencedHolder> eternalReferencedHolders, long lastUsedTimestamp) {
+        this.key = key;
+        this.queryRuntimeList = queryRuntimeList;
+        this.streamJunctionKeys = streamJunctionKeys;
+        this.snapshotables = snapshotables;
+        this.eternalReferencedHolders = eternalReferencedHolders;
+        this.lastUsedTimestamp = lastUsedTimestamp;
+    }
+
     public List<QueryRuntime> getQueryRuntimeList() {
         return queryRuntimeList;
     }
@@ -42,6 +59,35 @@ public class PartitionInstanceRuntime {
         return key;
     }
 
+    /**
+     * @return keys of the local stream junctions created for this partition instance
+     */
+    public List<String> getStreamJunctionKeys() {
+        return streamJunctionKeys;
+    }
+
+    /**
+     * @return snapshotable elements registered while creating this partition instance
+     */
+    public List<Snapshotable> getSnapshotables() {
+        return snapshotables;
+    }
+
+    /**
+     * @return eternal referenced holders registered while creating this partition instance
+     */
+    public List<EternalReferencedHolder> getEternalReferencedHolders() {
+        return eternalReferencedHolders;
+    }
+
+    public long getLastUsedTimestamp() {
+        return lastUsedTimestamp;
+    }
+
+    public void setLastUsedTimestamp(long lastUsedTimestamp) {
+        this.lastUsedTimestamp = lastUsedTimestamp;
+    }
+
 }
 
 
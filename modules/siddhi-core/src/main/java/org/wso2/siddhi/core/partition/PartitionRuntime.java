@@ -17,19 +17,27 @@
  */
 package org.wso2.siddhi.core.partition;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.executor.PartitionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
+import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
+import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -47,22 +55,36 @@ import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Runtime class to handle partitioning. It will hold all information regarding current partiotns and wil create
  * partition dynamically during runtime.
+ * When configured with {@literal @}purge(enable='true', interval='..', idle.period='..', max.instances='..') the
+ * partition instances idle for more than the idle period, and the least recently used instances exceeding the maximum
+ * number of instances, are periodically removed together with their state.
+ * When configured with {@literal @}async(workers='..', buffer.size='..') the partition instances are processed in
+ * parallel by a {@link PartitionWorkerPool}, preserving the order of events per partition key.
  */
-public class PartitionRuntime implements Snapshotable {
+public class PartitionRuntime implements Snapshotable, EternalReferencedHolder {
 
+    private static final Logger log = Logger.getLogger(PartitionRuntime.class);
 
     private String partitionId;
     private String elementId;
@@ -79,6 +101,14 @@ public class PartitionRuntime implements Snapshotable {
     private ConcurrentMap<String, PartitionStreamReceiver> partitionStreamReceivers = new ConcurrentHashMap<String,
             PartitionStreamReceiver>();
     private SiddhiAppContext siddhiAppContext;
+    private boolean purgingEnabled = false;
+    private long purgeInterval;
+    private long idlePeriod;
+    private int maxInstances;
+    private ScheduledFuture purgeTask;
+    private volatile long purgedInstanceCount = 0;
+    private PartitionWorkerPool partitionWorkerPool;
+    private final ReentrantReadWriteLock instanceLock = new ReentrantReadWriteLock();
 
     public PartitionRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap, ConcurrentMap<String,
             StreamJunction> streamJunctionMap, Partition partition, SiddhiAppContext siddhiAppContext) {
@@ -98,6 +128,64 @@ public class PartitionRuntime implements Snapshotable {
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
         this.streamJunctionMap = streamJunctionMap;
+
+        Annotation purge = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PURGE,
+                partition.getAnnotations());
+        if (purge != null && SiddhiConstants.TRUE.equalsIgnoreCase(
+                purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE))) {
+            String interval = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL);
+            String idlePeriodString = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD);
+            String maxInstancesString = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_INSTANCES);
+            if (interval == null || (idlePeriodString == null && maxInstancesString == null)) {
+                throw new SiddhiAppCreationException("Purging of partition '" + partitionId + "' requires '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL + "' and at least one of '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD + "' or '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_MAX_INSTANCES + "' to be defined");
+            }
+            try {
+                purgeInterval = SiddhiCompiler.parseTimeConstantDefinition(interval).value();
+                if (idlePeriodString != null) {
+                    idlePeriod = SiddhiCompiler.parseTimeConstantDefinition(idlePeriodString).value();
+                }
+                if (maxInstancesString != null) {
+                    maxInstances = Integer.parseInt(maxInstancesString);
+                }
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Invalid '" + SiddhiConstants.ANNOTATION_ELEMENT_MAX_INSTANCES +
+                        "' value '" + maxInstancesString + "' defined for partition '" + partitionId + "'", e);
+            }
+            if (purgeInterval <= 0 || idlePeriod < 0 || maxInstances < 0) {
+                throw new SiddhiAppCreationException("Purging interval, idle period and maximum instances of " +
+                        "partition '" + partitionId + "' should be positive");
+            }
+            purgingEnabled = true;
+            siddhiAppContext.addEternalReferencedHolder(this);
+        }
+
+        Annotation async = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
+                partition.getAnnotations());
+        if (async != null) {
+            String workersString = async.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+            String bufferSizeString = async.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+            int workers;
+            int bufferSize;
+            try {
+                workers = workersString != null ? Integer.parseInt(workersString) :
+                        Runtime.getRuntime().availableProcessors();
+                bufferSize = bufferSizeString != null ? Integer.parseInt(bufferSizeString) :
+                        SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE;
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Invalid '" + SiddhiConstants.ANNOTATION_ELEMENT_WORKERS +
+                        "' or '" + SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE + "' defined for partition '" +
+                        partitionId + "'", e);
+            }
+            if (workers <= 0 || bufferSize <= 0) {
+                throw new SiddhiAppCreationException("Workers and buffer size of partition '" + partitionId +
+                        "' should be positive");
+            }
+            partitionWorkerPool = new PartitionWorkerPool(partitionId, workers, bufferSize, siddhiAppContext);
+            siddhiAppContext.addEternalReferencedHolder(partitionWorkerPool);
+        }
     }
 
     public QueryRuntime addQuery(QueryRuntime metaQueryRuntime) {
@@ -218,8 +306,11 @@ public class PartitionRuntime implements Snapshotable {
      * @param key partition key
      */
     public void cloneIfNotExist(String key) {
-        if (!partitionInstanceRuntimeMap.containsKey(key)) {
+        PartitionInstanceRuntime partitionInstance = partitionInstanceRuntimeMap.get(key);
+        if (partitionInstance == null) {
             clonePartition(key);
+        } else if (purgingEnabled) {
+            partitionInstance.setLastUsedTimestamp(siddhiAppContext.getTimestampGenerator().currentTime());
         }
     }
 
@@ -227,6 +318,12 @@ public class PartitionRuntime implements Snapshotable {
         PartitionInstanceRuntime partitionInstance = this.partitionInstanceRuntimeMap.get(key);
 
         if (partitionInstance == null) {
+            Set<String> existingStreamJunctionKeys = null;
+            if (purgingEnabled) {
+                existingStreamJunctionKeys = new HashSet<String>(localStreamJunctionMap.keySet());
+                siddhiAppContext.getSnapshotService().startRecording();
+                siddhiAppContext.startRecordingEternalReferencedHolders();
+            }
             List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
             List<QueryRuntime> partitionedQueryRuntimeList = new CopyOnWriteArrayList<QueryRuntime>();
 
@@ -260,10 +357,165 @@ public class PartitionRuntime implements Snapshotable {
                     partitionedQueryRuntimeList.add(clonedQueryRuntime);
                 }
             }
-            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
             updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
+            if (purgingEnabled) {
+                List<Snapshotable> snapshotables = siddhiAppContext.getSnapshotService().stopRecording();
+                List<EternalReferencedHolder> eternalReferencedHolders =
+                        siddhiAppContext.stopRecordingEternalReferencedHolders();
+                List<String> streamJunctionKeys = new ArrayList<String>();
+                for (String streamJunctionKey : localStreamJunctionMap.keySet()) {
+                    if (!existingStreamJunctionKeys.contains(streamJunctionKey)) {
+                        streamJunctionKeys.add(streamJunctionKey);
+                    }
+                }
+                partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList,
+                        streamJunctionKeys, snapshotables, eternalReferencedHolders,
+                        siddhiAppContext.getTimestampGenerator().currentTime()));
+            } else {
+                partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
+            }
+        }
+
+    }
+
+    /**
+     * Remove the partition instances which are idle for more than the idle period, and the least recently used
+     * instances exceeding the maximum number of instances. Their window and aggregation states are discarded and
+     * will be rebuilt from the next event arriving with the same partition key.
+     */
+    private void purgePartitionInstances() {
+        // taken before the monitor, as the senders holding the read lock create the instances under the monitor
+        instanceLock.writeLock().lock();
+        try {
+            purgeIdlePartitionInstances();
+        } finally {
+            instanceLock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void purgeIdlePartitionInstances() {
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        List<PartitionInstanceRuntime> activeInstances = new ArrayList<PartitionInstanceRuntime>();
+        List<PartitionInstanceRuntime> purgeList = new ArrayList<PartitionInstanceRuntime>();
+        for (PartitionInstanceRuntime partitionInstance : partitionInstanceRuntimeMap.values()) {
+            if (idlePeriod > 0 && currentTime - partitionInstance.getLastUsedTimestamp() >= idlePeriod) {
+                purgeList.add(partitionInstance);
+            } else {
+                activeInstances.add(partitionInstance);
+            }
+        }
+        if (maxInstances > 0 && activeInstances.size() > maxInstances) {
+            activeInstances.sort(Comparator.comparingLong(PartitionInstanceRuntime::getLastUsedTimestamp));
+            purgeList.addAll(activeInstances.subList(0, activeInstances.size() - maxInstances));
         }
+        if (purgeList.isEmpty()) {
+            return;
+        }
+        try {
+            siddhiAppContext.getThreadBarrier().lock();
+            // removed from the app at once, as each removal scans all the elements of the app
+            List<EternalReferencedHolder> eternalReferencedHolders = new ArrayList<EternalReferencedHolder>();
+            List<Snapshotable> snapshotables = new ArrayList<Snapshotable>();
+            for (PartitionInstanceRuntime partitionInstance : purgeList) {
+                removePartitionInstance(partitionInstance);
+                eternalReferencedHolders.addAll(partitionInstance.getEternalReferencedHolders());
+                snapshotables.addAll(partitionInstance.getSnapshotables());
+            }
+            siddhiAppContext.removeEternalReferencedHolders(eternalReferencedHolders);
+            siddhiAppContext.getSnapshotService().removeSnapshotables(snapshotables);
+        } finally {
+            siddhiAppContext.getThreadBarrier().unlock();
+        }
+    }
 
+    private void removePartitionInstance(PartitionInstanceRuntime partitionInstance) {
+        String key = partitionInstance.getKey();
+        partitionInstanceRuntimeMap.remove(key);
+        for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
+            partitionStreamReceiver.removeStreamJunction(key);
+        }
+        for (String streamJunctionKey : partitionInstance.getStreamJunctionKeys()) {
+            StreamJunction streamJunction = localStreamJunctionMap.remove(streamJunctionKey);
+            if (streamJunction != null) {
+                streamJunction.stopProcessing();
+            }
+        }
+        for (QueryRuntime queryRuntime : partitionInstance.getQueryRuntimeList()) {
+            for (SingleStreamRuntime singleStreamRuntime : queryRuntime.getStreamRuntime().getSingleStreamRuntimes()) {
+                Processor processor = singleStreamRuntime.getProcessorChain();
+                while (processor != null) {
+                    if (processor instanceof SchedulingProcessor) {
+                        ((SchedulingProcessor) processor).getScheduler().stop();
+                    } else if (processor instanceof StreamPreStateProcessor &&
+                            ((StreamPreStateProcessor) processor).getScheduler() != null) {
+                        ((StreamPreStateProcessor) processor).getScheduler().stop();
+                    }
+                    processor = processor.getNextProcessor();
+                }
+            }
+        }
+        for (QueryRuntime queryRuntime : partitionInstance.getQueryRuntimeList()) {
+            if (queryRuntime.isToLocalStream() &&
+                    queryRuntime.getOutputCallback() instanceof InsertIntoStreamCallback) {
+                ((InsertIntoStreamCallback) queryRuntime.getOutputCallback()).removePublisher();
+            }
+        }
+        for (EternalReferencedHolder eternalReferencedHolder : partitionInstance.getEternalReferencedHolders()) {
+            eternalReferencedHolder.stop();
+        }
+        purgedInstanceCount++;
+    }
+
+    @Override
+    public void start() {
+        if (purgingEnabled && purgeTask == null) {
+            purgeTask = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(
+                    () -> {
+                        try {
+                            purgePartitionInstances();
+                        } catch (Throwable t) {
+                            log.error("Error when purging the instances of partition '" + partitionId + "' in " +
+                                    "Siddhi app '" + siddhiAppContext.getName() + "'", t);
+                        }
+                    }, purgeInterval, purgeInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (purgeTask != null) {
+            purgeTask.cancel(true);
+            purgeTask = null;
+        }
+    }
+
+    /**
+     * @return lock to be held while sending events to the partition instances, such that they are not purged
+     * meanwhile, or null when purging is disabled
+     */
+    public Lock getInstanceLock() {
+        return purgingEnabled ? instanceLock.readLock() : null;
+    }
+
+    /**
+     * @return worker pool processing the partition instances in parallel, or null when processed by the caller
+     */
+    public PartitionWorkerPool getPartitionWorkerPool() {
+        return partitionWorkerPool;
+    }
+
+    /**
+     * @return Number of partition instances currently active
+     */
+    public int getPartitionInstanceCount() {
+        return partitionInstanceRuntimeMap.size();
+    }
+
+    /**
+     * @return Number of partition instances purged since start up
+     */
+    public long getPurgedInstanceCount() {
+        return purgedInstanceCount;
     }
 
     private void updatePartitionStreamReceivers(String key, List<QueryRuntime> partitionedQueryRuntimeList) {
@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverterFactory;
@@ -35,6 +36,7 @@ import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Specific {@link StreamJunction.Receiver} implementation to pump events into partitions. This will send the event
@@ -52,6 +54,8 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> cachedStreamJunctionMap = new ConcurrentHashMap<String, StreamJunction>();
     private ComplexEventChunk<ComplexEvent> streamEventChunk;
+    private PartitionWorkerPool partitionWorkerPool;
+    private StreamEventCloner streamEventCloner;
 
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
@@ -66,6 +70,10 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         streamId = streamDefinition.getId();
         this.eventPool = new StreamEventPool(metaStreamEvent, 5);
         this.streamEventChunk = new ComplexEventChunk<ComplexEvent>(false);
+        this.partitionWorkerPool = partitionRuntime.getPartitionWorkerPool();
+        if (partitionWorkerPool != null) {
+            this.streamEventCloner = new StreamEventCloner(metaStreamEvent, new StreamEventPool(metaStreamEvent, 5));
+        }
 
     }
 
@@ -237,15 +245,82 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
+            if (partitionWorkerPool == null) {
+                sendToInstance(key, event);
+            } else {
+                ComplexEvent copiedEvents = copyEvents(event);
+                // the instance is looked up by the lane, as it might be purged before the events are processed
+                partitionWorkerPool.execute(key, () -> sendToInstance(key, copiedEvents));
+            }
+        }
+    }
+
+    private void send(ComplexEvent event) {
+        for (String streamJunctionKey : cachedStreamJunctionMap.keySet()) {
+            String key = streamJunctionKey.substring(streamId.length());
+            if (partitionWorkerPool == null) {
+                sendToExistingInstance(key, event);
+            } else {
+                ComplexEvent copiedEvents = copyEvents(event);
+                partitionWorkerPool.execute(key, () -> sendToExistingInstance(key, copiedEvents));
+            }
+        }
+    }
+
+    /**
+     * Send the events to the partition instance of the key, creating the instance if it is not available. The
+     * instance lock of the partition is held meanwhile, such that the instance is not purged concurrently.
+     *
+     * @param key   partition key
+     * @param event event chain to be sent
+     */
+    private void sendToInstance(String key, ComplexEvent event) {
+        Lock instanceLock = partitionRuntime.getInstanceLock();
+        if (instanceLock != null) {
+            instanceLock.lock();
+        }
+        try {
             partitionRuntime.cloneIfNotExist(key);
             cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+        } finally {
+            if (instanceLock != null) {
+                instanceLock.unlock();
+            }
         }
     }
 
-    private void send(ComplexEvent event) {
-        for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
-            streamJunction.sendEvent(event);
+    private void sendToExistingInstance(String key, ComplexEvent event) {
+        Lock instanceLock = partitionRuntime.getInstanceLock();
+        if (instanceLock != null) {
+            instanceLock.lock();
+        }
+        try {
+            StreamJunction streamJunction = cachedStreamJunctionMap.get(streamId + key);
+            if (streamJunction != null) {
+                streamJunction.sendEvent(event);
+            }
+        } finally {
+            if (instanceLock != null) {
+                instanceLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Copy the events handed over to the worker pool, as the received events are reused once sent
+     *
+     * @param event event chain to be copied
+     * @return copied event chain
+     */
+    private ComplexEvent copyEvents(ComplexEvent event) {
+        StreamEvent firstEvent = streamEventCloner.copyStreamEvent((StreamEvent) event);
+        StreamEvent currentEvent = firstEvent;
+        for (ComplexEvent nextEvent = event.getNext(); nextEvent != null; nextEvent = nextEvent.getNext()) {
+            StreamEvent copiedEvent = streamEventCloner.copyStreamEvent((StreamEvent) nextEvent);
+            currentEvent.setNext(copiedEvent);
+            currentEvent = copiedEvent;
         }
+        return firstEvent;
     }
 
     /**
@@ -277,6 +352,15 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * remove the local streamJunction of a purged partition instance
+     *
+     * @param key partitioning key
+     */
+    public void removeStreamJunction(String key) {
+        cachedStreamJunctionMap.remove(streamId + key);
+    }
+
     private StreamJunction createStreamJunction() {
         return new StreamJunction(streamDefinition, siddhiAppContext.getExecutorService(),
                                   siddhiAppContext.getBufferSize(), siddhiAppContext);
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Set of worker lanes processing the instances of a partition in parallel. A partition key is always assigned to the
+ * same lane, hence the events of a partition key are processed in the order they arrived while different keys are
+ * processed concurrently.
+ */
+public class PartitionWorkerPool implements EternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(PartitionWorkerPool.class);
+    private final String partitionId;
+    private final SiddhiAppContext siddhiAppContext;
+    private static final Runnable STOP_TASK = () -> {
+    };
+    private final PartitionWorker[] workers;
+
+    public PartitionWorkerPool(String partitionId, int workerCount, int bufferSize,
+                               SiddhiAppContext siddhiAppContext) {
+        this.partitionId = partitionId;
+        this.siddhiAppContext = siddhiAppContext;
+        this.workers = new PartitionWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new PartitionWorker(bufferSize);
+        }
+    }
+
+    /**
+     * Queue the processing of events in the lane of their partition key. Blocks when the lane buffer is full.
+     *
+     * @param key  partition key
+     * @param task task processing the events of the key, which will not be modified by the caller afterwards
+     */
+    public void execute(String key, Runnable task) {
+        PartitionWorker worker = workers[(key.hashCode() & Integer.MAX_VALUE) % workers.length];
+        try {
+            worker.queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while queueing events of partition key '" + key + "' in partition '" +
+                    partitionId + "' of Siddhi app '" + siddhiAppContext.getName() + "'", e);
+        }
+    }
+
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Start a consumer for each lane. A lane being stopped is first waited for, so that a lane never has two
+     * consumers, which would break the order of its events.
+     */
+    @Override
+    public synchronized void start() {
+        for (PartitionWorker worker : workers) {
+            if (worker.stopping) {
+                if (!worker.awaitStop()) {
+                    return;
+                }
+            }
+            if (worker.stopped == null || worker.stopped.getCount() == 0) {
+                worker.stopped = new CountDownLatch(1);
+                worker.exitAfterTask = false;
+                try {
+                    siddhiAppContext.getExecutorService().execute(worker);
+                } catch (RuntimeException e) {
+                    worker.stopped = null;
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the lanes after they processed the events queued so far, and wait for their consumers to exit.
+     */
+    @Override
+    public synchronized void stop() {
+        try {
+            for (PartitionWorker worker : workers) {
+                if (worker.stopped != null && worker.stopped.getCount() > 0 && !worker.stopping) {
+                    if (worker.thread == Thread.currentThread()) {
+                        // stopped by a task of the lane itself, which cannot wait for its own lane to drain
+                        worker.exitAfterTask = true;
+                    } else {
+                        // queued behind the events of the lane, hence those are processed before it exits
+                        worker.queue.put(STOP_TASK);
+                    }
+                    worker.stopping = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while stopping the workers of partition '" + partitionId + "' in Siddhi app '" +
+                    siddhiAppContext.getName() + "'", e);
+            return;
+        }
+        for (PartitionWorker worker : workers) {
+            if (worker.exitAfterTask) {
+                // the lane exits once the current task returns
+                continue;
+            }
+            if (worker.stopping && !worker.awaitStop()) {
+                return;
+            }
+            if (!worker.queue.isEmpty()) {
+                log.warn(worker.queue.size() + " tasks queued while stopping partition '" + partitionId +
+                        "' in Siddhi app '" + siddhiAppContext.getName() + "' are processed when it is restarted");
+            }
+        }
+    }
+
+    /**
+     * Single lane of the pool, processing its queued events one after the other.
+     */
+    private class PartitionWorker implements Runnable {
+
+        private final BlockingQueue<Runnable> queue;
+        // counted down when the consumer of the lane exits, null if it was never started
+        private volatile CountDownLatch stopped;
+        private volatile boolean stopping = false;
+        private volatile Thread thread;
+        private volatile boolean exitAfterTask = false;
+
+        PartitionWorker(int bufferSize) {
+            this.queue = new ArrayBlockingQueue<Runnable>(bufferSize);
+        }
+
+        @Override
+        public void run() {
+            CountDownLatch stopped = this.stopped;
+            thread = Thread.currentThread();
+            try {
+                Runnable task;
+                while (!exitAfterTask && (task = queue.take()) != STOP_TASK) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.error("Error when processing events of partition '" + partitionId +
+                                "' in Siddhi app '" + siddhiAppContext.getName() + "'", t);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                thread = null;
+                stopped.countDown();
+            }
+        }
+
+        /**
+         * @return false if interrupted while waiting for the consumer of the lane to exit
+         */
+        private boolean awaitStop() {
+            try {
+                stopped.await();
+                stopping = false;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while waiting for the workers of partition '" + partitionId +
+                        "' in Siddhi app '" + siddhiAppContext.getName() + "' to stop", e);
+                return false;
+            }
+        }
+    }
+}
@@ -148,6 +148,7 @@ public class QueryRuntime {
         StreamRuntime clonedStreamRuntime = this.streamRuntime.clone(key);
         QuerySelector clonedSelector = this.selector.clone(key);
         OutputRateLimiter clonedOutputRateLimiter = outputRateLimiter.clone(key);
+        clonedOutputRateLimiter.shareQueryCallbacks(outputRateLimiter);
         clonedOutputRateLimiter.init(siddhiAppContext, lockWrapper, queryId);
 
         QueryRuntime queryRuntime = new QueryRuntime(query, siddhiAppContext, clonedStreamRuntime, clonedSelector,
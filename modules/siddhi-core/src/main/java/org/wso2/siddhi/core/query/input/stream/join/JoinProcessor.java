@@ -44,6 +44,7 @@ public class JoinProcessor implements Processor {
     private FindableProcessor findableProcessor;
     private Processor nextProcessor;
     private QuerySelector selector;
+    private StateEvent joinStateEvent = new StateEvent(2, 0);
 
     public JoinProcessor(boolean leftJoinProcessor, boolean preJoinProcessor, boolean outerJoinProcessor, int
             matchingStreamIndex) {
@@ -62,7 +63,6 @@ public class JoinProcessor implements Processor {
     public void process(ComplexEventChunk complexEventChunk) {
         if (trigger) {
             ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(true);
-            StateEvent joinStateEvent = new StateEvent(2, 0);
             StreamEvent nextEvent = (StreamEvent) complexEventChunk.getFirst();
             complexEventChunk.clear();
             while (nextEvent != null) {
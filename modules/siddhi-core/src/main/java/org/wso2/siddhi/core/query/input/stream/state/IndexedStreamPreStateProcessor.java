@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.input.stream.state;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link StreamPreStateProcessor} of a pattern state whose condition correlates the incoming event with an earlier
+ * state by equality, e.g. 'e1=OrderStream -> e2=FillStream[e1.orderId == orderId]'. The pending state events are
+ * indexed by the correlated attribute of the earlier state, hence each incoming event is only matched against the
+ * pending state events having the same key, instead of all of them.
+ */
+public class IndexedStreamPreStateProcessor extends StreamPreStateProcessor {
+
+    private static final int MIN_EXPIRY_SWEEP_THRESHOLD = 1024;
+    private final ExpressionExecutor pendingKeyExecutor;
+    private final ExpressionExecutor incomingKeyExecutor;
+    private Map<Object, LinkedList<StateEvent>> pendingStateEventMap = new HashMap<Object, LinkedList<StateEvent>>();
+    private int pendingStateEventCount = 0;
+    private int expirySweepThreshold = MIN_EXPIRY_SWEEP_THRESHOLD;
+
+    /**
+     * @param stateType           type of the state input stream, only patterns can be indexed
+     * @param withinStates        within conditions applicable to the state
+     * @param pendingKeyExecutor  executor of the correlated attribute of the earlier state, executed on the pending
+     *                            state events
+     * @param incomingKeyExecutor executor of the correlated attribute of this state, executed on the incoming events
+     */
+    public IndexedStreamPreStateProcessor(StateInputStream.Type stateType,
+                                          List<Map.Entry<Long, Set<Integer>>> withinStates,
+                                          ExpressionExecutor pendingKeyExecutor,
+                                          ExpressionExecutor incomingKeyExecutor) {
+        super(stateType, withinStates);
+        this.pendingKeyExecutor = pendingKeyExecutor;
+        this.incomingKeyExecutor = incomingKeyExecutor;
+    }
+
+    @Override
+    public PreStateProcessor cloneProcessor(String key) {
+        IndexedStreamPreStateProcessor indexedStreamPreStateProcessor = new IndexedStreamPreStateProcessor(stateType,
+                withinStates, pendingKeyExecutor.cloneExecutor(key), incomingKeyExecutor.cloneExecutor(key));
+        cloneProperties(indexedStreamPreStateProcessor, key);
+        indexedStreamPreStateProcessor.init(siddhiAppContext, queryName);
+        return indexedStreamPreStateProcessor;
+    }
+
+    @Override
+    public void resetState() {
+        pendingStateEventMap.clear();
+        pendingStateEventCount = 0;
+        super.resetState();
+    }
+
+    @Override
+    public void updateState() {
+        for (StateEvent stateEvent : newAndEveryStateEventList) {
+            addPendingStateEvent(stateEvent);
+        }
+        newAndEveryStateEventList.clear();
+    }
+
+    @Override
+    public ComplexEventChunk<StateEvent> processAndReturn(ComplexEventChunk complexEventChunk) {
+        ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(false);
+        complexEventChunk.reset();
+        StreamEvent streamEvent = (StreamEvent) complexEventChunk.next(); //Sure only one will be sent
+        if (withinStates.size() > 0 && pendingStateEventCount >= expirySweepThreshold) {
+            removeExpiredStateEvents(streamEvent);
+        }
+        Object key = incomingKeyExecutor.execute(streamEvent);
+        if (key == null) {
+            // null never satisfies the equality condition
+            return returnEventChunk;
+        }
+        LinkedList<StateEvent> pendingStateEvents = pendingStateEventMap.get(key);
+        if (pendingStateEvents != null) {
+            int size = pendingStateEvents.size();
+            processPendingStateEvents(pendingStateEvents, streamEvent, returnEventChunk);
+            pendingStateEventCount -= size - pendingStateEvents.size();
+            if (pendingStateEvents.isEmpty()) {
+                pendingStateEventMap.remove(key);
+            }
+        }
+        return returnEventChunk;
+    }
+
+    private void addPendingStateEvent(StateEvent stateEvent) {
+        // pending state events without a key are kept under null, which is never probed
+        Object key = pendingKeyExecutor.execute(stateEvent);
+        LinkedList<StateEvent> pendingStateEvents = pendingStateEventMap.get(key);
+        if (pendingStateEvents == null) {
+            pendingStateEvents = new LinkedList<StateEvent>();
+            pendingStateEventMap.put(key, pendingStateEvents);
+        }
+        pendingStateEvents.add(stateEvent);
+        pendingStateEventCount++;
+    }
+
+    /**
+     * Remove the pending state events of all keys that are expired with respect to the incoming event. As only the
+     * pending state events of the incoming key are visited otherwise, this is done each time the pending state
+     * events double since the last sweep, to bound them without visiting all of them per event.
+     *
+     * @param streamEvent incoming event
+     */
+    private void removeExpiredStateEvents(StreamEvent streamEvent) {
+        for (Iterator<LinkedList<StateEvent>> listIterator = pendingStateEventMap.values().iterator();
+             listIterator.hasNext(); ) {
+            LinkedList<StateEvent> pendingStateEvents = listIterator.next();
+            for (Iterator<StateEvent> iterator = pendingStateEvents.iterator(); iterator.hasNext(); ) {
+                StateEvent stateEvent = iterator.next();
+                if (isExpired(stateEvent, streamEvent)) {
+                    iterator.remove();
+                    removeExpiry(stateEvent);
+                    pendingStateEventCount--;
+                }
+            }
+            if (pendingStateEvents.isEmpty()) {
+                listIterator.remove();
+            }
+        }
+        expirySweepThreshold = Math.max(MIN_EXPIRY_SWEEP_THRESHOLD, pendingStateEventCount * 2);
+    }
+
+    @Override
+    protected void removeStateEvent(StateEvent stateEvent) {
+        Object key = pendingKeyExecutor.execute(stateEvent);
+        LinkedList<StateEvent> pendingStateEvents = pendingStateEventMap.get(key);
+        if (pendingStateEvents != null && removeStateEvent(pendingStateEvents, stateEvent)) {
+            pendingStateEventCount--;
+            if (pendingStateEvents.isEmpty()) {
+                pendingStateEventMap.remove(key);
+            }
+        } else {
+            removeStateEvent(newAndEveryStateEventList, stateEvent);
+        }
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        LinkedList<StateEvent> pendingStateEvents = new LinkedList<StateEvent>();
+        for (LinkedList<StateEvent> keyedPendingStateEvents : pendingStateEventMap.values()) {
+            pendingStateEvents.addAll(keyedPendingStateEvents);
+        }
+        Map<String, Object> state = super.currentState();
+        state.put("PendingStateEventList", pendingStateEvents);
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        super.restoreState(state);
+        pendingStateEventMap.clear();
+        pendingStateEventCount = 0;
+        for (StateEvent stateEvent : pendingStateEventList) {
+            addPendingStateEvent(stateEvent);
+        }
+        pendingStateEventList = new LinkedList<StateEvent>();
+        expirySweepThreshold = Math.max(MIN_EXPIRY_SWEEP_THRESHOLD, pendingStateEventCount * 2);
+    }
+}
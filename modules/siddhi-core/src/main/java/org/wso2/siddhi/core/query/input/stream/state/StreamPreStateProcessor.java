@@ -18,6 +18,7 @@
 package org.wso2.siddhi.core.query.input.stream.state;
 
 import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.state.StateEventCloner;
@@ -25,16 +26,22 @@ import org.wso2.siddhi.core.event.state.StateEventPool;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
@@ -65,6 +72,16 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     protected StreamEventPool streamEventPool;
     protected String queryName;
 
+    // drops the expired state events of 'within' conditions without waiting for the next event
+    protected Scheduler scheduler;
+    private long expiryCheckInterval;
+    private long scheduledExpiryTime = -1;
+    // expiry times of the state events in the order they expire, entries of the state events that left this
+    // processor are skipped as they are not in the expiringStateEvents
+    private PriorityQueue<PendingExpiry> expiryQueue = new PriorityQueue<PendingExpiry>();
+    private Set<StateEvent> expiringStateEvents = Collections.newSetFromMap(new IdentityHashMap<StateEvent,
+            Boolean>());
+
     public StreamPreStateProcessor(StateInputStream.Type stateType, List<Map.Entry<Long, Set<Integer>>> withinStates) {
         this.stateType = stateType;
         this.withinStates = withinStates;
@@ -87,18 +104,194 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         this.thisStatePostProcessor = thisStatePostProcessor;
     }
 
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Set the scheduler used to remove the state events that expired due to the 'within' conditions when their
+     * expiry time is reached, rather than when the next event arrives. The scheduler should send the TIMER events
+     * via an {@link EntryValveProcessor} leading to this processor.
+     *
+     * The scheduler is snapshotted by an id derived from the id of this processor, so that it does not shift the ids
+     * of the elements created after it.
+     *
+     * @param scheduler scheduler of this processor
+     */
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        scheduler.setElementId("Scheduler-" + elementId);
+        long minWithin = Long.MAX_VALUE;
+        for (Map.Entry<Long, Set<Integer>> withinEntry : withinStates) {
+            minWithin = Math.min(minWithin, withinEntry.getKey());
+        }
+        // coalesce the expiry checks, such that a state event lingers at most 1/8 of its within time after expiry
+        this.expiryCheckInterval = Math.max(1, minWithin / 8);
+    }
+
     /**
-     * Process the handed StreamEvent
+     * Process the handed StreamEvent. Only the TIMER events of the {@link #scheduler} are processed here, to remove
+     * the expired state events.
      *
      * @param complexEventChunk event chunk to be processed
      */
     @Override
     public void process(ComplexEventChunk complexEventChunk) {
+        ComplexEvent complexEvent = complexEventChunk.getFirst();
+        if (scheduler != null && complexEvent != null && complexEvent.getType() == ComplexEvent.Type.TIMER) {
+            removeExpiredStateEvents(complexEvent.getTimestamp());
+            return;
+        }
         throw new IllegalStateException("process method of StreamPreStateProcessor should not be called. " +
                 "processAndReturn method is used for handling event chunks.");
     }
 
-    private boolean isExpired(StateEvent pendingStateEvent, StreamEvent incomingStreamEvent) {
+    /**
+     * Remove the state events whose 'within' conditions expired at the given time, and schedule the next removal.
+     * Only the expired entries of the {@link #expiryQueue} are visited, not all the state events of this processor.
+     *
+     * @param currentTime time of the TIMER event
+     */
+    private void removeExpiredStateEvents(long currentTime) {
+        for (PendingExpiry pendingExpiry = expiryQueue.peek();
+             pendingExpiry != null && pendingExpiry.expiryTime < currentTime; pendingExpiry = expiryQueue.peek()) {
+            expiryQueue.poll();
+            if (expiringStateEvents.remove(pendingExpiry.stateEvent)) {
+                removeStateEvent(pendingExpiry.stateEvent);
+            }
+        }
+        if (scheduledExpiryTime != -1 && currentTime < scheduledExpiryTime) {
+            // an earlier notification, e.g. a restored one, the scheduled removal is still pending
+            return;
+        }
+        scheduledExpiryTime = -1;
+        long nextExpiryTime = getNextExpiryTime();
+        if (nextExpiryTime != Long.MAX_VALUE) {
+            scheduleExpiry(Math.max(nextExpiryTime, currentTime + expiryCheckInterval));
+        }
+    }
+
+    /**
+     * Remove the given state event, which is known to be held by this processor
+     *
+     * @param stateEvent state event to be removed
+     */
+    protected void removeStateEvent(StateEvent stateEvent) {
+        if (!removeStateEvent(pendingStateEventList, stateEvent)) {
+            removeStateEvent(newAndEveryStateEventList, stateEvent);
+        }
+    }
+
+    /**
+     * Remove the given state event from the list, looking it up from the head where the oldest, hence the first to
+     * expire, state events are
+     *
+     * @param stateEvents state events
+     * @param stateEvent  state event to be removed
+     * @return true if the state event was in the list
+     */
+    protected static boolean removeStateEvent(List<StateEvent> stateEvents, StateEvent stateEvent) {
+        for (Iterator<StateEvent> iterator = stateEvents.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == stateEvent) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return earliest expiry time of the state events held by this processor, Long.MAX_VALUE if none of them expire
+     */
+    private long getNextExpiryTime() {
+        for (PendingExpiry pendingExpiry = expiryQueue.peek(); pendingExpiry != null;
+             pendingExpiry = expiryQueue.peek()) {
+            if (expiringStateEvents.contains(pendingExpiry.stateEvent)) {
+                return pendingExpiry.expiryTime;
+            }
+            // the state event already left this processor
+            expiryQueue.poll();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Schedule the removal of the given state event when it expires. A single removal is scheduled at a time, which
+     * considers all the state events expired by then.
+     *
+     * @param stateEvent state event added to this processor
+     */
+    protected void scheduleExpiry(StateEvent stateEvent) {
+        if (scheduler != null) {
+            long expiryTime = getExpiryTime(stateEvent);
+            if (expiryTime != Long.MAX_VALUE) {
+                expiryQueue.add(new PendingExpiry(expiryTime, stateEvent));
+                expiringStateEvents.add(stateEvent);
+                if (scheduledExpiryTime == -1) {
+                    scheduleExpiry(expiryTime);
+                }
+            }
+        }
+    }
+
+    private void scheduleExpiry(long expiryTime) {
+        // a state event is expired once the time passes its expiry time
+        scheduledExpiryTime = expiryTime + 1;
+        scheduler.notifyAt(scheduledExpiryTime);
+    }
+
+    /**
+     * Stop tracking the expiry of the given state event, as it left this processor
+     *
+     * @param stateEvent state event removed from this processor
+     */
+    protected void removeExpiry(StateEvent stateEvent) {
+        if (scheduler != null) {
+            expiringStateEvents.remove(stateEvent);
+        }
+    }
+
+    /**
+     * Track the expiry of the given state events only, e.g. after the state events are reset or restored
+     *
+     * @param stateEvents state events held by this processor
+     */
+    protected void resetExpiries(Iterable<StateEvent> stateEvents) {
+        if (scheduler != null) {
+            expiryQueue.clear();
+            expiringStateEvents.clear();
+            scheduledExpiryTime = -1;
+            for (StateEvent stateEvent : stateEvents) {
+                scheduleExpiry(stateEvent);
+            }
+        }
+    }
+
+    /**
+     * @param stateEvent state event
+     * @return last time at which the 'within' conditions of the state event hold, Long.MAX_VALUE if the events
+     * they refer are not yet arrived
+     */
+    private long getExpiryTime(StateEvent stateEvent) {
+        long expiryTime = Long.MAX_VALUE;
+        for (Map.Entry<Long, Set<Integer>> withinEntry : withinStates) {
+            for (Integer withinStateId : withinEntry.getValue()) {
+                long timestamp;
+                if (withinStateId == SiddhiConstants.ANY) {
+                    timestamp = stateEvent.getTimestamp();
+                } else {
+                    StreamEvent streamEvent = stateEvent.getStreamEvent(withinStateId);
+                    timestamp = streamEvent != null ? streamEvent.getTimestamp() : -1;
+                }
+                if (timestamp >= 0) {
+                    expiryTime = Math.min(expiryTime, timestamp + withinEntry.getKey());
+                }
+            }
+        }
+        return expiryTime;
+    }
+
+    protected boolean isExpired(StateEvent pendingStateEvent, StreamEvent incomingStreamEvent) {
         for (Map.Entry<Long, Set<Integer>> withinEntry : withinStates) {
             for (Integer withinStateId : withinEntry.getValue()) {
                 if (withinStateId == SiddhiConstants.ANY) {
@@ -197,6 +390,11 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         streamPreStateProcessor.streamEventCloner = this.streamEventCloner;
         streamPreStateProcessor.stateEventCloner = this.stateEventCloner;
         streamPreStateProcessor.streamEventPool = this.streamEventPool;
+        if (this.scheduler != null) {
+            EntryValveProcessor entryValveProcessor = new EntryValveProcessor(siddhiAppContext);
+            entryValveProcessor.setNextProcessor(streamPreStateProcessor);
+            streamPreStateProcessor.setScheduler(this.scheduler.clone(key, entryValveProcessor));
+        }
     }
 
     @Override
@@ -211,13 +409,15 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
             }
         } else {
             newAndEveryStateEventList.add(stateEvent);
-
+            scheduleExpiry(stateEvent);
         }
     }
 
     @Override
     public void addEveryState(StateEvent stateEvent) {
-        newAndEveryStateEventList.add(stateEventCloner.copyStateEvent(stateEvent));
+        StateEvent clonedEvent = stateEventCloner.copyStateEvent(stateEvent);
+        newAndEveryStateEventList.add(clonedEvent);
+        scheduleExpiry(clonedEvent);
     }
 
     public void stateChanged() {
@@ -247,6 +447,7 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
     @Override
     public void resetState() {
         pendingStateEventList.clear();
+        resetExpiries(newAndEveryStateEventList);
         if (isStartState && newAndEveryStateEventList.isEmpty()) {
             //        if (isStartState && stateType == StateInputStream.Type.SEQUENCE && newAndEveryStateEventList
             // .isEmpty()) {
@@ -265,11 +466,26 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         ComplexEventChunk<StateEvent> returnEventChunk = new ComplexEventChunk<StateEvent>(false);
         complexEventChunk.reset();
         StreamEvent streamEvent = (StreamEvent) complexEventChunk.next(); //Sure only one will be sent
-        for (Iterator<StateEvent> iterator = pendingStateEventList.iterator(); iterator.hasNext(); ) {
+        processPendingStateEvents(pendingStateEventList, streamEvent, returnEventChunk);
+        return returnEventChunk;
+    }
+
+    /**
+     * Match the given pending state events against the incoming event, and remove the ones that are no longer
+     * pending
+     *
+     * @param pendingStateEvents state events to be matched
+     * @param streamEvent        incoming event
+     * @param returnEventChunk   chunk to collect the matched state events to be returned
+     */
+    protected void processPendingStateEvents(List<StateEvent> pendingStateEvents, StreamEvent streamEvent,
+                                             ComplexEventChunk<StateEvent> returnEventChunk) {
+        for (Iterator<StateEvent> iterator = pendingStateEvents.iterator(); iterator.hasNext(); ) {
             StateEvent stateEvent = iterator.next();
             if (withinStates.size() > 0) {
                 if (isExpired(stateEvent, streamEvent)) {
                     iterator.remove();
+                    removeExpiry(stateEvent);
                     continue;
                 }
             }
@@ -298,6 +514,7 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
             }
             if (stateChanged) {
                 iterator.remove();
+                removeExpiry(stateEvent);
             } else {
                 switch (stateType) {
                     case PATTERN:
@@ -313,7 +530,6 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
                 }
             }
         }
-        return returnEventChunk;
     }
 
     @Override
@@ -340,10 +556,31 @@ public class StreamPreStateProcessor implements PreStateProcessor, Snapshotable
         currentStateEventChunk.add((StateEvent) state.get("FirstEvent"));
         pendingStateEventList = (LinkedList<StateEvent>) state.get("PendingStateEventList");
         newAndEveryStateEventList = (LinkedList<StateEvent>) state.get("NewAndEveryStateEventList");
+        List<StateEvent> stateEvents = new ArrayList<StateEvent>(pendingStateEventList);
+        stateEvents.addAll(newAndEveryStateEventList);
+        resetExpiries(stateEvents);
     }
 
     @Override
     public String getElementId() {
         return elementId;
     }
+
+    /**
+     * Expiry time of a state event, ordered by the expiry time
+     */
+    private static final class PendingExpiry implements Comparable<PendingExpiry> {
+        private final long expiryTime;
+        private final StateEvent stateEvent;
+
+        private PendingExpiry(long expiryTime, StateEvent stateEvent) {
+            this.expiryTime = expiryTime;
+            this.stateEvent = stateEvent;
+        }
+
+        @Override
+        public int compareTo(PendingExpiry other) {
+            return Long.compare(expiryTime, other.expiryTime);
+        }
+    }
 }
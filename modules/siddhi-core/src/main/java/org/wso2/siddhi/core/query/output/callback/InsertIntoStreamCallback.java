@@ -29,6 +29,7 @@ import org.wso2.siddhi.query.api.definition.StreamDefinition;
  */
 public class InsertIntoStreamCallback extends OutputCallback {
     private StreamDefinition outputStreamDefinition;
+    private StreamJunction outputStreamJunction;
     private StreamJunction.Publisher publisher;
     private SiddhiDebugger siddhiDebugger;
     private String queryName;
@@ -39,9 +40,19 @@ public class InsertIntoStreamCallback extends OutputCallback {
     }
 
     public void init(StreamJunction outputStreamJunction) {
+        this.outputStreamJunction = outputStreamJunction;
         this.publisher = outputStreamJunction.constructPublisher();
     }
 
+    /**
+     * Remove the publisher of this callback from its output stream junction, when the callback is no longer used
+     */
+    public void removePublisher() {
+        if (outputStreamJunction != null) {
+            outputStreamJunction.removePublisher(publisher);
+        }
+    }
+
     public void setSiddhiDebugger(SiddhiDebugger siddhiDebugger) {
         this.siddhiDebugger = siddhiDebugger;
     }
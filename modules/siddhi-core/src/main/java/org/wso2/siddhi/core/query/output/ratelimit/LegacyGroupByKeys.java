@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.output.ratelimit;
+
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Group by keys restored by the group by {@link OutputRateLimiter}s from snapshots taken when the keys were the
+ * concatenated 'value::value::' strings. The types of the values cannot be recovered from those strings, hence they
+ * are matched with the keys of the arriving events via {@link GroupByKey#toLegacyKey(Object)}, and replaced by them.
+ */
+public final class LegacyGroupByKeys {
+
+    private static final String VALUE_KEYS = "ValueKeys";
+    private static final String LEGACY_KEYS = "LegacyGroupByKeys";
+    private final HashSet<String> keys;
+
+    private LegacyGroupByKeys(HashSet<String> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Find the legacy keys among the restored keys of a rate limiter.
+     *
+     * @param state        restored state of the rate limiter
+     * @param restoredKeys group by keys restored from the state
+     * @return legacy keys yet to be matched, or null if there are none
+     */
+    public static LegacyGroupByKeys restore(Map<String, Object> state, Collection<?> restoredKeys) {
+        HashSet<String> keys = new HashSet<String>();
+        if (state.get(VALUE_KEYS) == null) {
+            for (Object key : restoredKeys) {
+                keys.add((String) key);
+            }
+        } else if (state.get(LEGACY_KEYS) != null) {
+            keys.addAll((Collection<String>) state.get(LEGACY_KEYS));
+        }
+        return keys.isEmpty() ? null : new LegacyGroupByKeys(keys);
+    }
+
+    /**
+     * Mark the state of a rate limiter as keyed by the values, along with the legacy keys yet to be matched.
+     *
+     * @param state             state of the rate limiter
+     * @param legacyGroupByKeys legacy keys yet to be matched, or null
+     */
+    public static void addState(Map<String, Object> state, LegacyGroupByKeys legacyGroupByKeys) {
+        state.put(VALUE_KEYS, true);
+        if (legacyGroupByKeys != null) {
+            state.put(LEGACY_KEYS, new HashSet<String>(legacyGroupByKeys.keys));
+        }
+    }
+
+    /**
+     * Remove the legacy key matching the given key.
+     *
+     * @param key group by key of an arriving event
+     * @return the removed legacy key, or null if none matched
+     */
+    public String remove(Object key) {
+        String legacyKey = GroupByKey.toLegacyKey(key);
+        return keys.remove(legacyKey) ? legacyKey : null;
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+}
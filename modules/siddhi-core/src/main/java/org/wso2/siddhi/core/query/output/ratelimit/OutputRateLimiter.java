@@ -28,8 +28,8 @@ import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Abstract parent implementation of Output Rate Limiting. Output Rate Limiting is used to throttle the output of
@@ -37,7 +37,7 @@ import java.util.List;
  */
 public abstract class OutputRateLimiter implements EternalReferencedHolder, Snapshotable {
 
-    protected List<QueryCallback> queryCallbacks = new ArrayList<QueryCallback>();
+    protected List<QueryCallback> queryCallbacks = new CopyOnWriteArrayList<QueryCallback>();
     protected OutputCallback outputCallback = null;
     protected SiddhiAppContext siddhiAppContext;
     protected LatencyTracker latencyTracker;
@@ -90,6 +90,16 @@ public abstract class OutputRateLimiter implements EternalReferencedHolder, Snap
         hasCallBack = true;
     }
 
+    /**
+     * Share the query callbacks of the given output rate limiter, such that the callbacks added to a query also
+     * receive the output of the partition instances cloned from it.
+     *
+     * @param outputRateLimiter output rate limiter of the query this one is cloned from
+     */
+    public void shareQueryCallbacks(OutputRateLimiter outputRateLimiter) {
+        this.queryCallbacks = outputRateLimiter.queryCallbacks;
+    }
+
     public abstract void process(ComplexEventChunk complexEventChunk);
 
     public OutputCallback getOutputCallback() {
@@ -21,6 +21,7 @@ package org.wso2.siddhi.core.query.output.ratelimit.event;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
+import org.wso2.siddhi.core.query.output.ratelimit.LegacyGroupByKeys;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 
 import java.util.ArrayList;
@@ -34,7 +35,8 @@ import java.util.Map;
  */
 public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<Object> groupByKeys = new ArrayList<Object>();
+    private LegacyGroupByKeys legacyGroupByKeys;
     private String id;
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private volatile int counter = 0;
@@ -62,7 +64,8 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                 if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type.EXPIRED) {
                     complexEventChunk.remove();
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey())) {
+                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey()) &&
+                            !replaceLegacyGroupByKey(groupedComplexEvent.getGroupKey())) {
                         groupByKeys.add(groupedComplexEvent.getGroupKey());
                         allComplexEventChunk.add(groupedComplexEvent.getComplexEvent());
                     }
@@ -75,9 +78,11 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                             allComplexEventChunk.clear();
                             counter = 0;
                             groupByKeys.clear();
+                            legacyGroupByKeys = null;
                         } else {
                             counter = 0;
                             groupByKeys.clear();
+                            legacyGroupByKeys = null;
                         }
 
                     }
@@ -105,6 +110,7 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
         synchronized (this) {
             state.put("Counter", counter);
             state.put("GroupByKeys", groupByKeys);
+            LegacyGroupByKeys.addState(state, legacyGroupByKeys);
             state.put("AllComplexEventChunk", allComplexEventChunk.getFirst());
         }
         return state;
@@ -114,10 +120,33 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     public void restoreState(Map<String, Object> state) {
         synchronized (this) {
             counter = (int) state.get("Counter");
-            groupByKeys = (List<String>) state.get("GroupByKeys");
+            groupByKeys = (List<Object>) state.get("GroupByKeys");
+            legacyGroupByKeys = LegacyGroupByKeys.restore(state, groupByKeys);
             allComplexEventChunk.clear();
             allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
         }
     }
 
+    /**
+     * Check whether the group of the given key was restored under its legacy key, and replace the legacy key if so.
+     *
+     * @param groupByKey group by key of an arriving event
+     * @return true if the group was restored under its legacy key
+     */
+    private boolean replaceLegacyGroupByKey(Object groupByKey) {
+        if (legacyGroupByKeys == null) {
+            return false;
+        }
+        String legacyKey = legacyGroupByKeys.remove(groupByKey);
+        if (legacyGroupByKeys.isEmpty()) {
+            legacyGroupByKeys = null;
+        }
+        if (legacyKey == null) {
+            return false;
+        }
+        groupByKeys.remove(legacyKey);
+        groupByKeys.add(groupByKey);
+        return true;
+    }
+
 }
@@ -22,6 +22,7 @@ package org.wso2.siddhi.core.query.output.ratelimit.event;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
+import org.wso2.siddhi.core.query.output.ratelimit.LegacyGroupByKeys;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 
 import java.util.ArrayList;
@@ -37,7 +38,8 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
     private String id;
     private volatile int counter = 0;
-    private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<Object, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
+    private LegacyGroupByKeys legacyGroupByKeys;
 
     public LastGroupByPerEventOutputRateLimiter(String id, Integer value) {
         this.id = id;
@@ -61,6 +63,9 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                 if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type.EXPIRED) {
                     complexEventChunk.remove();
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
+                    if (legacyGroupByKeys != null) {
+                        removeLegacyGroupByKey(groupedComplexEvent.getGroupKey());
+                    }
                     allGroupByKeyEvents.put(groupedComplexEvent.getGroupKey(), groupedComplexEvent.getComplexEvent());
                     if (++counter == value) {
                         counter = 0;
@@ -72,6 +77,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                                 outputEventChunk.add(complexEvent);
                             }
                             allGroupByKeyEvents.clear();
+                            legacyGroupByKeys = null;
                             outputEventChunks.add(outputEventChunk);
                         }
                     }
@@ -99,6 +105,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
         synchronized (this) {
             state.put("Counter", counter);
             state.put("AllGroupByKeyEvents", allGroupByKeyEvents);
+            LegacyGroupByKeys.addState(state, legacyGroupByKeys);
         }
         return state;
     }
@@ -106,6 +113,22 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
         counter = (int) state.get("Counter");
-        allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        allGroupByKeyEvents = (Map<Object, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        legacyGroupByKeys = LegacyGroupByKeys.restore(state, allGroupByKeyEvents.keySet());
+    }
+
+    /**
+     * Remove the event of the given group if it was restored under its legacy key.
+     *
+     * @param groupByKey group by key of an arriving event
+     */
+    private void removeLegacyGroupByKey(Object groupByKey) {
+        String legacyKey = legacyGroupByKeys.remove(groupByKey);
+        if (legacyKey != null) {
+            allGroupByKeyEvents.remove(legacyKey);
+        }
+        if (legacyGroupByKeys.isEmpty()) {
+            legacyGroupByKeys = null;
+        }
     }
 }
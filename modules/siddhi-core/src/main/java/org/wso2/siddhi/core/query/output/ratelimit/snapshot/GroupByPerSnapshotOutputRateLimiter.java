@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.output.ratelimit.LegacyGroupByKeys;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
@@ -40,7 +41,8 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
     private final Long value;
     private String id;
     private ScheduledExecutorService scheduledExecutorService;
-    private Map<String, ComplexEvent> groupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<Object, ComplexEvent> groupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
+    private LegacyGroupByKeys legacyGroupByKeys;
     private Scheduler scheduler;
     private long scheduledTime;
     private String queryName;
@@ -74,6 +76,9 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
                     complexEventChunk.remove();
                     tryFlushEvents(outputEventChunks, event);
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
+                    if (legacyGroupByKeys != null) {
+                        removeLegacyGroupByKey(groupedComplexEvent.getGroupKey());
+                    }
                     groupByKeyEvents.put(groupedComplexEvent.getGroupKey(), groupedComplexEvent.getComplexEvent());
                 }
             }
@@ -115,13 +120,30 @@ public class GroupByPerSnapshotOutputRateLimiter extends SnapshotOutputRateLimit
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
             state.put("GroupByKeyEvents", groupByKeyEvents);
+            LegacyGroupByKeys.addState(state, legacyGroupByKeys);
         }
         return state;
     }
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        groupByKeyEvents = (Map<String, ComplexEvent>) state.get("groupByKeyEvents");
+        groupByKeyEvents = (Map<Object, ComplexEvent>) state.get("GroupByKeyEvents");
+        legacyGroupByKeys = LegacyGroupByKeys.restore(state, groupByKeyEvents.keySet());
+    }
+
+    /**
+     * Remove the event of the given group if it was restored under its legacy key.
+     *
+     * @param groupByKey group by key of an arriving event
+     */
+    private void removeLegacyGroupByKey(Object groupByKey) {
+        String legacyKey = legacyGroupByKeys.remove(groupByKey);
+        if (legacyKey != null) {
+            groupByKeyEvents.remove(legacyKey);
+        }
+        if (legacyGroupByKeys.isEmpty()) {
+            legacyGroupByKeys = null;
+        }
     }
 
     @Override
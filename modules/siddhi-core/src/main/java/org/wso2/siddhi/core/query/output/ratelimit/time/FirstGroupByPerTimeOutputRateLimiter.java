@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.output.ratelimit.LegacyGroupByKeys;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.util.Schedulable;
 import org.wso2.siddhi.core.util.Scheduler;
@@ -42,7 +43,8 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     private static final Logger log = Logger.getLogger(FirstGroupByPerTimeOutputRateLimiter.class);
     private final Long value;
     private String id;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<Object> groupByKeys = new ArrayList<Object>();
+    private LegacyGroupByKeys legacyGroupByKeys;
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private ScheduledExecutorService scheduledExecutorService;
     private Scheduler scheduler;
@@ -81,9 +83,11 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
                             eventChunk.add(allComplexEventChunk.getFirst());
                             allComplexEventChunk.clear();
                             groupByKeys.clear();
+                            legacyGroupByKeys = null;
                             outputEventChunks.add(eventChunk);
                         } else {
                             groupByKeys.clear();
+                            legacyGroupByKeys = null;
                         }
                         scheduledTime = scheduledTime + value;
                         scheduler.notifyAt(scheduledTime);
@@ -91,7 +95,8 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
                 } else if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type
                         .EXPIRED) {
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey())) {
+                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey()) &&
+                            !replaceLegacyGroupByKey(groupedComplexEvent.getGroupKey())) {
                         complexEventChunk.remove();
                         groupByKeys.add(groupedComplexEvent.getGroupKey());
                         allComplexEventChunk.add(groupedComplexEvent.getComplexEvent());
@@ -125,6 +130,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
         synchronized (this) {
             state.put("AllComplexEventChunk", allComplexEventChunk.getFirst());
             state.put("GroupByKeys", groupByKeys);
+            LegacyGroupByKeys.addState(state, legacyGroupByKeys);
         }
         return state;
     }
@@ -133,7 +139,30 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     public synchronized void restoreState(Map<String, Object> state) {
         allComplexEventChunk.clear();
         allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
-        groupByKeys = (List<String>) state.get("GroupByKeys");
+        groupByKeys = (List<Object>) state.get("GroupByKeys");
+        legacyGroupByKeys = LegacyGroupByKeys.restore(state, groupByKeys);
+    }
+
+    /**
+     * Check whether the group of the given key was restored under its legacy key, and replace the legacy key if so.
+     *
+     * @param groupByKey group by key of an arriving event
+     * @return true if the group was restored under its legacy key
+     */
+    private boolean replaceLegacyGroupByKey(Object groupByKey) {
+        if (legacyGroupByKeys == null) {
+            return false;
+        }
+        String legacyKey = legacyGroupByKeys.remove(groupByKey);
+        if (legacyGroupByKeys.isEmpty()) {
+            legacyGroupByKeys = null;
+        }
+        if (legacyKey == null) {
+            return false;
+        }
+        groupByKeys.remove(legacyKey);
+        groupByKeys.add(groupByKey);
+        return true;
     }
 
 }
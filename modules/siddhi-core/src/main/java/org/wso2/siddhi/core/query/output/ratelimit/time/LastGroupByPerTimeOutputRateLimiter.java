@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.output.ratelimit.LegacyGroupByKeys;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.util.Schedulable;
 import org.wso2.siddhi.core.util.Scheduler;
@@ -43,7 +44,8 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
     private static final Logger log = Logger.getLogger(LastGroupByPerTimeOutputRateLimiter.class);
     private final Long value;
     private String id;
-    private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<Object, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<Object, ComplexEvent>();
+    private LegacyGroupByKeys legacyGroupByKeys;
     private ScheduledExecutorService scheduledExecutorService;
     private Scheduler scheduler;
     private long scheduledTime;
@@ -82,6 +84,7 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
                             }
                             outputEventChunks.add(outputEventChunk);
                             allGroupByKeyEvents.clear();
+                            legacyGroupByKeys = null;
                         }
                         scheduledTime = scheduledTime + value;
                         scheduler.notifyAt(scheduledTime);
@@ -90,6 +93,9 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
                         .EXPIRED) {
                     complexEventChunk.remove();
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
+                    if (legacyGroupByKeys != null) {
+                        removeLegacyGroupByKey(groupedComplexEvent.getGroupKey());
+                    }
                     allGroupByKeyEvents.put(groupedComplexEvent.getGroupKey(), groupedComplexEvent.getComplexEvent());
                 }
             }
@@ -120,13 +126,30 @@ public class LastGroupByPerTimeOutputRateLimiter extends OutputRateLimiter imple
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
             state.put("AllGroupByKeyEvents", allGroupByKeyEvents);
+            LegacyGroupByKeys.addState(state, legacyGroupByKeys);
         }
         return state;
     }
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        allGroupByKeyEvents = (Map<Object, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        legacyGroupByKeys = LegacyGroupByKeys.restore(state, allGroupByKeyEvents.keySet());
+    }
+
+    /**
+     * Remove the event of the given group if it was restored under its legacy key.
+     *
+     * @param groupByKey group by key of an arriving event
+     */
+    private void removeLegacyGroupByKey(Object groupByKey) {
+        String legacyKey = legacyGroupByKeys.remove(groupByKey);
+        if (legacyKey != null) {
+            allGroupByKeyEvents.remove(legacyKey);
+        }
+        if (legacyGroupByKeys.isEmpty()) {
+            legacyGroupByKeys = null;
+        }
     }
 
 }
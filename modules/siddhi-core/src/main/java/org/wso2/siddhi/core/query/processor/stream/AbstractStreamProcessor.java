@@ -31,7 +31,7 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
-import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -41,7 +41,8 @@ import java.util.List;
 /**
  * Abstract implementation of {@link Processor} intended to be used by any Stream Processors.
  */
-public abstract class AbstractStreamProcessor implements Processor, EternalReferencedHolder, Snapshotable {
+public abstract class AbstractStreamProcessor implements Processor, EternalReferencedHolder,
+        IncrementalSnapshotable {
 
     private static final Logger log = Logger.getLogger(AbstractStreamProcessor.class);
 
@@ -57,6 +58,7 @@ public abstract class AbstractStreamProcessor implements Processor, EternalRefer
     protected String elementId = null;
     private ConfigReader configReader;
     protected String queryName;
+    private volatile boolean stateChanged = true;
     private boolean outputExpectsExpiredEvents;
 
     public AbstractDefinition initProcessor(AbstractDefinition inputDefinition,
@@ -114,6 +116,9 @@ public abstract class AbstractStreamProcessor implements Processor, EternalRefer
 
     public void process(ComplexEventChunk streamEventChunk) {
         streamEventChunk.reset();
+        if (!stateChanged) {
+            stateChanged = true;
+        }
         try {
             processEventChunk(streamEventChunk, nextProcessor, streamEventCloner, complexEventPopulater);
         } catch (RuntimeException e) {
@@ -193,4 +198,14 @@ public abstract class AbstractStreamProcessor implements Processor, EternalRefer
     public String getElementId() {
         return elementId;
     }
+
+    @Override
+    public boolean isStateChanged() {
+        return stateChanged;
+    }
+
+    @Override
+    public void clearStateChanged() {
+        stateChanged = false;
+    }
 }
@@ -40,12 +40,15 @@ import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Sample Query:
@@ -96,9 +99,15 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private int lengthToKeep;
-    private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
     private List<Object[]> parameterInfo;
     private EventComparator eventComparator;
+    /**
+     * Heap of the events in the window, where the head is the event to be expired next, i.e the last event in the
+     * sort order. Among equal events the latest arrived event is expired first.
+     */
+    private PriorityQueue<SortedEvent> sortedWindow;
+    private Collection<StreamEvent> sortedWindowEvents = new SortedWindowEvents();
+    private long sequence = 0;
 
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader, boolean
@@ -111,6 +120,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
         }
         parameterInfo = new ArrayList<Object[]>();
         eventComparator = new EventComparator();
+        sortedWindow = new PriorityQueue<SortedEvent>(new ExpiryComparator());
         for (int i = 1, parametersLength = attributeExpressionExecutors.length; i < parametersLength; i++) {
             if (!(attributeExpressionExecutors[i] instanceof VariableExpressionExecutor)) {
                 throw new UnsupportedOperationException("Required a variable, but found a string parameter");
@@ -158,10 +168,9 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
                 streamEvent.setNext(null);
                 streamEventChunk.add(streamEvent);
 
-                sortedWindow.add(clonedEvent);
+                sortedWindow.add(new SortedEvent(clonedEvent, sequence++));
                 if (sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = sortedWindow.remove(sortedWindow.size() - 1);
+                    StreamEvent expiredEvent = sortedWindow.poll().streamEvent;
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -186,7 +195,19 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("SortedWindow", sortedWindow);
+            // stored in arrival order, so that the order among equal events is retained on restore
+            List<SortedEvent> sortedEvents = new ArrayList<SortedEvent>(sortedWindow);
+            sortedEvents.sort(new Comparator<SortedEvent>() {
+                @Override
+                public int compare(SortedEvent e1, SortedEvent e2) {
+                    return Long.compare(e1.sequence, e2.sequence);
+                }
+            });
+            List<StreamEvent> streamEvents = new ArrayList<StreamEvent>(sortedEvents.size());
+            for (SortedEvent sortedEvent : sortedEvents) {
+                streamEvents.add(sortedEvent.streamEvent);
+            }
+            state.put("SortedWindow", streamEvents);
         }
         return state;
     }
@@ -194,12 +215,16 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+        sortedWindow.clear();
+        sequence = 0;
+        for (StreamEvent streamEvent : (List<StreamEvent>) state.get("SortedWindow")) {
+            sortedWindow.add(new SortedEvent(streamEvent, sequence++));
+        }
     }
 
     @Override
     public synchronized StreamEvent find(StateEvent matchingEvent, CompiledCondition compiledCondition) {
-        return ((Operator) compiledCondition).find(matchingEvent, sortedWindow, streamEventCloner);
+        return ((Operator) compiledCondition).find(matchingEvent, sortedWindowEvents, streamEventCloner);
     }
 
     @Override
@@ -207,7 +232,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
                                               SiddhiAppContext siddhiAppContext,
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, String queryName) {
-        return OperatorParser.constructOperator(sortedWindow, expression, matchingMetaInfoHolder,
+        return OperatorParser.constructOperator(sortedWindowEvents, expression, matchingMetaInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, this.queryName);
     }
 
@@ -227,4 +252,58 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
             return 0;
         }
     }
+
+    private class ExpiryComparator implements Comparator<SortedEvent> {
+        public int compare(SortedEvent e1, SortedEvent e2) {
+            int comparisonResult = eventComparator.compare(e2.streamEvent, e1.streamEvent);
+            if (comparisonResult != 0) {
+                return comparisonResult;
+            }
+            return Long.compare(e2.sequence, e1.sequence);
+        }
+    }
+
+    /**
+     * Event in the sort window along with its arrival sequence.
+     */
+    private static class SortedEvent {
+        private final StreamEvent streamEvent;
+        private final long sequence;
+
+        SortedEvent(StreamEvent streamEvent, long sequence) {
+            this.streamEvent = streamEvent;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Collection view of the events in the sort window, used when finding events in the window.
+     */
+    private class SortedWindowEvents extends AbstractCollection<StreamEvent> {
+        @Override
+        public Iterator<StreamEvent> iterator() {
+            final Iterator<SortedEvent> iterator = sortedWindow.iterator();
+            return new Iterator<StreamEvent>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public StreamEvent next() {
+                    return iterator.next().streamEvent;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return sortedWindow.size();
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Composite key of a GroupBy group, compared by the values of its group by attributes.
+ * The hash code is calculated once when the key is constructed.
+ */
+public final class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = -2539154766327937745L;
+    private final Object[] values;
+    private final int hashCode;
+
+    public GroupByKey(Object[] values) {
+        this.values = values;
+        this.hashCode = Arrays.hashCode(values);
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupByKey)) {
+            return false;
+        }
+        GroupByKey that = (GroupByKey) o;
+        return hashCode == that.hashCode && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            sb.append(value).append("::");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param key group by key of an event
+     * @return the key as concatenated by the earlier versions, e.g. 'IBM::10::'
+     */
+    public static String toLegacyKey(Object key) {
+        if (key instanceof GroupByKey) {
+            return key.toString();
+        }
+        return key + "::";
+    }
+}
@@ -20,7 +20,6 @@ package org.wso2.siddhi.core.query.selector;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
-import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
@@ -54,17 +53,25 @@ public class GroupByKeyGenerator {
 
     /**
      * generate groupBy key of a streamEvent
+     * When grouped by a single attribute its value is used as the key, else a {@link GroupByKey} is created
      *
      * @param event complexEvent
      * @return GroupByKey
      */
-    protected String constructEventKey(ComplexEvent event) {
+    protected Object constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append("::");
+            if (groupByExecutors.length == 1) {
+                Object value = groupByExecutors[0].execute(event);
+                if (value != null) {
+                    return value;
+                }
+                return new GroupByKey(new Object[]{null});
             }
-            return sb.toString();
+            Object[] values = new Object[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                values[i] = groupByExecutors[i].execute(event);
+            }
+            return new GroupByKey(values);
         } else {
             return null;
         }
@@ -43,7 +43,7 @@ public class QuerySelector implements Processor {
 
 
     private static final Logger log = Logger.getLogger(QuerySelector.class);
-    private static final ThreadLocal<String> keyThreadLocal = new ThreadLocal<String>();
+    private static final ThreadLocal<Object> keyThreadLocal = new ThreadLocal<Object>();
     private Selector selector;
     private SiddhiAppContext siddhiAppContext;
     private boolean currentOn = false;
@@ -67,7 +67,7 @@ public class QuerySelector implements Processor {
         this.siddhiAppContext = siddhiAppContext;
     }
 
-    public static String getThreadLocalGroupByKey() {
+    public static Object getThreadLocalGroupByKey() {
         return keyThreadLocal.get();
     }
 
@@ -143,7 +143,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupedByKey = groupByKeyGenerator.constructEventKey(event);
+                        Object groupedByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupedByKey);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -215,7 +215,7 @@ public class QuerySelector implements Processor {
     }
 
     private void processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<Object, ComplexEvent> groupedEvents = new LinkedHashMap<Object, ComplexEvent>();
         complexEventChunk.reset();
 
         synchronized (this) {
@@ -226,7 +226,7 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        Object groupByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupByKey);
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
@@ -255,7 +255,7 @@ public class QuerySelector implements Processor {
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<Object, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(), groupedEventEntry.getValue
                         ()));
             }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch.HyperLogLog;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregator} to estimate the distinct count of an event attribute in bounded memory, using a
+ * HyperLogLog sketch.
+ */
+@Extension(
+        name = "distinctCountApprox",
+        namespace = "",
+        description = "Returns the approximate count of distinct occurrences for a given arg, using a fixed " +
+                "amount of memory irrespective of the number of distinct values. As the estimate cannot be " +
+                "reduced, expired events are not removed from the count, hence it should be used without a " +
+                "window or with batch windows.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value that should be counted.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT, DataType.STRING,
+                                DataType.BOOL}),
+                @Parameter(name = "precision",
+                        description = "The precision p of the estimate, between 4 and 18. The estimate uses 2^p " +
+                                "bytes and has a standard error of 1.04 / sqrt(2^p).",
+                        type = {DataType.INT},
+                        optional = true,
+                        defaultValue = "14, i.e. 16 KB with an error of 0.81%")
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the approximate count of distinct occurrences for a given arg.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = "from fooStream#window.timeBatch(1 hour)\n" +
+                        "select distinctCountApprox(userID) as users\n" +
+                        "insert into barStream;",
+                description = "distinctCountApprox(userID) returns the approximate number of distinct users " +
+                        "seen within each hour."
+        )
+)
+public class DistinctCountApproxAttributeAggregator extends AttributeAggregator {
+
+    private static final int DEFAULT_PRECISION = 14;
+    private HyperLogLog hyperLogLog;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *  @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param configReader this hold the {@link DistinctCountApproxAttributeAggregator} configuration reader.
+     * @param siddhiAppContext         Siddhi app runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                        SiddhiAppContext siddhiAppContext) {
+        if (attributeExpressionExecutors.length != 1 && attributeExpressionExecutors.length != 2) {
+            throw new OperationNotSupportedException("Approximate distinct count aggregator has to have 1 or 2 " +
+                    "parameters, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        int precision = DEFAULT_PRECISION;
+        if (attributeExpressionExecutors.length == 2) {
+            if (!(attributeExpressionExecutors[1] instanceof ConstantExpressionExecutor) ||
+                    attributeExpressionExecutors[1].getReturnType() != Attribute.Type.INT) {
+                throw new OperationNotSupportedException("Precision of the approximate distinct count aggregator " +
+                        "should be a constant int value");
+            }
+            precision = (Integer) ((ConstantExpressionExecutor) attributeExpressionExecutors[1]).getValue();
+            if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+                throw new OperationNotSupportedException("Precision of the approximate distinct count aggregator " +
+                        "should be between " + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION +
+                        ", but found " + precision);
+            }
+        }
+        hyperLogLog = new HyperLogLog(precision);
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        hyperLogLog.add(data);
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        return processAdd(data[0]);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        // values cannot be removed from the sketch
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        return processRemove(data[0]);
+    }
+
+    @Override
+    public Object reset() {
+        hyperLogLog.clear();
+        return 0L;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Registers", hyperLogLog.getRegisters());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        hyperLogLog.setRegisters((byte[]) state.get("Registers"));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch.CountMinSketch;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregator} to estimate the frequency of the event attribute values in bounded memory, using a
+ * Count-Min sketch.
+ */
+@Extension(
+        name = "frequencyApprox",
+        namespace = "",
+        description = "Returns the approximate number of occurrences of the arg value of the event, using a fixed " +
+                "amount of memory irrespective of the number of distinct values. The estimate is never below the " +
+                "actual count, and expired events are removed from the count.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value whose occurrences should be counted.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT, DataType.STRING,
+                                DataType.BOOL}),
+                @Parameter(name = "relative.error",
+                        description = "The error of the estimate relative to the total number of events.",
+                        type = {DataType.DOUBLE},
+                        optional = true,
+                        defaultValue = "0.001"),
+                @Parameter(name = "confidence",
+                        description = "The probability of the estimate being within the relative error.",
+                        type = {DataType.DOUBLE},
+                        optional = true,
+                        defaultValue = "0.99")
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the approximate number of occurrences of the arg value.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = "from fooStream#window.time(1 min)\n" +
+                        "select userID, frequencyApprox(userID) as requests\n" +
+                        "insert into barStream;",
+                description = "frequencyApprox(userID) returns the approximate number of requests made by the " +
+                        "user of each event within the last minute."
+        )
+)
+public class FrequencyApproxAttributeAggregator extends AttributeAggregator {
+
+    private static final double DEFAULT_RELATIVE_ERROR = 0.001;
+    private static final double DEFAULT_CONFIDENCE = 0.99;
+    private CountMinSketch countMinSketch;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *  @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param configReader this hold the {@link FrequencyApproxAttributeAggregator} configuration reader.
+     * @param siddhiAppContext         Siddhi app runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                        SiddhiAppContext siddhiAppContext) {
+        if (attributeExpressionExecutors.length != 1 && attributeExpressionExecutors.length != 3) {
+            throw new OperationNotSupportedException("Approximate frequency aggregator has to have 1 or 3 " +
+                    "parameters, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        double relativeError = DEFAULT_RELATIVE_ERROR;
+        double confidence = DEFAULT_CONFIDENCE;
+        if (attributeExpressionExecutors.length == 3) {
+            relativeError = getProbability(attributeExpressionExecutors[1], "Relative error");
+            confidence = getProbability(attributeExpressionExecutors[2], "Confidence");
+        }
+        countMinSketch = new CountMinSketch(relativeError, confidence);
+    }
+
+    private double getProbability(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                !(((ConstantExpressionExecutor) expressionExecutor).getValue() instanceof Number)) {
+            throw new OperationNotSupportedException(name + " of the approximate frequency aggregator should be a " +
+                    "constant numeric value");
+        }
+        double value = ((Number) ((ConstantExpressionExecutor) expressionExecutor).getValue()).doubleValue();
+        if (value <= 0 || value >= 1) {
+            throw new OperationNotSupportedException(name + " of the approximate frequency aggregator should be " +
+                    "between 0 and 1, but found " + value);
+        }
+        return value;
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        countMinSketch.add(data, 1);
+        return countMinSketch.estimate(data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        return processAdd(data[0]);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        countMinSketch.add(data, -1);
+        return countMinSketch.estimate(data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        return processRemove(data[0]);
+    }
+
+    @Override
+    public Object reset() {
+        countMinSketch.clear();
+        return 0L;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Counters", countMinSketch.getCounters());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        countMinSketch.setCounters((long[]) state.get("Counters"));
+    }
+}
@@ -25,14 +25,14 @@ import org.wso2.siddhi.annotation.util.DataType;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sliding.SlidingExtremumDouble;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sliding.SlidingExtremumLong;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -148,8 +148,7 @@ public class MaxAttributeAggregator extends AttributeAggregator {
     class MaxAttributeAggregatorDouble extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> maxDeque = new LinkedList<Double>();
-        private volatile Double maxValue = null;
+        private SlidingExtremumDouble maxWindow = new SlidingExtremumDouble(true);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -157,57 +156,60 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Double value = (Double) data;
-            for (Iterator<Double> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+            maxWindow.add((Double) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
-            return maxValue;
+            maxWindow.remove((Double) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object reset() {
-            maxDeque.clear();
-            maxValue = null;
+            maxWindow.clear();
             return null;
         }
 
+        private Double currentMax() {
+            if (maxWindow.isEmpty()) {
+                return null;
+            }
+            return maxWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("Values", maxWindow.toArray());
+                state.put("Positions", maxWindow.getPositions());
+                state.put("Size", maxWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            maxValue = (Double) state.get("MaxValue");
-            maxDeque = (Deque<Double>) state.get("MaxDeque");
+            maxWindow.clear();
+            double[] values = (double[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                maxWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MaxDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Double value : (Collection<Double>) state.get("MaxDeque")) {
+                    maxWindow.add(value);
+                }
+            }
         }
     }
 
     class MaxAttributeAggregatorFloat extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> maxDeque = new LinkedList<Float>();
-        private volatile Float maxValue = null;
+        private SlidingExtremumDouble maxWindow = new SlidingExtremumDouble(true);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -215,58 +217,60 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Float value = (Float) data;
-            for (Iterator<Float> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+            maxWindow.add((Float) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
-            return maxValue;
+            maxWindow.remove((Float) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object reset() {
-            maxDeque.clear();
-            maxValue = null;
+            maxWindow.clear();
             return null;
         }
 
+        private Float currentMax() {
+            if (maxWindow.isEmpty()) {
+                return null;
+            }
+            return (float) maxWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("Values", maxWindow.toArray());
+                state.put("Positions", maxWindow.getPositions());
+                state.put("Size", maxWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            maxValue = (Float) state.get("MaxValue");
-            maxDeque = (Deque<Float>) state.get("MaxDeque");
+            maxWindow.clear();
+            double[] values = (double[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                maxWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MaxDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Float value : (Collection<Float>) state.get("MaxDeque")) {
+                    maxWindow.add(value);
+                }
+            }
         }
-
     }
 
     class MaxAttributeAggregatorInt extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> maxDeque = new LinkedList<Integer>();
-        private volatile Integer maxValue = null;
+        private SlidingExtremumLong maxWindow = new SlidingExtremumLong(true);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -274,58 +278,60 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+            maxWindow.add((Integer) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
-            return maxValue;
+            maxWindow.remove((Integer) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object reset() {
-            maxDeque.clear();
-            maxValue = null;
+            maxWindow.clear();
             return null;
         }
 
+        private Integer currentMax() {
+            if (maxWindow.isEmpty()) {
+                return null;
+            }
+            return (int) maxWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("Values", maxWindow.toArray());
+                state.put("Positions", maxWindow.getPositions());
+                state.put("Size", maxWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            maxValue = (Integer) state.get("MaxValue");
-            maxDeque = (Deque<Integer>) state.get("MaxDeque");
+            maxWindow.clear();
+            long[] values = (long[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                maxWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MaxDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Integer value : (Collection<Integer>) state.get("MaxDeque")) {
+                    maxWindow.add(value);
+                }
+            }
         }
-
     }
 
     class MaxAttributeAggregatorLong extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> maxDeque = new LinkedList<Long>();
-        private volatile Long maxValue = null;
+        private SlidingExtremumLong maxWindow = new SlidingExtremumLong(true);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -333,51 +339,54 @@ public class MaxAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Long value = (Long) data;
-            for (Iterator<Long> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+            maxWindow.add((Long) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
-            return maxValue;
+            maxWindow.remove((Long) data);
+            return currentMax();
         }
 
         @Override
         public synchronized Object reset() {
-            maxDeque.clear();
-            maxValue = null;
+            maxWindow.clear();
             return null;
         }
 
+        private Long currentMax() {
+            if (maxWindow.isEmpty()) {
+                return null;
+            }
+            return maxWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
+                state.put("Values", maxWindow.toArray());
+                state.put("Positions", maxWindow.getPositions());
+                state.put("Size", maxWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            maxValue = (Long) state.get("MaxValue");
-            maxDeque = (Deque<Long>) state.get("MaxDeque");
+            maxWindow.clear();
+            long[] values = (long[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                maxWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MaxDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Long value : (Collection<Long>) state.get("MaxDeque")) {
+                    maxWindow.add(value);
+                }
+            }
         }
-
     }
 
 }
@@ -25,14 +25,14 @@ import org.wso2.siddhi.annotation.util.DataType;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sliding.SlidingExtremumDouble;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sliding.SlidingExtremumLong;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -153,8 +153,7 @@ public class MinAttributeAggregator extends AttributeAggregator {
     class MinAttributeAggregatorDouble extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> minDeque = new LinkedList<Double>();
-        private volatile Double minValue = null;
+        private SlidingExtremumDouble minWindow = new SlidingExtremumDouble(false);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -162,58 +161,60 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Double value = (Double) data;
-            for (Iterator<Double> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+            minWindow.add((Double) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+            minWindow.remove((Double) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object reset() {
-            minDeque.clear();
-            minValue = null;
+            minWindow.clear();
             return null;
         }
 
+        private Double currentMin() {
+            if (minWindow.isEmpty()) {
+                return null;
+            }
+            return minWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("Values", minWindow.toArray());
+                state.put("Positions", minWindow.getPositions());
+                state.put("Size", minWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            minValue = (Double) state.get("MinValue");
-            minDeque = (Deque<Double>) state.get("MinDeque");
+            minWindow.clear();
+            double[] values = (double[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                minWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MinDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Double value : (Collection<Double>) state.get("MinDeque")) {
+                    minWindow.add(value);
+                }
+            }
         }
-
     }
 
     class MinAttributeAggregatorFloat extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> minDeque = new LinkedList<Float>();
-        private volatile Float minValue = null;
+        private SlidingExtremumDouble minWindow = new SlidingExtremumDouble(false);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -221,57 +222,60 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Float value = (Float) data;
-            for (Iterator<Float> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+            minWindow.add((Float) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+            minWindow.remove((Float) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object reset() {
-            minDeque.clear();
-            minValue = null;
+            minWindow.clear();
             return null;
         }
 
+        private Float currentMin() {
+            if (minWindow.isEmpty()) {
+                return null;
+            }
+            return (float) minWindow.get();
+        }
+
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("Values", minWindow.toArray());
+                state.put("Positions", minWindow.getPositions());
+                state.put("Size", minWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            minValue = (Float) state.get("MinValue");
-            minDeque = (Deque<Float>) state.get("MinDeque");
+            minWindow.clear();
+            double[] values = (double[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                minWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MinDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Float value : (Collection<Float>) state.get("MinDeque")) {
+                    minWindow.add(value);
+                }
+            }
         }
     }
 
     class MinAttributeAggregatorInt extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> minDeque = new LinkedList<Integer>();
-        private volatile Integer minValue = null;
+        private SlidingExtremumLong minWindow = new SlidingExtremumLong(false);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -279,58 +283,60 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
+            minWindow.add((Integer) data);
+            return currentMin();
+        }
 
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+        @Override
+        public synchronized Object processRemove(Object data) {
+            minWindow.remove((Integer) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object reset() {
-            minDeque.clear();
-            minValue = null;
+            minWindow.clear();
             return null;
         }
 
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+        private Integer currentMin() {
+            if (minWindow.isEmpty()) {
+                return null;
+            }
+            return (int) minWindow.get();
         }
 
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("Values", minWindow.toArray());
+                state.put("Positions", minWindow.getPositions());
+                state.put("Size", minWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            minValue = (Integer) state.get("MinValue");
-            minDeque = (Deque<Integer>) state.get("MinDeque");
+            minWindow.clear();
+            long[] values = (long[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                minWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MinDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Integer value : (Collection<Integer>) state.get("MinDeque")) {
+                    minWindow.add(value);
+                }
+            }
         }
     }
 
     class MinAttributeAggregatorLong extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> minDeque = new LinkedList<Long>();
-        private volatile Long minValue = null;
+        private SlidingExtremumLong minWindow = new SlidingExtremumLong(false);
 
         public Attribute.Type getReturnType() {
             return type;
@@ -338,51 +344,54 @@ public class MinAttributeAggregator extends AttributeAggregator {
 
         @Override
         public synchronized Object processAdd(Object data) {
-            Long value = (Long) data;
-            for (Iterator<Long> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+            minWindow.add((Long) data);
+            return currentMin();
+        }
+
+        @Override
+        public synchronized Object processRemove(Object data) {
+            minWindow.remove((Long) data);
+            return currentMin();
         }
 
         @Override
         public synchronized Object reset() {
-            minDeque.clear();
-            minValue = null;
+            minWindow.clear();
             return null;
         }
 
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
+        private Long currentMin() {
+            if (minWindow.isEmpty()) {
+                return null;
+            }
+            return minWindow.get();
         }
 
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
             synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
+                state.put("Values", minWindow.toArray());
+                state.put("Positions", minWindow.getPositions());
+                state.put("Size", minWindow.size());
             }
             return state;
         }
 
         @Override
         public synchronized void restoreState(Map<String, Object> state) {
-            minValue = (Long) state.get("MinValue");
-            minDeque = (Deque<Long>) state.get("MinDeque");
+            minWindow.clear();
+            long[] values = (long[]) state.get("Values");
+            long[] positions = (long[]) state.get("Positions");
+            if (positions != null) {
+                minWindow.restore(values, positions, (Integer) state.get("Size"));
+            } else if (state.get("MinDeque") != null) {
+                // state persisted before the window values were kept, holding only the candidate values
+                for (Long value : (Collection<Long>) state.get("MinDeque")) {
+                    minWindow.add(value);
+                }
+            }
         }
-
     }
 
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch.TDigest;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregator} to estimate a percentile of an event attribute in bounded memory, using a t-digest.
+ */
+@Extension(
+        name = "percentileApprox",
+        namespace = "",
+        description = "Returns the approximate value at the given percentile of the arg values, using a fixed " +
+                "amount of memory irrespective of the number of events. As the estimate cannot be reduced, " +
+                "expired events are not removed from it, hence it should be used without a window or with batch " +
+                "windows.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value whose percentile should be estimated.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT}),
+                @Parameter(name = "percentile",
+                        description = "The percentile to be estimated, between 0 and 100.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT}),
+                @Parameter(name = "compression",
+                        description = "The compression of the t-digest. Higher values give more accurate " +
+                                "estimates using more memory.",
+                        type = {DataType.DOUBLE},
+                        optional = true,
+                        defaultValue = "100")
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the approximate value at the given percentile as a double.",
+                type = {DataType.DOUBLE}),
+        examples = @Example(
+                syntax = "from fooStream#window.timeBatch(1 min)\n" +
+                        "select percentileApprox(latency, 99.0) as p99Latency\n" +
+                        "insert into barStream;",
+                description = "percentileApprox(latency, 99.0) returns the approximate 99th percentile of the " +
+                        "latency values within each minute."
+        )
+)
+public class PercentileApproxAttributeAggregator extends AttributeAggregator {
+
+    private static final double DEFAULT_COMPRESSION = 100;
+    private double quantile;
+    private TDigest digest;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *  @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param configReader this hold the {@link PercentileApproxAttributeAggregator} configuration reader.
+     * @param siddhiAppContext         Siddhi app runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                        SiddhiAppContext siddhiAppContext) {
+        if (attributeExpressionExecutors.length != 2 && attributeExpressionExecutors.length != 3) {
+            throw new OperationNotSupportedException("Approximate percentile aggregator has to have 2 or 3 " +
+                    "parameters, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        Attribute.Type type = attributeExpressionExecutors[0].getReturnType();
+        if (type != Attribute.Type.INT && type != Attribute.Type.LONG && type != Attribute.Type.FLOAT &&
+                type != Attribute.Type.DOUBLE) {
+            throw new OperationNotSupportedException("Approximate percentile not supported for " + type);
+        }
+        double percentile = getConstant(attributeExpressionExecutors[1], "Percentile");
+        if (percentile < 0 || percentile > 100) {
+            throw new OperationNotSupportedException("Percentile of the approximate percentile aggregator should be " +
+                    "between 0 and 100, but found " + percentile);
+        }
+        quantile = percentile / 100;
+        double compression = DEFAULT_COMPRESSION;
+        if (attributeExpressionExecutors.length == 3) {
+            compression = getConstant(attributeExpressionExecutors[2], "Compression");
+            if (compression < 10) {
+                throw new OperationNotSupportedException("Compression of the approximate percentile aggregator " +
+                        "should be at least 10, but found " + compression);
+            }
+        }
+        digest = new TDigest(compression);
+    }
+
+    private double getConstant(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                !(((ConstantExpressionExecutor) expressionExecutor).getValue() instanceof Number)) {
+            throw new OperationNotSupportedException(name + " of the approximate percentile aggregator should be a " +
+                    "constant numeric value");
+        }
+        return ((Number) ((ConstantExpressionExecutor) expressionExecutor).getValue()).doubleValue();
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.DOUBLE;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        if (data != null) {
+            digest.add(((Number) data).doubleValue());
+        }
+        return currentPercentile();
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        return processAdd(data[0]);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        // values cannot be removed from the digest
+        return currentPercentile();
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        return processRemove(data[0]);
+    }
+
+    @Override
+    public Object reset() {
+        digest.clear();
+        return null;
+    }
+
+    private Double currentPercentile() {
+        if (digest.isEmpty()) {
+            return null;
+        }
+        return digest.quantile(quantile);
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Centroids", digest.toArray());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        digest.restore((double[]) state.get("Centroids"));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch estimating the frequencies of values in a fixed amount of memory. The estimates never fall below
+ * the actual frequencies, and exceed them by at most relativeError * total count with the given confidence.
+ * <p>
+ * As the counters are only summed, values can also be removed, e.g. when they expire from a window.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+
+    /**
+     * @param relativeError error of the estimates relative to the total count, between 0 and 1
+     * @param confidence    probability of an estimate being within the error, between 0 and 1
+     */
+    public CountMinSketch(double relativeError, double confidence) {
+        if (relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("Relative error of the Count-Min sketch should be between 0 and 1, " +
+                    "but found " + relativeError);
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence of the Count-Min sketch should be between 0 and 1, " +
+                    "but found " + confidence);
+        }
+        this.width = (int) Math.ceil(Math.E / relativeError);
+        this.depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        this.counters = new long[width * depth];
+    }
+
+    public void add(Object value, long count) {
+        long hash = SketchHash.hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + index(hash1, hash2, row)] += count;
+        }
+    }
+
+    public long estimate(Object value) {
+        long hash = SketchHash.hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + index(hash1, hash2, row)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    public long[] getCounters() {
+        return counters.clone();
+    }
+
+    public void setCounters(long[] counters) {
+        if (counters.length != this.counters.length) {
+            throw new IllegalArgumentException("Expected " + this.counters.length + " Count-Min sketch counters, " +
+                    "but found " + counters.length);
+        }
+        System.arraycopy(counters, 0, this.counters, 0, counters.length);
+    }
+
+    private int index(int hash1, int hash2, int row) {
+        // rows use the hashes hash1 + row * hash2, which are as good as independent hashes for the sketch
+        return ((hash1 + row * hash2) & Integer.MAX_VALUE) % width;
+    }
+}
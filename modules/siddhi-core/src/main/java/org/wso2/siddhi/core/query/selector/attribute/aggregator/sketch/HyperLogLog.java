@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values in a fixed amount of memory. With precision p the
+ * sketch uses 2^p one byte registers and has a standard error of about 1.04 / sqrt(2^p).
+ * <p>
+ * Values cannot be removed from the sketch, it can only be cleared.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+    private final int precision;
+    private final byte[] registers;
+    private final double alpha;
+    // sum of 2^-register and number of zero registers, maintained as the registers change
+    private double inverseSum;
+    private int zeroRegisters;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision of the HyperLogLog should be between " + MIN_PRECISION +
+                    " and " + MAX_PRECISION + ", but found " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+        int size = registers.length;
+        if (size == 16) {
+            alpha = 0.673;
+        } else if (size == 32) {
+            alpha = 0.697;
+        } else if (size == 64) {
+            alpha = 0.709;
+        } else {
+            alpha = 0.7213 / (1 + 1.079 / size);
+        }
+        clear();
+    }
+
+    public void add(Object value) {
+        long hash = SketchHash.hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int register = registers[index];
+        if (rank > register) {
+            if (register == 0) {
+                zeroRegisters--;
+            }
+            inverseSum += Math.scalb(1.0, -rank) - Math.scalb(1.0, -register);
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        int size = registers.length;
+        double estimate = alpha * size * size / inverseSum;
+        if (estimate <= 2.5 * size && zeroRegisters > 0) {
+            // linear counting is more accurate for small cardinalities
+            estimate = size * Math.log((double) size / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+        inverseSum = registers.length;
+        zeroRegisters = registers.length;
+    }
+
+    public byte[] getRegisters() {
+        return registers.clone();
+    }
+
+    public void setRegisters(byte[] registers) {
+        if (registers.length != this.registers.length) {
+            throw new IllegalArgumentException("Expected " + this.registers.length + " HyperLogLog registers, " +
+                    "but found " + registers.length);
+        }
+        System.arraycopy(registers, 0, this.registers, 0, registers.length);
+        inverseSum = 0;
+        zeroRegisters = 0;
+        for (byte register : registers) {
+            inverseSum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch;
+
+/**
+ * 64 bit hashing of attribute values for the probabilistic sketches. Numbers and strings are hashed from their
+ * content, so that the hashes are stable across restarts and the restored sketches stay consistent.
+ */
+public final class SketchHash {
+
+    private SketchHash() {
+    }
+
+    public static long hash(Object value) {
+        if (value instanceof String) {
+            return hash((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short ||
+                value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            return mix(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            return mix(Double.doubleToLongBits((Float) value));
+        } else if (value == null) {
+            return 0;
+        }
+        return mix(value.hashCode());
+    }
+
+    private static long hash(String value) {
+        // 64 bit FNV-1a over the characters
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Finalization step of SplitMix64, spreading every input bit over the whole hash.
+     */
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
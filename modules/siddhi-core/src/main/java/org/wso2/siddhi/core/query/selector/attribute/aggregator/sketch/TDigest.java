@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest estimating quantiles in a fixed amount of memory. The values are buffered and periodically merged
+ * into at most about 2 * compression centroids, which are kept small near the tails so that the extreme quantiles
+ * stay accurate.
+ * <p>
+ * Values cannot be removed from the digest, it can only be cleared.
+ */
+public class TDigest {
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    // arrays the centroids are merged into, swapped with the current ones after each merge
+    private double[] mergedMeans;
+    private double[] mergedWeights;
+    private int centroidCount = 0;
+    private final double[] buffer;
+    private int bufferCount = 0;
+    private double totalWeight = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression of the t-digest should be at least 10, but found " +
+                    compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(2 * compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.mergedMeans = new double[capacity];
+        this.mergedWeights = new double[capacity];
+        this.buffer = new double[(int) Math.ceil(5 * compression)];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferCount == buffer.length) {
+            merge();
+        }
+        // the buffer is kept sorted, so that quantiles can be estimated without merging it
+        int position = Arrays.binarySearch(buffer, 0, bufferCount, value);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        System.arraycopy(buffer, position, buffer, position + 1, bufferCount - position);
+        buffer[position] = value;
+        bufferCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @param quantile quantile to be estimated, between 0 and 1
+     * @return estimated value at the quantile, NaN when the digest is empty
+     */
+    public double quantile(double quantile) {
+        if (isEmpty()) {
+            return Double.NaN;
+        } else if (quantile <= 0) {
+            return min;
+        } else if (quantile >= 1) {
+            return max;
+        }
+        double total = totalWeight + bufferCount;
+        double target = quantile * total;
+        // interpolate between the centers of the centroids and the buffered values, walked in the order of their
+        // means, using min and max at the ends
+        double previousMean = min;
+        double previousCenter = 0;
+        double cumulative = 0;
+        int centroidIndex = 0;
+        int bufferIndex = 0;
+        while (centroidIndex < centroidCount || bufferIndex < bufferCount) {
+            double mean;
+            double weight;
+            if (bufferIndex == bufferCount ||
+                    (centroidIndex < centroidCount && means[centroidIndex] <= buffer[bufferIndex])) {
+                mean = means[centroidIndex];
+                weight = weights[centroidIndex++];
+            } else {
+                mean = buffer[bufferIndex++];
+                weight = 1;
+            }
+            double center = cumulative + weight / 2;
+            if (target < center) {
+                return previousMean + (mean - previousMean) * (target - previousCenter) / (center - previousCenter);
+            }
+            previousMean = mean;
+            previousCenter = center;
+            cumulative += weight;
+        }
+        return previousMean + (max - previousMean) * (target - previousCenter) / (total - previousCenter);
+    }
+
+    public boolean isEmpty() {
+        return centroidCount == 0 && bufferCount == 0;
+    }
+
+    public void clear() {
+        centroidCount = 0;
+        bufferCount = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return means of the centroids followed by their weights, then min and max
+     */
+    public double[] toArray() {
+        merge();
+        double[] array = new double[centroidCount * 2 + 2];
+        System.arraycopy(means, 0, array, 0, centroidCount);
+        System.arraycopy(weights, 0, array, centroidCount, centroidCount);
+        array[array.length - 2] = min;
+        array[array.length - 1] = max;
+        return array;
+    }
+
+    /**
+     * @param array centroids as returned by {@link #toArray()}
+     */
+    public void restore(double[] array) {
+        clear();
+        int count = (array.length - 2) / 2;
+        if (count > means.length) {
+            means = new double[count];
+            weights = new double[count];
+            mergedMeans = new double[count];
+            mergedWeights = new double[count];
+        }
+        System.arraycopy(array, 0, means, 0, count);
+        System.arraycopy(array, count, weights, 0, count);
+        centroidCount = count;
+        for (int i = 0; i < count; i++) {
+            totalWeight += weights[i];
+        }
+        min = array[array.length - 2];
+        max = array[array.length - 1];
+    }
+
+    private void merge() {
+        if (bufferCount == 0) {
+            return;
+        }
+        double newTotalWeight = totalWeight + bufferCount;
+        double[] newMeans = mergedMeans;
+        double[] newWeights = mergedWeights;
+        int newCount = 0;
+        double weightSoFar = 0;
+        double currentMean = 0;
+        double currentWeight = 0;
+        int centroidIndex = 0;
+        int bufferIndex = 0;
+        while (centroidIndex < centroidCount || bufferIndex < bufferCount) {
+            // merge the sorted centroids and the sorted buffer in the order of their means
+            double mean;
+            double weight;
+            if (bufferIndex == bufferCount ||
+                    (centroidIndex < centroidCount && means[centroidIndex] <= buffer[bufferIndex])) {
+                mean = means[centroidIndex];
+                weight = weights[centroidIndex++];
+            } else {
+                mean = buffer[bufferIndex++];
+                weight = 1;
+            }
+            if (currentWeight == 0) {
+                currentMean = mean;
+                currentWeight = weight;
+            } else if (scale((weightSoFar + currentWeight + weight) / newTotalWeight) -
+                    scale(weightSoFar / newTotalWeight) <= 1) {
+                currentWeight += weight;
+                currentMean += (mean - currentMean) * weight / currentWeight;
+            } else {
+                if (newCount == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, newCount * 2);
+                    newWeights = Arrays.copyOf(newWeights, newCount * 2);
+                }
+                newMeans[newCount] = currentMean;
+                newWeights[newCount++] = currentWeight;
+                weightSoFar += currentWeight;
+                currentMean = mean;
+                currentWeight = weight;
+            }
+        }
+        if (newCount == newMeans.length) {
+            newMeans = Arrays.copyOf(newMeans, newCount + 1);
+            newWeights = Arrays.copyOf(newWeights, newCount + 1);
+        }
+        newMeans[newCount] = currentMean;
+        newWeights[newCount++] = currentWeight;
+        mergedMeans = means;
+        mergedWeights = weights;
+        means = newMeans;
+        weights = newWeights;
+        centroidCount = newCount;
+        totalWeight = newTotalWeight;
+        bufferCount = 0;
+    }
+
+    private double scale(double quantile) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, quantile) - 1);
+    }
+}
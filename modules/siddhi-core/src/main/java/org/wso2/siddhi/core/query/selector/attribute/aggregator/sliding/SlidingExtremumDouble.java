@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator.sliding;
+
+/**
+ * Maximum or minimum of a sliding window of double values, maintained in O(1) amortized time per event when the
+ * values expire in their arrival order, as they do from length and time windows.
+ * <p>
+ * Only the values that can still become the extremum, i.e. the values not dominated by a later value, are kept, in a
+ * monotonic deque along with their arrival sequence numbers. Dominated values are dropped as soon as they arrive, so
+ * the memory is bounded by the number of candidates rather than the window size, and an unwindowed maximum of a
+ * rising series holds a single value. A value expiring out of its arrival order, e.g. from a sort window, removes the
+ * first candidate equal to it, as the candidate deque did before.
+ */
+public class SlidingExtremumDouble {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private final boolean max;
+    // sequence numbers of the oldest value of the window and of the next value to be added
+    private long head = 0;
+    private long tail = 0;
+    // values which can become the extremum and their sequence numbers, in arrival order
+    private double[] values = new double[INITIAL_CAPACITY];
+    private long[] sequences = new long[INITIAL_CAPACITY];
+    private int candidateHead = 0;
+    private int candidateCount = 0;
+
+    /**
+     * @param max true to maintain the maximum, false to maintain the minimum
+     */
+    public SlidingExtremumDouble(boolean max) {
+        this.max = max;
+    }
+
+    public void add(double value) {
+        while (candidateCount > 0 && dominates(value, valueAt(candidateCount - 1))) {
+            candidateCount--;
+        }
+        addCandidate(value, tail);
+        tail++;
+    }
+
+    /**
+     * Remove a value from the window. The oldest value is expected to be removed, otherwise the first candidate equal
+     * to the value is removed.
+     *
+     * @param value value to be removed
+     * @return false if the value is not in the window
+     */
+    public boolean remove(double value) {
+        if (head == tail) {
+            return false;
+        }
+        if (candidateCount == 0) {
+            head++;
+            return true;
+        }
+        double first = valueAt(0);
+        if (sequenceAt(0) == head) {
+            if (Double.compare(first, value) == 0) {
+                candidateHead = (candidateHead + 1) & (values.length - 1);
+                candidateCount--;
+                head++;
+                return true;
+            }
+        } else if (dominates(first, value)) {
+            // the oldest value is dominated by the first candidate and was never kept
+            head++;
+            return true;
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            if (Double.compare(valueAt(i), value) == 0) {
+                shiftCandidates(i + 1);
+                for (int j = i; j < candidateCount - 1; j++) {
+                    int slot = (candidateHead + j) & (values.length - 1);
+                    values[slot] = valueAt(j + 1);
+                    sequences[slot] = sequenceAt(j + 1);
+                }
+                candidateCount--;
+                tail--;
+                return true;
+            }
+        }
+        // a dominated value, its position is not known so it is taken to be the newest one not kept
+        for (int i = candidateCount - 1; i >= 0; i--) {
+            if (sequenceAt(i) > (i == 0 ? head : sequenceAt(i - 1) + 1)) {
+                shiftCandidates(i);
+                tail--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return candidateCount == 0;
+    }
+
+    /**
+     * @return the number of values in the window, including the dominated values that are not kept
+     */
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * @return the extremum of the window, undefined when the window is empty
+     */
+    public double get() {
+        return valueAt(0);
+    }
+
+    public void clear() {
+        values = new double[INITIAL_CAPACITY];
+        sequences = new long[INITIAL_CAPACITY];
+        head = tail = 0;
+        candidateHead = candidateCount = 0;
+    }
+
+    /**
+     * @return the values which can become the extremum, in their arrival order
+     */
+    public double[] toArray() {
+        double[] array = new double[candidateCount];
+        for (int i = 0; i < candidateCount; i++) {
+            array[i] = valueAt(i);
+        }
+        return array;
+    }
+
+    /**
+     * @return the positions in the window of the values returned by {@link #toArray()}
+     */
+    public long[] getPositions() {
+        long[] positions = new long[candidateCount];
+        for (int i = 0; i < candidateCount; i++) {
+            positions[i] = sequenceAt(i) - head;
+        }
+        return positions;
+    }
+
+    /**
+     * Restore the window from the values which can become the extremum.
+     *
+     * @param candidateValues values returned by {@link #toArray()}
+     * @param positions       positions returned by {@link #getPositions()}
+     * @param size            size of the window
+     */
+    public void restore(double[] candidateValues, long[] positions, int size) {
+        clear();
+        for (int i = 0; i < candidateValues.length; i++) {
+            addCandidate(candidateValues[i], positions[i]);
+        }
+        tail = size;
+    }
+
+    private double valueAt(int index) {
+        return values[(candidateHead + index) & (values.length - 1)];
+    }
+
+    private long sequenceAt(int index) {
+        return sequences[(candidateHead + index) & (values.length - 1)];
+    }
+
+    private boolean dominates(double value, double other) {
+        return max ? value > other : value < other;
+    }
+
+    private void addCandidate(double value, long sequence) {
+        if (candidateCount == values.length) {
+            double[] newValues = new double[values.length << 1];
+            long[] newSequences = new long[values.length << 1];
+            for (int i = 0; i < candidateCount; i++) {
+                newValues[i] = valueAt(i);
+                newSequences[i] = sequenceAt(i);
+            }
+            values = newValues;
+            sequences = newSequences;
+            candidateHead = 0;
+        }
+        int slot = (candidateHead + candidateCount) & (values.length - 1);
+        values[slot] = value;
+        sequences[slot] = sequence;
+        candidateCount++;
+    }
+
+    /**
+     * Move the candidates from the given index one position towards the oldest, as a value before them is removed.
+     */
+    private void shiftCandidates(int index) {
+        for (int i = index; i < candidateCount; i++) {
+            sequences[(candidateHead + i) & (values.length - 1)]--;
+        }
+    }
+}
@@ -37,6 +37,7 @@ public class AggregationAttributeExecutor extends AbstractAggregationAttributeEx
 
     @Override
     public Object execute(ComplexEvent event) {
+        markStateChanged();
         return attributeAggregator.process(event);
     }
 
@@ -20,6 +20,7 @@ package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
@@ -33,7 +34,10 @@ import java.util.Map;
 public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
 
     private final ConfigReader configReader;
-    protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
+    protected Map<Object, AttributeAggregator> aggregatorMap = new HashMap<Object, AttributeAggregator>();
+    // aggregators restored from snapshots keyed by the concatenated 'value::value::' strings, moved to
+    // aggregatorMap when their group is seen again
+    private Map<String, AttributeAggregator> legacyAggregatorMap;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
                                                ExpressionExecutor[] attributeExpressionExecutors,
@@ -45,17 +49,32 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
 
     @Override
     public Object execute(ComplexEvent event) {
+        markStateChanged();
         if (event.getType() == ComplexEvent.Type.RESET) {
             Object aOutput = null;
             for (AttributeAggregator attributeAggregator : aggregatorMap.values()) {
                 aOutput = attributeAggregator.process(event);
             }
+            if (legacyAggregatorMap != null) {
+                for (AttributeAggregator attributeAggregator : legacyAggregatorMap.values()) {
+                    aOutput = attributeAggregator.process(event);
+                }
+            }
             return aOutput;
         }
-        String key = QuerySelector.getThreadLocalGroupByKey();
+        Object key = QuerySelector.getThreadLocalGroupByKey();
         AttributeAggregator currentAttributeAggregator = aggregatorMap.get(key);
+        if (currentAttributeAggregator == null && legacyAggregatorMap != null) {
+            currentAttributeAggregator = legacyAggregatorMap.remove(GroupByKey.toLegacyKey(key));
+            if (currentAttributeAggregator != null) {
+                aggregatorMap.put(key, currentAttributeAggregator);
+            }
+            if (legacyAggregatorMap.isEmpty()) {
+                legacyAggregatorMap = null;
+            }
+        }
         if (currentAttributeAggregator == null) {
-            currentAttributeAggregator = attributeAggregator.cloneAggregator(key);
+            currentAttributeAggregator = attributeAggregator.cloneAggregator(String.valueOf(key));
             currentAttributeAggregator.initAggregator(attributeExpressionExecutors, siddhiAppContext, configReader);
             currentAttributeAggregator.start();
             aggregatorMap.put(key, currentAttributeAggregator);
@@ -71,26 +90,54 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
 
     @Override
     public Map<String, Object> currentState() {
-        HashMap<String, Map<String, Object>> data = new HashMap<>();
-        for (Map.Entry<String, AttributeAggregator> entry : aggregatorMap.entrySet()) {
+        HashMap<Object, Map<String, Object>> data = new HashMap<>();
+        for (Map.Entry<Object, AttributeAggregator> entry : aggregatorMap.entrySet()) {
             data.put(entry.getKey(), entry.getValue().currentState());
         }
         Map<String, Object> state = new HashMap<>();
         state.put("Data", data);
+        state.put("ValueKeys", true);
+        if (legacyAggregatorMap != null) {
+            HashMap<String, Map<String, Object>> legacyData = new HashMap<>();
+            for (Map.Entry<String, AttributeAggregator> entry : legacyAggregatorMap.entrySet()) {
+                legacyData.put(entry.getKey(), entry.getValue().currentState());
+            }
+            state.put("LegacyData", legacyData);
+        }
         return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        HashMap<String, Map<String, Object>> data = (HashMap<String, Map<String, Object>>) state.get("Data");
+        HashMap<Object, Map<String, Object>> data = (HashMap<Object, Map<String, Object>>) state.get("Data");
+        if (state.get("ValueKeys") == null) {
+            // snapshot taken before the group by keys were the values themselves, the types of the values cannot
+            // be recovered from the concatenated keys, hence they are matched with the keys of the arriving events
+            restoreLegacyState(data);
+            return;
+        }
+        for (Map.Entry<Object, Map<String, Object>> entry : data.entrySet()) {
+            aggregatorMap.put(entry.getKey(), restoreAggregator(entry.getKey(), entry.getValue()));
+        }
+        restoreLegacyState((HashMap<String, Map<String, Object>>) state.get("LegacyData"));
+    }
 
-        for (Map.Entry<String, Map<String, Object>> entry : data.entrySet()) {
-            String key = entry.getKey();
-            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(key);
-            aAttributeAggregator.initAggregator(attributeExpressionExecutors, siddhiAppContext, configReader);
-            aAttributeAggregator.start();
-            aAttributeAggregator.restoreState(entry.getValue());
-            aggregatorMap.put(key, aAttributeAggregator);
+    private void restoreLegacyState(Map<?, Map<String, Object>> legacyData) {
+        if (legacyData == null || legacyData.isEmpty()) {
+            return;
         }
+        legacyAggregatorMap = new HashMap<String, AttributeAggregator>();
+        for (Map.Entry<?, Map<String, Object>> entry : legacyData.entrySet()) {
+            String key = (String) entry.getKey();
+            legacyAggregatorMap.put(key, restoreAggregator(key, entry.getValue()));
+        }
+    }
+
+    private AttributeAggregator restoreAggregator(Object key, Map<String, Object> state) {
+        AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(String.valueOf(key));
+        aAttributeAggregator.initAggregator(attributeExpressionExecutors, siddhiAppContext, configReader);
+        aAttributeAggregator.start();
+        aAttributeAggregator.restoreState(state);
+        return aAttributeAggregator;
     }
 }
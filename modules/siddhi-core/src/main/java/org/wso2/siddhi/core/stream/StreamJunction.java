@@ -19,8 +19,13 @@
 package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
@@ -28,6 +33,7 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.SiddhiEventFactory;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputProcessor;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.SiddhiConstants;
@@ -39,9 +45,11 @@ import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.lang.reflect.Constructor;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
@@ -58,6 +66,8 @@ public class StreamJunction {
     private List<Publisher> publishers = new CopyOnWriteArrayList<Publisher>();
     private ExecutorService executorService;
     private Boolean async = null;
+    private String waitStrategy;
+    private String producerType;
     private Disruptor<Event> disruptor;
     private RingBuffer<Event> ringBuffer;
     private ThroughputTracker throughputTracker = null;
@@ -86,12 +96,22 @@ public class StreamJunction {
             Annotation annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
                                                                    streamDefinition.getAnnotations());
             async = siddhiAppContext.isAsync();
+            waitStrategy = siddhiAppContext.getWaitStrategy();
+            producerType = siddhiAppContext.getProducerType();
             if (annotation != null) {
                 async = true;
                 String bufferSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
                 if (bufferSizeString != null) {
                     this.bufferSize = Integer.parseInt(bufferSizeString);
                 }
+                String waitStrategyString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    waitStrategy = waitStrategyString;
+                }
+                String producerTypeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE);
+                if (producerTypeString != null) {
+                    producerType = producerTypeString;
+                }
             }
 
         } catch (DuplicateAnnotationException e) {
@@ -106,18 +126,28 @@ public class StreamJunction {
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int remaining = 0;
             while (complexEventList != null) {
-                if (throughputTracker != null) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
+                remaining++;
+                complexEventList = complexEventList.getNext();
+            }
+            if (throughputTracker != null) {
+                throughputTracker.eventsIn(remaining);
+            }
+            complexEventList = complexEvent;
+            while (remaining > 0) {
+                int batchSize = Math.min(remaining, ringBuffer.getBufferSize());
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(complexEventList);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(complexEventList);
+                        complexEventList = complexEventList.getNext();
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
-                complexEventList = complexEventList.getNext();
+                remaining -= batchSize;
             }
         } else {
             if (throughputTracker != null) {
@@ -164,13 +194,17 @@ public class StreamJunction {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+            int index = 0;
+            while (index < events.length) {
+                int batchSize = Math.min(events.length - index, ringBuffer.getBufferSize());
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(events[index++]);
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
             }
         } else {
@@ -181,18 +215,27 @@ public class StreamJunction {
     }
 
     private void sendEvent(List<Event> events) {
+        if (throughputTracker != null) {
+            throughputTracker.eventsIn(events.size());
+        }
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
+            Iterator<Event> iterator = events.iterator();
+            int remaining = events.size();
+            while (remaining > 0) {
+                int batchSize = Math.min(remaining, ringBuffer.getBufferSize());
+                long hi = ringBuffer.next(batchSize);
+                long lo = hi - (batchSize - 1);
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
+                    for (long sequenceNo = lo; sequenceNo <= hi; sequenceNo++) {
+                        ringBuffer.get(sequenceNo).copyFrom(iterator.next());
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lo, hi);
                 }
+                remaining -= batchSize;
             }
         } else {
             for (Receiver receiver : receivers) {
@@ -234,10 +277,9 @@ public class StreamJunction {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<Event>(new SiddhiEventFactory(streamDefinition.getAttributeList().size()),
-                                                     bufferSize, executorService, producerType,
-                                                     new BlockingWaitStrategy());
+                                                     bufferSize, executorService, createProducerType(),
+                                                     createWaitStrategy());
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -260,6 +302,53 @@ public class StreamJunction {
         }
     }
 
+    /**
+     * Resolve the Disruptor producer type. Single producer mode avoids the CAS on sequence claims, but it is only
+     * safe when exactly one thread ever publishes to this junction, hence it has to be requested explicitly.
+     *
+     * @return configured producer type, {@link ProducerType#MULTI} by default
+     */
+    private ProducerType createProducerType() {
+        if (producerType == null || SiddhiConstants.PRODUCER_TYPE_MULTI.equalsIgnoreCase(producerType)) {
+            return ProducerType.MULTI;
+        } else if (SiddhiConstants.PRODUCER_TYPE_SINGLE.equalsIgnoreCase(producerType)) {
+            if (publishers.size() > 1) {
+                throw new SiddhiAppCreationException("Stream " + streamDefinition.getId() + " is configured with " +
+                        "producer.type '" + producerType + "' but has " + publishers.size() + " publishers");
+            }
+            return ProducerType.SINGLE;
+        } else {
+            throw new SiddhiAppCreationException("Unsupported producer.type '" + producerType + "' for stream " +
+                    streamDefinition.getId() + ", expected '" + SiddhiConstants.PRODUCER_TYPE_SINGLE + "' or '" +
+                    SiddhiConstants.PRODUCER_TYPE_MULTI + "'");
+        }
+    }
+
+    /**
+     * Resolve the Disruptor wait strategy used by the consumers of this junction.
+     *
+     * @return configured wait strategy, {@link BlockingWaitStrategy} by default
+     */
+    private WaitStrategy createWaitStrategy() {
+        if (waitStrategy == null || SiddhiConstants.WAIT_STRATEGY_BLOCKING.equalsIgnoreCase(waitStrategy)) {
+            return new BlockingWaitStrategy();
+        } else if (SiddhiConstants.WAIT_STRATEGY_BUSY_SPIN.equalsIgnoreCase(waitStrategy)) {
+            return new BusySpinWaitStrategy();
+        } else if (SiddhiConstants.WAIT_STRATEGY_YIELDING.equalsIgnoreCase(waitStrategy)) {
+            return new YieldingWaitStrategy();
+        } else if (SiddhiConstants.WAIT_STRATEGY_SLEEPING.equalsIgnoreCase(waitStrategy)) {
+            return new SleepingWaitStrategy();
+        } else if (SiddhiConstants.WAIT_STRATEGY_PHASED_BACKOFF.equalsIgnoreCase(waitStrategy)) {
+            return PhasedBackoffWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS);
+        } else {
+            throw new SiddhiAppCreationException("Unsupported wait.strategy '" + waitStrategy + "' for stream " +
+                    streamDefinition.getId() + ", expected one of '" + SiddhiConstants.WAIT_STRATEGY_BLOCKING +
+                    "', '" + SiddhiConstants.WAIT_STRATEGY_BUSY_SPIN + "', '" +
+                    SiddhiConstants.WAIT_STRATEGY_YIELDING + "', '" + SiddhiConstants.WAIT_STRATEGY_SLEEPING +
+                    "' or '" + SiddhiConstants.WAIT_STRATEGY_PHASED_BACKOFF + "'");
+        }
+    }
+
     public synchronized void stopProcessing() {
         if (disruptor != null) {
             disruptor.shutdown();
@@ -273,12 +362,26 @@ public class StreamJunction {
     }
 
     public synchronized Publisher constructPublisher() {
+        if (disruptor != null && !publishers.isEmpty() &&
+                SiddhiConstants.PRODUCER_TYPE_SINGLE.equalsIgnoreCase(producerType)) {
+            throw new SiddhiAppCreationException("Stream " + streamDefinition.getId() + " is configured with " +
+                    "producer.type '" + producerType + "' and cannot have more than one publisher");
+        }
         Publisher publisher = new Publisher();
         publisher.setStreamJunction(this);
         publishers.add(publisher);
         return publisher;
     }
 
+    /**
+     * Remove the given publisher, such that it no longer holds a reference to this junction
+     *
+     * @param publisher publisher constructed by this junction
+     */
+    public synchronized void removePublisher(Publisher publisher) {
+        publishers.remove(publisher);
+    }
+
     public synchronized void subscribe(Receiver receiver) {
         // To have reverse order at the sequence/pattern processors.
         if (!receivers.contains(receiver)) {
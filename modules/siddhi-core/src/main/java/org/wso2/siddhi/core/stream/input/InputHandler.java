@@ -20,6 +20,8 @@ package org.wso2.siddhi.core.stream.input;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.event.Event;
 
+import java.util.List;
+
 /**
  * InputHandler is the {@link Event} entry point to Siddhi. Users can create an Input Handler and then use that to
  * directly inject events inside Siddhi.
@@ -68,6 +70,12 @@ public class InputHandler {
         }
     }
 
+    public void send(List<Event> events) throws InterruptedException {
+        if (inputProcessor != null) {
+            inputProcessor.send(events, streamIndex);
+        }
+    }
+
     void disconnect() {
         this.inputProcessor = null;
     }
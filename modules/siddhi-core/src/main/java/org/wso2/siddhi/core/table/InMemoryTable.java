@@ -24,8 +24,11 @@ import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.holder.EventHolder;
+import org.wso2.siddhi.core.table.holder.IndexEventHolder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
 import org.wso2.siddhi.core.util.collection.UpdateAttributeMapper;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
@@ -34,9 +37,11 @@ import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
-import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.HashMap;
 import java.util.List;
@@ -44,17 +49,26 @@ import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * In-memory event table implementation of SiddhiQL.
+ * <p>
+ * With {@code @Concurrency(read='optimistic')} the table is guarded by a {@link StampedLock}, and find and contains
+ * first run without acquiring any lock, only retrying under the read lock if a write happened meanwhile. This avoids
+ * contending on the shared read lock when many joins probe a table that is rarely updated. The optimistic reads need
+ * events that can be read while being modified, hence they are only done on tables with a primary key or indexes,
+ * whose {@link IndexEventHolder} then keeps the events in concurrent maps; other tables are read under the lock.
  */
-public class InMemoryTable implements Table, Snapshotable {
+public class InMemoryTable implements Table, IncrementalSnapshotable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
     private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private StampedLock stampedLock;
     private EventHolder eventHolder;
     private String elementId;
+    private volatile boolean stateChanged = true;
 
 
     @Override
@@ -64,7 +78,22 @@ public class InMemoryTable implements Table, Snapshotable {
         this.tableDefinition = tableDefinition;
         this.tableStreamEventCloner = storeEventCloner;
 
-        eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool);
+        Annotation concurrencyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENCY,
+                tableDefinition.getAnnotations());
+        if (concurrencyAnnotation != null) {
+            String readMode = concurrencyAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_READ);
+            if (readMode != null && readMode.equalsIgnoreCase(SiddhiConstants.READ_OPTIMISTIC)) {
+                stampedLock = new StampedLock();
+                readWriteLock = stampedLock.asReadWriteLock();
+            } else if (readMode != null && !readMode.equalsIgnoreCase(SiddhiConstants.READ_LOCKED)) {
+                throw new SiddhiAppCreationException("Unsupported " + SiddhiConstants.ANNOTATION_ELEMENT_READ +
+                        " mode '" + readMode + "' in " + SiddhiConstants.ANNOTATION_CONCURRENCY +
+                        " annotation, only '" + SiddhiConstants.READ_LOCKED + "' and '" +
+                        SiddhiConstants.READ_OPTIMISTIC + "' are supported, at '" + tableDefinition.getId() + "'");
+            }
+        }
+
+        eventHolder = EventHolderPasser.parse(tableDefinition, storeEventPool, stampedLock != null);
 
         if (elementId == null) {
             elementId = "InMemoryTable-" + siddhiAppContext.getElementIdGenerator().createNewId();
@@ -81,6 +110,7 @@ public class InMemoryTable implements Table, Snapshotable {
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
         try {
             readWriteLock.writeLock().lock();
+            markStateChanged();
             eventHolder.add(addingEventChunk);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -92,6 +122,7 @@ public class InMemoryTable implements Table, Snapshotable {
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
         try {
             readWriteLock.writeLock().lock();
+            markStateChanged();
             ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -103,6 +134,7 @@ public class InMemoryTable implements Table, Snapshotable {
                        UpdateAttributeMapper[] updateAttributeMappers) {
         try {
             readWriteLock.writeLock().lock();
+            markStateChanged();
             ((Operator) compiledCondition).update(updatingEventChunk, eventHolder, updateAttributeMappers);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -116,6 +148,7 @@ public class InMemoryTable implements Table, Snapshotable {
                             AddingStreamEventExtractor addingStreamEventExtractor) {
         try {
             readWriteLock.writeLock().lock();
+            markStateChanged();
             ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate
                     (updateOrAddingEventChunk,
                     eventHolder, updateAttributeMappers, addingStreamEventExtractor);
@@ -130,6 +163,22 @@ public class InMemoryTable implements Table, Snapshotable {
 
     @Override
     public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
+        if (isOptimisticRead()) {
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    boolean contains = ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
+                    if (stampedLock.validate(stamp)) {
+                        return contains;
+                    }
+                } catch (RuntimeException e) {
+                    // retried under the read lock, unless no write happened meanwhile
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
         try {
             readWriteLock.readLock().lock();
             return ((Operator) compiledCondition).contains(matchingEvent, eventHolder);
@@ -139,6 +188,14 @@ public class InMemoryTable implements Table, Snapshotable {
 
     }
 
+    /**
+     * @return true if the events can be read without the lock, validating the read afterwards
+     */
+    private boolean isOptimisticRead() {
+        return stampedLock != null && eventHolder instanceof IndexEventHolder &&
+                ((IndexEventHolder) eventHolder).isConcurrentReads();
+    }
+
     @Override
     public void connectWithRetry(ExecutorService executorService) {
         //not applicable for in-memory tables
@@ -151,6 +208,23 @@ public class InMemoryTable implements Table, Snapshotable {
 
     @Override
     public StreamEvent find(StateEvent matchingEvent, CompiledCondition compiledCondition) {
+        if (isOptimisticRead()) {
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0) {
+                try {
+                    StreamEvent streamEvent = ((Operator) compiledCondition).find(matchingEvent, eventHolder,
+                            tableStreamEventCloner);
+                    if (stampedLock.validate(stamp)) {
+                        return streamEvent;
+                    }
+                } catch (RuntimeException e) {
+                    // a concurrent write can break the traversal, that is retried under the read lock
+                    if (stampedLock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
         try {
             readWriteLock.readLock().lock();
             return ((Operator) compiledCondition).find(matchingEvent, eventHolder, tableStreamEventCloner);
@@ -186,4 +260,20 @@ public class InMemoryTable implements Table, Snapshotable {
     public String getElementId() {
         return elementId;
     }
+
+    @Override
+    public boolean isStateChanged() {
+        return stateChanged;
+    }
+
+    @Override
+    public void clearStateChanged() {
+        stateChanged = false;
+    }
+
+    private void markStateChanged() {
+        if (!stateChanged) {
+            stateChanged = true;
+        }
+    }
 }
@@ -27,65 +27,146 @@ import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * EventHolder implementation where events will be indexed and stored. This will offer faster access compared to
  * other EventHolder implementations. User can only add unique events based on a given primary key.
+ * <p>
+ * Single attribute indexes are either sorted, supporting range lookups, or hashed, supporting only equality lookups.
+ * Composite indexes are always hashed and are keyed by the list of values of their attributes.
+ * <p>
+ * When created for concurrent reads, the primary key and the indexes are kept in concurrent maps and sets, such that
+ * they can be read while being modified, e.g. by the optimistic reads of an in-memory table that are validated
+ * afterwards. The null keys of the concurrent hash maps are then stored as {@link NullKey#INSTANCE}.
  */
 public class IndexEventHolder implements IndexedEventHolder {
 
     private static final Logger log = Logger.getLogger(IndexEventHolder.class);
     private final Map<Object, StreamEvent> primaryKeyData;
-    private final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    private final Map<String, Map<Object, Set<StreamEvent>>> indexData;
+    private final Map<List<String>, Map<Object, Set<StreamEvent>>> compositeIndexData;
+    private final boolean concurrentReads;
     private StreamEventPool tableStreamEventPool;
     private StreamEventConverter eventConverter;
     private int primaryKeyPosition = -1;
     private String primaryKeyAttribute;
     private Map<String, Integer> indexMetaData;
+    private Map<List<String>, int[]> compositeIndexMetaData;
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private Set<Integer> allIndexedPositions = new HashSet<>();
 
     public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
                             int primaryKeyPosition, String primaryKeyAttribute,
                             boolean isPrimaryNumeric, Map<String, Integer> indexMetaData) {
+        this(tableStreamEventPool, eventConverter, primaryKeyPosition, primaryKeyAttribute, isPrimaryNumeric,
+                indexMetaData, Collections.<String>emptySet(), Collections.<List<String>, int[]>emptyMap());
+    }
+
+    public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
+                            int primaryKeyPosition, String primaryKeyAttribute,
+                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Set<String> hashIndexAttributes, Map<List<String>, int[]> compositeIndexMetaData) {
+        this(tableStreamEventPool, eventConverter, primaryKeyPosition, primaryKeyAttribute, isPrimaryNumeric,
+                indexMetaData, hashIndexAttributes, compositeIndexMetaData, false);
+    }
+
+    public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
+                            int primaryKeyPosition, String primaryKeyAttribute,
+                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Set<String> hashIndexAttributes, Map<List<String>, int[]> compositeIndexMetaData,
+                            boolean concurrentReads) {
+        this.concurrentReads = concurrentReads;
         this.tableStreamEventPool = tableStreamEventPool;
         this.eventConverter = eventConverter;
         this.primaryKeyPosition = primaryKeyPosition;
         this.primaryKeyAttribute = primaryKeyAttribute;
         this.indexMetaData = indexMetaData;
+        this.compositeIndexMetaData = compositeIndexMetaData;
 
         if (primaryKeyAttribute != null) {
             if (isPrimaryNumeric) {
-                primaryKeyData = new TreeMap<Object, StreamEvent>();
+                primaryKeyData = concurrentReads ? new ConcurrentSkipListMap<Object, StreamEvent>() :
+                        new TreeMap<Object, StreamEvent>();
             } else {
-                primaryKeyData = new HashMap<Object, StreamEvent>();
+                primaryKeyData = concurrentReads ? new ConcurrentHashMap<Object, StreamEvent>() :
+                        new HashMap<Object, StreamEvent>();
             }
             allIndexMetaData.put(primaryKeyAttribute, primaryKeyPosition);
         } else {
             primaryKeyData = null;
         }
         if (indexMetaData.size() > 0) {
-            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
+            indexData = new HashMap<String, Map<Object, Set<StreamEvent>>>();
             for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                if (hashIndexAttributes.contains(indexAttributeName)) {
+                    indexData.put(indexAttributeName, newHashIndex());
+                } else {
+                    indexData.put(indexAttributeName, concurrentReads ?
+                            new ConcurrentSkipListMap<Object, Set<StreamEvent>>() :
+                            new TreeMap<Object, Set<StreamEvent>>());
+                }
             }
             allIndexMetaData.putAll(indexMetaData);
         } else {
             indexData = null;
         }
+        if (compositeIndexMetaData.size() > 0) {
+            compositeIndexData = new HashMap<List<String>, Map<Object, Set<StreamEvent>>>();
+            for (Map.Entry<List<String>, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                compositeIndexData.put(compositeIndexEntry.getKey(), newHashIndex());
+                for (int position : compositeIndexEntry.getValue()) {
+                    allIndexedPositions.add(position);
+                }
+            }
+        } else {
+            compositeIndexData = null;
+        }
+        allIndexedPositions.addAll(allIndexMetaData.values());
+    }
 
+    private Map<Object, Set<StreamEvent>> newHashIndex() {
+        if (concurrentReads) {
+            return new ConcurrentHashMap<Object, Set<StreamEvent>>();
+        }
+        return new HashMap<Object, Set<StreamEvent>>();
+    }
+
+    /**
+     * @return the key under which the given value is stored in the given map, as concurrent hash maps do not allow
+     * null keys
+     */
+    private static Object toKey(Map<?, ?> map, Object value) {
+        if (value == null && map instanceof ConcurrentHashMap) {
+            return NullKey.INSTANCE;
+        }
+        return value;
     }
 
     public String getPrimaryKeyAttribute() {
         return primaryKeyAttribute;
     }
 
+    /**
+     * @return true if the events can be read while they are being modified
+     */
+    public boolean isConcurrentReads() {
+        return concurrentReads;
+    }
+
     @Override
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
         addingEventChunk.reset();
@@ -101,7 +182,8 @@ public class IndexEventHolder implements IndexedEventHolder {
 
         StreamEvent existingValue = null;
         if (primaryKeyData != null) {
-            existingValue = primaryKeyData.putIfAbsent(streamEvent.getOutputData()[primaryKeyPosition], streamEvent);
+            existingValue = primaryKeyData.putIfAbsent(toKey(primaryKeyData,
+                    streamEvent.getOutputData()[primaryKeyPosition]), streamEvent);
             if (existingValue != null) {
                 log.error("Drooping event :" + streamEvent + ", as there is already an event stored with primary key " +
                                   "'" +
@@ -109,51 +191,67 @@ public class IndexEventHolder implements IndexedEventHolder {
             }
         }
 
+        addToIndexes(streamEvent);
+    }
+
+    private void addToIndexes(StreamEvent streamEvent) {
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
+                addToIndex(indexData.get(indexEntry.getKey()), streamEvent.getOutputData()[indexEntry.getValue()],
+                        streamEvent);
+            }
+        }
+        if (compositeIndexData != null) {
+            for (Map.Entry<List<String>, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                addToIndex(compositeIndexData.get(compositeIndexEntry.getKey()),
+                        constructCompositeKey(streamEvent, compositeIndexEntry.getValue()), streamEvent);
+            }
+        }
+    }
+
+    private void addToIndex(Map<Object, Set<StreamEvent>> indexMap, Object key, StreamEvent streamEvent) {
+        key = toKey(indexMap, key);
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values == null) {
+            values = concurrentReads ? ConcurrentHashMap.<StreamEvent>newKeySet() : new HashSet<StreamEvent>();
+            values.add(streamEvent);
+            indexMap.put(key, values);
+        } else {
+            values.add(streamEvent);
+        }
+    }
+
+    private void removeFromIndex(Map<Object, Set<StreamEvent>> indexMap, Object key, StreamEvent streamEvent) {
+        key = toKey(indexMap, key);
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values != null) {
+            values.remove(streamEvent);
+            if (values.size() == 0) {
+                indexMap.remove(key);
             }
         }
+    }
 
+    private List<Object> constructCompositeKey(StreamEvent streamEvent, int[] positions) {
+        Object[] values = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            values[i] = streamEvent.getOutputData()[positions[i]];
+        }
+        return Arrays.asList(values);
     }
 
     @Override
     public void overwrite(StreamEvent streamEvent) {
         StreamEvent deletedEvent = null;
         if (primaryKeyData != null) {
-            deletedEvent = primaryKeyData.put(streamEvent.getOutputData()[primaryKeyPosition], streamEvent);
+            deletedEvent = primaryKeyData.put(toKey(primaryKeyData,
+                    streamEvent.getOutputData()[primaryKeyPosition]), streamEvent);
         }
 
-        if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
-            }
+        if (deletedEvent != null) {
+            deleteFromIndexes(deletedEvent);
         }
+        addToIndexes(streamEvent);
     }
 
     @Override
@@ -177,7 +275,27 @@ public class IndexEventHolder implements IndexedEventHolder {
 
     @Override
     public boolean isAttributeIndexed(int position) {
-        return allIndexMetaData.containsValue(position);
+        return allIndexedPositions.contains(position);
+    }
+
+    @Override
+    public boolean isSupportedIndex(String attribute, Compare.Operator operator) {
+        if (operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL) {
+            return allIndexMetaData.containsKey(attribute);
+        }
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttribute)) {
+            return primaryKeyData instanceof NavigableMap;
+        }
+        return indexData != null && indexData.get(attribute) instanceof NavigableMap;
+    }
+
+    @Override
+    public Set<List<String>> getCompositeIndexes() {
+        if (compositeIndexData != null) {
+            return compositeIndexData.keySet();
+        } else {
+            return Collections.emptySet();
+        }
     }
 
     @Override
@@ -186,14 +304,21 @@ public class IndexEventHolder implements IndexedEventHolder {
             return primaryKeyData.values();
         } else if (indexData != null) {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
+            Iterator<Map<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
             if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
+                Map<Object, Set<StreamEvent>> aIndexData = iterator.next();
                 for (Set<StreamEvent> streamEvents : aIndexData.values()) {
                     resultEventSet.addAll(streamEvents);
                 }
             }
             return resultEventSet;
+        } else if (compositeIndexData != null) {
+            HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+            Map<Object, Set<StreamEvent>> aIndexData = compositeIndexData.values().iterator().next();
+            for (Set<StreamEvent> streamEvents : aIndexData.values()) {
+                resultEventSet.addAll(streamEvents);
+            }
+            return resultEventSet;
         } else {
             return new HashSet<StreamEvent>();
         }
@@ -208,16 +333,16 @@ public class IndexEventHolder implements IndexedEventHolder {
 
             switch (operator) {
                 case LESS_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).headMap(value, false).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, false).values();
                 case GREATER_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false).values();
                 case LESS_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).headMap(value, true).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, true).values();
                 case GREATER_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true).values();
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true).values();
                 case EQUAL:
                     resultEventSet = new HashSet<StreamEvent>();
-                    resultEvent = primaryKeyData.get(value);
+                    resultEvent = primaryKeyData.get(toKey(primaryKeyData, value));
                     if (resultEvent != null) {
                         resultEventSet.add(resultEvent);
                     }
@@ -228,7 +353,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                     } else {
                         return new HashSet<StreamEvent>();
                     }
-                    resultEvent = primaryKeyData.get(value);
+                    resultEvent = primaryKeyData.get(toKey(primaryKeyData, value));
                     if (resultEvent != null) {
                         resultEventSet.remove(resultEvent);
                     }
@@ -236,32 +361,36 @@ public class IndexEventHolder implements IndexedEventHolder {
             }
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             Set<StreamEvent> resultEvents;
             switch (operator) {
                 case LESS_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData)
+                            .headMap(value, false).values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, false).values()) {
+                    for (Set<StreamEvent> eventSet : ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData)
+                            .tailMap(value, false).values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case LESS_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData)
+                            .headMap(value, true).values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case GREATER_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData)
+                            .tailMap(value, true).values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
                 case EQUAL:
-                    resultEvents = currentIndexedData.get(value);
+                    resultEvents = currentIndexedData.get(toKey(currentIndexedData, value));
                     if (resultEvents != null) {
                         resultEventSet.addAll(resultEvents);
                     }
@@ -276,7 +405,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                         resultEventSet = new HashSet<StreamEvent>();
                     }
 
-                    resultEvents = currentIndexedData.get(value);
+                    resultEvents = currentIndexedData.get(toKey(currentIndexedData, value));
                     if (resultEvents != null) {
                         resultEventSet.removeAll(resultEvents);
                     }
@@ -293,7 +422,12 @@ public class IndexEventHolder implements IndexedEventHolder {
             primaryKeyData.clear();
         }
         if (indexData != null) {
-            for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            for (Map<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+                aIndexedData.clear();
+            }
+        }
+        if (compositeIndexData != null) {
+            for (Map<Object, Set<StreamEvent>> aIndexedData : compositeIndexData.values()) {
                 aIndexedData.clear();
             }
         }
@@ -303,11 +437,12 @@ public class IndexEventHolder implements IndexedEventHolder {
     public void deleteAll(Collection<StreamEvent> storeEventSet) {
         for (StreamEvent streamEvent : storeEventSet) {
             if (primaryKeyData != null) {
-                StreamEvent deletedEvent = primaryKeyData.remove(streamEvent.getOutputData()[primaryKeyPosition]);
-                if (indexData != null) {
+                StreamEvent deletedEvent = primaryKeyData.remove(toKey(primaryKeyData,
+                        streamEvent.getOutputData()[primaryKeyPosition]));
+                if (deletedEvent != null) {
                     deleteFromIndexes(deletedEvent);
                 }
-            } else if (indexData != null) {
+            } else {
                 deleteFromIndexes(streamEvent);
             }
         }
@@ -319,7 +454,7 @@ public class IndexEventHolder implements IndexedEventHolder {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             headMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -328,7 +463,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case GREATER_THAN:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             tailMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -337,7 +472,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             headMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -346,7 +481,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<StreamEvent> iterator = ((TreeMap<Object, StreamEvent>) primaryKeyData).
+                    for (Iterator<StreamEvent> iterator = ((NavigableMap<Object, StreamEvent>) primaryKeyData).
                             tailMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         StreamEvent toDeleteEvent = iterator.next();
@@ -355,13 +490,13 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case EQUAL:
-                    StreamEvent deletedEvent = primaryKeyData.remove(value);
+                    StreamEvent deletedEvent = primaryKeyData.remove(toKey(primaryKeyData, value));
                     if (deletedEvent != null) {
                         deleteFromIndexes(deletedEvent);
                     }
                     return;
                 case NOT_EQUAL:
-                    StreamEvent streamEvent = primaryKeyData.get(value);
+                    StreamEvent streamEvent = primaryKeyData.get(toKey(primaryKeyData, value));
                     deleteAll();
                     if (streamEvent != null) {
                         add(streamEvent);
@@ -372,8 +507,8 @@ public class IndexEventHolder implements IndexedEventHolder {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, false).values().iterator();
+                    for (Iterator<Set<StreamEvent>> iterator = ((NavigableMap<Object, Set<StreamEvent>>) indexData
+                            .get(attribute)).headMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
@@ -381,8 +516,8 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case GREATER_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, false).values().iterator();
+                    for (Iterator<Set<StreamEvent>> iterator = ((NavigableMap<Object, Set<StreamEvent>>) indexData
+                            .get(attribute)).tailMap(value, false).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
@@ -390,8 +525,8 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, true).values().iterator();
+                    for (Iterator<Set<StreamEvent>> iterator = ((NavigableMap<Object, Set<StreamEvent>>) indexData
+                            .get(attribute)).headMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
@@ -399,8 +534,8 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, true).values().iterator();
+                    for (Iterator<Set<StreamEvent>> iterator = ((NavigableMap<Object, Set<StreamEvent>>) indexData
+                            .get(attribute)).tailMap(value, true).values().iterator();
                          iterator.hasNext(); ) {
                         Set<StreamEvent> deletedEventSet = iterator.next();
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
@@ -408,13 +543,15 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
                 case EQUAL:
-                    Set<StreamEvent> deletedEventSet = indexData.get(attribute).remove(value);
+                    Set<StreamEvent> deletedEventSet = indexData.get(attribute).remove(toKey(indexData.get(attribute),
+                            value));
                     if (deletedEventSet != null && deletedEventSet.size() > 0) {
                         deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
                     }
                     return;
                 case NOT_EQUAL:
-                    Set<StreamEvent> matchingEventSet = indexData.get(attribute).get(value);
+                    Set<StreamEvent> matchingEventSet = indexData.get(attribute).get(toKey(indexData.get(attribute),
+                            value));
                     deleteAll();
                     for (StreamEvent matchingEvent : matchingEventSet) {
                         add(matchingEvent);
@@ -432,33 +569,33 @@ public class IndexEventHolder implements IndexedEventHolder {
 
             switch (operator) {
                 case LESS_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
                 case GREATER_THAN:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
                 case GREATER_THAN_EQUAL:
-                    return ((TreeMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
                 case EQUAL:
-                    return primaryKeyData.get(value) != null;
+                    return primaryKeyData.get(toKey(primaryKeyData, value)) != null;
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             switch (operator) {
 
                 case LESS_THAN:
-                    return currentIndexedData.lowerKey(value) != null;
+                    return ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData).lowerKey(value) != null;
                 case GREATER_THAN:
-                    return currentIndexedData.higherKey(value) != null;
+                    return ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData).higherKey(value) != null;
                 case LESS_THAN_EQUAL:
-                    return currentIndexedData.ceilingKey(value) != null;
+                    return ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData).ceilingKey(value) != null;
                 case GREATER_THAN_EQUAL:
-                    return currentIndexedData.floorKey(value) != null;
+                    return ((NavigableMap<Object, Set<StreamEvent>>) currentIndexedData).floorKey(value) != null;
                 case EQUAL:
-                    return currentIndexedData.get(value) != null;
+                    return currentIndexedData.get(toKey(currentIndexedData, value)) != null;
                 case NOT_EQUAL:
                     return currentIndexedData.size() > 1;
             }
@@ -467,36 +604,67 @@ public class IndexEventHolder implements IndexedEventHolder {
                 .getName());
     }
 
+    @Override
+    public Collection<StreamEvent> findEvents(List<String> compositeIndex, List<Object> compositeKey) {
+        HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+        Set<StreamEvent> resultEvents = compositeIndexData.get(compositeIndex).get(compositeKey);
+        if (resultEvents != null) {
+            resultEventSet.addAll(resultEvents);
+        }
+        return resultEventSet;
+    }
+
+    @Override
+    public void delete(List<String> compositeIndex, List<Object> compositeKey) {
+        Set<StreamEvent> deletedEventSet = compositeIndexData.get(compositeIndex).get(compositeKey);
+        if (deletedEventSet != null) {
+            deleteAll(new ArrayList<StreamEvent>(deletedEventSet));
+        }
+    }
+
+    @Override
+    public boolean containsEventSet(List<String> compositeIndex, List<Object> compositeKey) {
+        return compositeIndexData.get(compositeIndex).get(compositeKey) != null;
+    }
+
     private void deleteFromIndexesAndPrimaryKey(String currentAttribute, Set<StreamEvent> deletedEventSet) {
         for (StreamEvent deletedEvent : deletedEventSet) {
             if (primaryKeyData != null) {
-                primaryKeyData.remove(deletedEvent.getOutputData()[primaryKeyPosition]);
+                primaryKeyData.remove(toKey(primaryKeyData, deletedEvent.getOutputData()[primaryKeyPosition]));
             }
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
                 if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                    Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
+                    removeFromIndex(indexData.get(indexEntry.getKey()),
+                            deletedEvent.getOutputData()[indexEntry.getValue()], deletedEvent);
                 }
             }
+            deleteFromCompositeIndexes(deletedEvent);
         }
     }
 
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
-        if (indexMetaData != null) {
+        if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                values.remove(toDeleteEvent);
-                if (values.size() == 0) {
-                    indexMap.remove(key);
-                }
+                removeFromIndex(indexData.get(indexEntry.getKey()),
+                        toDeleteEvent.getOutputData()[indexEntry.getValue()], toDeleteEvent);
             }
         }
+        deleteFromCompositeIndexes(toDeleteEvent);
+    }
+
+    private void deleteFromCompositeIndexes(StreamEvent toDeleteEvent) {
+        if (compositeIndexData != null) {
+            for (Map.Entry<List<String>, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                removeFromIndex(compositeIndexData.get(compositeIndexEntry.getKey()),
+                        constructCompositeKey(toDeleteEvent, compositeIndexEntry.getValue()), toDeleteEvent);
+            }
+        }
+    }
+
+    /**
+     * Key of the null values in the concurrent hash maps, an enum such that it stays the same instance when restored.
+     */
+    private enum NullKey {
+        INSTANCE
     }
 }
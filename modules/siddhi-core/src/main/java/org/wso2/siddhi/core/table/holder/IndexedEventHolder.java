@@ -22,6 +22,7 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -33,6 +34,27 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean isAttributeIndexed(int position);
 
+    /**
+     * Checks whether the index of the given attribute can serve the given compare operator. Hash indexes only
+     * support equality based lookups.
+     *
+     * @param attribute indexed attribute name
+     * @param operator  compare operator
+     * @return true if the attribute is indexed and the index supports the operator
+     */
+    boolean isSupportedIndex(String attribute, Compare.Operator operator);
+
+    /**
+     * @return attribute lists of the composite indexes, each composite index is keyed by the list of its values
+     */
+    Set<List<String>> getCompositeIndexes();
+
+    Collection<StreamEvent> findEvents(List<String> compositeIndex, List<Object> compositeKey);
+
+    void delete(List<String> compositeIndex, List<Object> compositeKey);
+
+    boolean containsEventSet(List<String> compositeIndex, List<Object> compositeKey);
+
     Collection<StreamEvent> getAllEvents();
 
     Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value);
@@ -27,7 +27,7 @@ import org.wso2.siddhi.core.event.stream.converter.ConversionStreamEventChunk;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
-import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
 import java.util.HashMap;
@@ -38,7 +38,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 /**
  * Scheduler implementation to take periodic snapshots
  */
-public abstract class Scheduler implements Snapshotable {
+public abstract class Scheduler implements IncrementalSnapshotable {
 
     private static final Logger log = Logger.getLogger(Scheduler.class);
     protected final BlockingQueue<Long> toNotifyQueue = new LinkedBlockingQueue<Long>();
@@ -51,6 +51,7 @@ public abstract class Scheduler implements Snapshotable {
     private ComplexEventChunk<StreamEvent> streamEventChunk;
     private LatencyTracker latencyTracker;
     private LockWrapper lockWrapper;
+    private volatile boolean stateChanged = true;
 
 
     public Scheduler(Schedulable singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
@@ -67,17 +68,35 @@ public abstract class Scheduler implements Snapshotable {
         try {
             // Insert the time into the queue
             toNotifyQueue.put(time);
+            markStateChanged();
             schedule(time);     // Let the subclasses to schedule the scheduler
         } catch (InterruptedException e) {
             log.error("Error when adding time:" + time + " to toNotifyQueue at Scheduler", e);
         }
     }
 
+    /**
+     * Drop the pending notifications, so that no further TIMER events are sent by this scheduler
+     */
+    public void stop() {
+        toNotifyQueue.clear();
+    }
+
     public void setStreamEventPool(StreamEventPool streamEventPool) {
         this.streamEventPool = streamEventPool;
         streamEventChunk = new ConversionStreamEventChunk((StreamEventConverter) null, streamEventPool);
     }
 
+    /**
+     * Set the id this scheduler is snapshotted by, rather than taking a new one from the
+     * {@link ElementIdGenerator} at {@link #init(LockWrapper, String)}
+     *
+     * @param elementId id of this scheduler
+     */
+    public void setElementId(String elementId) {
+        this.elementId = elementId;
+    }
+
     public void init(LockWrapper lockWrapper, String queryName) {
         this.lockWrapper = lockWrapper;
         this.queryName = queryName;
@@ -96,6 +115,10 @@ public abstract class Scheduler implements Snapshotable {
 
     @Override
     public void restoreState(Map<String, Object> state) {
+        if (state == null || state.get("ToNotifyQueue") == null) {
+            // not part of the revision, e.g. persisted before this scheduler was added to its query
+            return;
+        }
         BlockingQueue<Long> restoreToNotifyQueue = (BlockingQueue<Long>) state.get("ToNotifyQueue");
         for (Long time : restoreToNotifyQueue) {
             notifyAt(time);
@@ -107,6 +130,22 @@ public abstract class Scheduler implements Snapshotable {
         return elementId;
     }
 
+    @Override
+    public boolean isStateChanged() {
+        return stateChanged;
+    }
+
+    @Override
+    public void clearStateChanged() {
+        stateChanged = false;
+    }
+
+    private void markStateChanged() {
+        if (!stateChanged) {
+            stateChanged = true;
+        }
+    }
+
     public void setLatencyTracker(LatencyTracker latencyTracker) {
         this.latencyTracker = latencyTracker;
     }
@@ -119,6 +158,7 @@ public abstract class Scheduler implements Snapshotable {
         long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
         while (toNotifyTime != null && toNotifyTime - currentTime <= 0) {
             toNotifyQueue.poll();
+            markStateChanged();
 
             StreamEvent timerEvent = streamEventPool.borrowEvent();
             timerEvent.setType(StreamEvent.Type.TIMER);
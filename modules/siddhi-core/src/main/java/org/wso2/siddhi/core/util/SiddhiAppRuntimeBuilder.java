@@ -140,6 +140,16 @@ public class SiddhiAppRuntimeBuilder {
         partitionMap.put(partitionRuntime.getPartitionId(), partitionRuntime);
     }
 
+    /**
+     * Register a query of a partition under its name, such that query callbacks can be added to it. The events are
+     * processed by the partition instances of the query, which share its query callbacks.
+     *
+     * @param queryRuntime query runtime of the partition, which the partition instances are cloned from
+     */
+    public void addPartitionedQuery(QueryRuntime queryRuntime) {
+        queryProcessorMap.put(queryRuntime.getQueryId(), queryRuntime);
+    }
+
     public String addQuery(QueryRuntime queryRuntime) {
         queryProcessorMap.put(queryRuntime.getQueryId(), queryRuntime);
         StreamRuntime streamRuntime = queryRuntime.getStreamRuntime();
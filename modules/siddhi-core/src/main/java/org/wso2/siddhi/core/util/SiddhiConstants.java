@@ -48,6 +48,8 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
     public static final String ANNOTATION_ASYNC = "Async";
     public static final String ANNOTATION_STATISTICS = "Statistics";
+    public static final String ANNOTATION_SHARE_WINDOWS = "ShareWindows";
+    public static final String ANNOTATION_SHARE_PATTERNS = "SharePatterns";
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_INDEX = "Index";
     public static final String ANNOTATION_PRIMARY_KEY = "PrimaryKey";
@@ -59,14 +61,34 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_DESTINATION = "Destination";
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
+    public static final String ANNOTATION_PURGE = "Purge";
+    public static final String ANNOTATION_CONCURRENCY = "Concurrency";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER_TYPE = "producer.type";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String ANNOTATION_ELEMENT_ENABLE = "enable";
+    public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
+    public static final String ANNOTATION_ELEMENT_IDLE_PERIOD = "idle.period";
+    public static final String ANNOTATION_ELEMENT_MAX_INSTANCES = "max.instances";
+    public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
+    public static final String ANNOTATION_ELEMENT_HASH = "hash";
+    public static final String ANNOTATION_ELEMENT_READ = "read";
 
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final String WAIT_STRATEGY_BLOCKING = "blocking";
+    public static final String WAIT_STRATEGY_BUSY_SPIN = "busySpin";
+    public static final String READ_LOCKED = "locked";
+    public static final String READ_OPTIMISTIC = "optimistic";
+    public static final String WAIT_STRATEGY_YIELDING = "yielding";
+    public static final String WAIT_STRATEGY_SLEEPING = "sleeping";
+    public static final String WAIT_STRATEGY_PHASED_BACKOFF = "phasedBackoff";
+    public static final String PRODUCER_TYPE_SINGLE = "single";
+    public static final String PRODUCER_TYPE_MULTI = "multi";
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -81,6 +103,7 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_SIDDHI = "Siddhi";
     public static final String METRIC_INFIX_QUERIES = "Queries";
     public static final String METRIC_INFIX_WINDOWS = "Windows";
+    public static final String METRIC_INFIX_PARTITIONS = "Partitions";
     public static final String METRIC_DELIMITER = ".";
     public static final String METRIC_AGGREGATE_ANNOTATION = "[+]";
     public static final String EXTENSION_SEPARATOR = ":";
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel shared by the {@link SystemTimeBasedScheduler}s of a Siddhi app. Instead of each scheduler
+ * submitting a delayed task to the scheduled executor for every notification, the notifications are placed in the
+ * bucket of the tick they expire in, and a single ticker advances the wheel dispatching all the notifications of a
+ * tick together. Notifications further than one revolution away stay in their bucket for the remaining rounds,
+ * hence adding and expiring a notification does not depend on the number of pending notifications.
+ * <p>
+ * The ticker only runs while there are pending notifications.
+ */
+public class TimerWheel {
+
+    public static final long DEFAULT_TICK_DURATION = 1;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private final SiddhiAppContext siddhiAppContext;
+    private final long tickDuration;
+    private final int mask;
+    // buckets are only accessed by the ticker, notifications are handed over via the pendingTimeouts
+    private final Timeout[] buckets;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicInteger timeoutCount = new AtomicInteger();
+    private final Ticker ticker = new Ticker();
+    private volatile boolean tickerRunning = false;
+    private ScheduledFuture<?> tickerFuture;
+    private long startTime;
+    private long tick;
+
+    public TimerWheel(SiddhiAppContext siddhiAppContext) {
+        this(siddhiAppContext, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param siddhiAppContext Siddhi app context providing the scheduled executor and the current time
+     * @param tickDuration     duration of a tick in milliseconds
+     * @param wheelSize        number of buckets in the wheel, rounded up to a power of two
+     */
+    public TimerWheel(SiddhiAppContext siddhiAppContext, long tickDuration, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration of the timer wheel should be positive, but found " +
+                    tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Size of the timer wheel should be between 1 and 2^30, but found " +
+                    wheelSize);
+        }
+        this.siddhiAppContext = siddhiAppContext;
+        this.tickDuration = tickDuration;
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Run the given task once the given time is reached. The task is run on the scheduled executor of the Siddhi
+     * app, right away if the time has already passed.
+     *
+     * @param task task to be run
+     * @param time time in milliseconds at which the task should be run
+     */
+    public void schedule(Runnable task, long time) {
+        if (time - siddhiAppContext.getTimestampGenerator().currentTime() <= 0) {
+            siddhiAppContext.getScheduledExecutorService().execute(task);
+            return;
+        }
+        timeoutCount.incrementAndGet();
+        pendingTimeouts.add(new Timeout(task, time));
+        if (!tickerRunning) {
+            startTicker();
+        }
+    }
+
+    /**
+     * @return number of notifications waiting in the wheel
+     */
+    public int getPendingCount() {
+        return timeoutCount.get();
+    }
+
+    private synchronized void startTicker() {
+        if (!tickerRunning) {
+            startTime = siddhiAppContext.getTimestampGenerator().currentTime();
+            tick = 0;
+            tickerRunning = true;
+            tickerFuture = siddhiAppContext.getScheduledExecutorService().scheduleAtFixedRate(ticker, tickDuration,
+                    tickDuration, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void stopTickerIfIdle() {
+        if (timeoutCount.get() == 0 && tickerRunning) {
+            tickerRunning = false;
+            tickerFuture.cancel(false);
+            tickerFuture = null;
+            // a notification scheduled after the idle check may have seen the ticker still running and not started
+            // it, so it is restarted here; such a notification is counted before tickerRunning is read by schedule()
+            if (timeoutCount.get() > 0) {
+                startTicker();
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            long calculatedTick = (timeout.time - startTime) / tickDuration;
+            if (calculatedTick < tick) {
+                // already expired, let it be dispatched with the current tick
+                calculatedTick = tick;
+            }
+            timeout.remainingRounds = (calculatedTick - tick) / buckets.length;
+            int index = (int) (calculatedTick & mask);
+            timeout.next = buckets[index];
+            buckets[index] = timeout;
+        }
+    }
+
+    private void expireTimeouts(int index) {
+        Timeout timeout = buckets[index];
+        buckets[index] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                timeout.next = buckets[index];
+                buckets[index] = timeout;
+            } else {
+                timeout.next = null;
+                timeoutCount.decrementAndGet();
+                siddhiAppContext.getScheduledExecutorService().execute(timeout.task);
+            }
+            timeout = next;
+        }
+    }
+
+    private class Ticker implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                transferPendingTimeouts();
+                // a tick is expired only when its whole duration has passed, which also lets the ticker catch up
+                // when it was delayed
+                long lastExpiredTick = (siddhiAppContext.getTimestampGenerator().currentTime() - startTime) /
+                        tickDuration - 1;
+                while (tick <= lastExpiredTick) {
+                    expireTimeouts((int) (tick & mask));
+                    tick++;
+                }
+                if (timeoutCount.get() == 0) {
+                    stopTickerIfIdle();
+                }
+            } catch (Throwable t) {
+                log.error("Error when advancing the timer wheel of Siddhi app '" + siddhiAppContext.getName() +
+                        "'", t);
+            }
+        }
+    }
+
+    private static class Timeout {
+        private final Runnable task;
+        private final long time;
+        private long remainingRounds;
+        private Timeout next;
+
+        Timeout(Runnable task, long time) {
+            this.task = task;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * {@link ComplexEventChunk} of {@link StreamEvent}s which can be looked up by the values of their attributes.
+ * Indexes are built on the first lookup of an attribute and are then kept up to date as the events are added to or
+ * removed from the chunk, such that the windows holding their events in this chunk can be joined on equality
+ * conditions without scanning all of their events.
+ */
+public class IndexedEventChunk extends ComplexEventChunk<StreamEvent> {
+
+    private static final long serialVersionUID = -5470209213935346163L;
+    private transient List<AttributeIndex> indexes;
+
+    public IndexedEventChunk(boolean isBatch) {
+        super(isBatch);
+    }
+
+    /**
+     * Find the events of the chunk having the given value for the given attribute.
+     *
+     * @param position position of the indexed attribute in the events of the chunk, as given by
+     *                 {@link org.wso2.siddhi.core.executor.VariableExpressionExecutor#getPosition()}
+     * @param key      value of the attribute
+     * @return matching events in their order of arrival, or null if there are none
+     */
+    public Collection<StreamEvent> getIndexedEvents(int[] position, Object key) {
+        if (indexes == null) {
+            indexes = new ArrayList<AttributeIndex>();
+        }
+        AttributeIndex index = null;
+        for (AttributeIndex attributeIndex : indexes) {
+            if (attributeIndex.isOf(position)) {
+                index = attributeIndex;
+                break;
+            }
+        }
+        if (index == null) {
+            index = new AttributeIndex(position);
+            indexes.add(index);
+            for (StreamEvent event = first; event != null; event = event.getNext()) {
+                index.add(event);
+            }
+        }
+        return index.events.get(key);
+    }
+
+    @Override
+    public void insertBeforeCurrent(StreamEvent events) {
+        addToIndexes(events, null);
+        super.insertBeforeCurrent(events);
+    }
+
+    @Override
+    public void insertAfterCurrent(StreamEvent streamEvents) {
+        addToIndexes(streamEvents, null);
+        super.insertAfterCurrent(streamEvents);
+    }
+
+    @Override
+    public void add(StreamEvent complexEvents) {
+        addToIndexes(complexEvents, null);
+        super.add(complexEvents);
+    }
+
+    @Override
+    public void remove() {
+        if (lastReturned != null) {
+            removeFromIndexes(lastReturned, lastReturned.getNext());
+        }
+        super.remove();
+    }
+
+    @Override
+    public void detach() {
+        if (lastReturned != null) {
+            removeFromIndexes(lastReturned, null);
+        }
+        super.detach();
+    }
+
+    @Override
+    public StreamEvent detachAllBeforeCurrent() {
+        StreamEvent firstEvent = super.detachAllBeforeCurrent();
+        removeFromIndexes(firstEvent, null);
+        return firstEvent;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (indexes != null) {
+            for (AttributeIndex index : indexes) {
+                index.events.clear();
+            }
+        }
+    }
+
+    @Override
+    public StreamEvent poll() {
+        StreamEvent firstEvent = super.poll();
+        if (firstEvent != null) {
+            removeFromIndexes(firstEvent, null);
+        }
+        return firstEvent;
+    }
+
+    private void addToIndexes(StreamEvent events, StreamEvent end) {
+        if (indexes == null) {
+            return;
+        }
+        for (StreamEvent event = events; event != end; event = event.getNext()) {
+            for (AttributeIndex index : indexes) {
+                index.add(event);
+            }
+        }
+    }
+
+    private void removeFromIndexes(StreamEvent events, StreamEvent end) {
+        if (indexes == null) {
+            return;
+        }
+        for (StreamEvent event = events; event != end; event = event.getNext()) {
+            for (AttributeIndex index : indexes) {
+                index.remove(event);
+            }
+        }
+    }
+
+    /**
+     * Index of the events of the chunk by the value of one of their attributes.
+     */
+    private static class AttributeIndex {
+        private final int[] position;
+        private final Map<Object, LinkedList<StreamEvent>> events = new HashMap<Object, LinkedList<StreamEvent>>();
+
+        AttributeIndex(int[] position) {
+            this.position = position.clone();
+        }
+
+        boolean isOf(int[] position) {
+            return this.position[STREAM_ATTRIBUTE_TYPE_INDEX] == position[STREAM_ATTRIBUTE_TYPE_INDEX] &&
+                    this.position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] == position[STREAM_ATTRIBUTE_INDEX_IN_TYPE];
+        }
+
+        void add(StreamEvent event) {
+            Object key = event.getAttribute(position);
+            if (key == null) {
+                // null never matches an equality condition
+                return;
+            }
+            LinkedList<StreamEvent> indexedEvents = events.get(key);
+            if (indexedEvents == null) {
+                indexedEvents = new LinkedList<StreamEvent>();
+                events.put(key, indexedEvents);
+            }
+            indexedEvents.add(event);
+        }
+
+        void remove(StreamEvent event) {
+            Object key = event.getAttribute(position);
+            LinkedList<StreamEvent> indexedEvents = events.get(key);
+            if (indexedEvents == null) {
+                return;
+            }
+            // events mostly leave the windows in their order of arrival, hence are found at the head
+            for (Iterator<StreamEvent> iterator = indexedEvents.iterator(); iterator.hasNext(); ) {
+                if (iterator.next() == event) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            if (indexedEvents.isEmpty()) {
+                events.remove(key);
+            }
+        }
+    }
+}
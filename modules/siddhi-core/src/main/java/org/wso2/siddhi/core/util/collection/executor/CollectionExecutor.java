@@ -22,6 +22,7 @@ import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Collection;
 
@@ -71,6 +72,36 @@ public interface CollectionExecutor {
 
     Cost getDefaultCost();
 
+    /**
+     * Convert a numeric value compared with an indexed attribute to the type of the attribute, as the indexes hold
+     * the values of the attribute type, e.g. the INT attribute 'volume' compared with the LONG value 100L.
+     *
+     * @param value         numeric value compared with the attribute
+     * @param attributeType type of the attribute
+     * @return the value of the attribute type, or null if the value has no exact representation in the attribute
+     * type, e.g. 10.5 for an INT attribute, hence is equal to none of the stored values
+     */
+    static Number toAttributeType(Number value, Attribute.Type attributeType) {
+        Number attributeValue;
+        switch (attributeType) {
+            case INT:
+                attributeValue = value.intValue();
+                break;
+            case LONG:
+                attributeValue = value.longValue();
+                break;
+            case FLOAT:
+                attributeValue = value.floatValue();
+                break;
+            case DOUBLE:
+                attributeValue = value.doubleValue();
+                break;
+            default:
+                return value;
+        }
+        return attributeValue.doubleValue() == value.doubleValue() ? attributeValue : null;
+    }
+
     /**
      * Enums to specify operation cost.
      */
@@ -24,30 +24,46 @@ import org.wso2.siddhi.core.event.stream.StreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Implementation of {@link CollectionExecutor} which handle compare condition.
  */
 public class CompareCollectionExecutor implements CollectionExecutor {
 
+    // value equal to none of the stored values
+    private static final Object NO_MATCH = new Object();
 
     private final String attribute;
     private final Compare.Operator operator;
     private final ExpressionExecutor valueExpressionExecutor;
+    private final Attribute.Type attributeType;
     private ExpressionExecutor expressionExecutor;
     private int storeEventIndex;
 
     public CompareCollectionExecutor(ExpressionExecutor expressionExecutor, int storeEventIndex, String attribute,
                                      Compare.Operator operator, ExpressionExecutor valueExpressionExecutor) {
+        this(expressionExecutor, storeEventIndex, attribute, operator, valueExpressionExecutor, null);
+    }
+
+    /**
+     * @param attributeType type of the attribute, to which the numeric values compared with it are converted, or
+     *                      null if they are not converted
+     */
+    public CompareCollectionExecutor(ExpressionExecutor expressionExecutor, int storeEventIndex, String attribute,
+                                     Compare.Operator operator, ExpressionExecutor valueExpressionExecutor,
+                                     Attribute.Type attributeType) {
         this.expressionExecutor = expressionExecutor;
         this.storeEventIndex = storeEventIndex;
 
         this.attribute = attribute;
         this.operator = operator;
         this.valueExpressionExecutor = valueExpressionExecutor;
+        this.attributeType = attributeType;
     }
 
     public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
@@ -88,17 +104,43 @@ public class CompareCollectionExecutor implements CollectionExecutor {
             //for not equal trigger sequential scan
             return null;
         }
-        return indexedEventHolder.findEvents(attribute, operator, valueExpressionExecutor.execute(matchingEvent));
+        Object value = getValue(matchingEvent);
+        if (value == NO_MATCH) {
+            return Collections.emptyList();
+        }
+        return indexedEventHolder.findEvents(attribute, operator, value);
     }
 
     @Override
     public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
-        return indexedEventHolder.containsEventSet(attribute, operator, valueExpressionExecutor.execute(matchingEvent));
+        Object value = getValue(matchingEvent);
+        return value != NO_MATCH && indexedEventHolder.containsEventSet(attribute, operator, value);
     }
 
     @Override
     public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
-        indexedEventHolder.delete(attribute, operator, valueExpressionExecutor.execute(deletingEvent));
+        Object value = getValue(deletingEvent);
+        if (value != NO_MATCH) {
+            indexedEventHolder.delete(attribute, operator, value);
+        }
+    }
+
+    /**
+     * @return the value compared with the attribute, converted to the attribute type as the indexes hold the values
+     * of the attribute type, or NO_MATCH if it is compared for equality but cannot be of the attribute type
+     */
+    private Object getValue(StateEvent matchingEvent) {
+        Object value = valueExpressionExecutor.execute(matchingEvent);
+        if (attributeType != null && valueExpressionExecutor.getReturnType() != attributeType &&
+                value instanceof Number) {
+            Number attributeValue = CollectionExecutor.toAttributeType((Number) value, attributeType);
+            if (attributeValue != null) {
+                return attributeValue;
+            } else if (operator == Compare.Operator.EQUAL) {
+                return NO_MATCH;
+            }
+        }
+        return value;
     }
 
     @Override
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.executor;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of {@link CollectionExecutor} which looks up events through a composite index, using the values of
+ * all the index attributes as a single key.
+ */
+public class CompositeIndexCollectionExecutor implements CollectionExecutor {
+
+    private final List<String> compositeIndex;
+    private final ExpressionExecutor[] valueExpressionExecutors;
+    private final Attribute.Type[] indexAttributeTypes;
+
+    public CompositeIndexCollectionExecutor(List<String> compositeIndex,
+                                            ExpressionExecutor[] valueExpressionExecutors,
+                                            Attribute.Type[] indexAttributeTypes) {
+        this.compositeIndex = compositeIndex;
+        this.valueExpressionExecutors = valueExpressionExecutors;
+        this.indexAttributeTypes = indexAttributeTypes;
+    }
+
+    public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
+            storeEventCloner) {
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (StreamEvent storeEvent : findEvents(matchingEvent, indexedEventHolder)) {
+            if (storeEventCloner != null) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            } else {
+                returnEventChunk.add(storeEvent);
+            }
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        List<Object> compositeKey = constructCompositeKey(matchingEvent);
+        if (compositeKey == null) {
+            return Collections.emptyList();
+        }
+        return indexedEventHolder.findEvents(compositeIndex, compositeKey);
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        List<Object> compositeKey = constructCompositeKey(matchingEvent);
+        return compositeKey != null && indexedEventHolder.containsEventSet(compositeIndex, compositeKey);
+    }
+
+    @Override
+    public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
+        List<Object> compositeKey = constructCompositeKey(deletingEvent);
+        if (compositeKey != null) {
+            indexedEventHolder.delete(compositeIndex, compositeKey);
+        }
+    }
+
+    @Override
+    public Cost getDefaultCost() {
+        return Cost.SINGLE_RETURN_INDEX_MATCHING;
+    }
+
+    /**
+     * @return values of the index attributes, or null if a value cannot be of the type of its attribute, in which
+     * case no stored event matches
+     */
+    private List<Object> constructCompositeKey(StateEvent matchingEvent) {
+        Object[] values = new Object[valueExpressionExecutors.length];
+        for (int i = 0; i < valueExpressionExecutors.length; i++) {
+            Object value = valueExpressionExecutors[i].execute(matchingEvent);
+            if (valueExpressionExecutors[i].getReturnType() != indexAttributeTypes[i] && value instanceof Number) {
+                // the stored values are hashed, hence numeric values need to be of the attribute type to match
+                value = CollectionExecutor.toAttributeType((Number) value, indexAttributeTypes[i]);
+                if (value == null) {
+                    return null;
+                }
+            }
+            values[i] = value;
+        }
+        return Arrays.asList(values);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.IndexedEventChunk;
+
+import java.util.Collection;
+
+/**
+ * Operator which is related to {@link IndexedEventChunk}s, looking up the events having the value of an equality
+ * condition before evaluating the whole condition on them.
+ */
+public class IndexedEventChunkOperator extends EventChunkOperator {
+    private VariableExpressionExecutor storeKeyExecutor;
+    private ExpressionExecutor matchingKeyExecutor;
+
+    /**
+     * @param expressionExecutor  executor of the whole condition
+     * @param storeEventPosition  position of the store events in the matching events
+     * @param storeKeyExecutor    executor of the store attribute of the equality condition
+     * @param matchingKeyExecutor executor of the matching side of the equality condition
+     */
+    public IndexedEventChunkOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                     VariableExpressionExecutor storeKeyExecutor,
+                                     ExpressionExecutor matchingKeyExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.storeKeyExecutor = storeKeyExecutor;
+        this.matchingKeyExecutor = matchingKeyExecutor;
+    }
+
+    @Override
+    public CompiledCondition cloneCompiledCondition(String key) {
+        return new IndexedEventChunkOperator(expressionExecutor.cloneExecutor(key), storeEventPosition,
+                storeKeyExecutor, matchingKeyExecutor.cloneExecutor(key));
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        Collection<StreamEvent> indexedEvents = getIndexedEvents(matchingEvent, storeEvents);
+        if (indexedEvents == null) {
+            return null;
+        }
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (StreamEvent storeEvent : indexedEvents) {
+            matchingEvent.setEvent(storeEventPosition, storeEvent);
+            if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            }
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        Collection<StreamEvent> indexedEvents = getIndexedEvents(matchingEvent, storeEvents);
+        if (indexedEvents == null) {
+            return false;
+        }
+        try {
+            for (StreamEvent storeEvent : indexedEvents) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+    }
+
+    private Collection<StreamEvent> getIndexedEvents(StateEvent matchingEvent, Object storeEvents) {
+        Object key = matchingKeyExecutor.execute(matchingEvent);
+        if (key == null) {
+            return null;
+        }
+        // the index is looked up by the attribute position, as the partition instances of the query hold their own
+        // executors but may look up the same chunk of a named window
+        return ((IndexedEventChunk) storeEvents).getIndexedEvents(storeKeyExecutor.getPosition(), key);
+    }
+}
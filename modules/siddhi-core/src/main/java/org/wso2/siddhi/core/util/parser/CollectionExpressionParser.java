@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.util.collection.executor.AnyAndCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.CompareCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.CompareExhaustiveAndCollectionExecutor;
+import org.wso2.siddhi.core.util.collection.executor.CompositeIndexCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.ExhaustiveCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.NonAndCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.NonCollectionExecutor;
@@ -38,6 +39,7 @@ import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpres
 import org.wso2.siddhi.core.util.collection.expression.BasicCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CompareCollectionExpression;
+import org.wso2.siddhi.core.util.collection.expression.CompositeIndexCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.NotCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.NullCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.OrCollectionExpression;
@@ -59,6 +61,8 @@ import org.wso2.siddhi.query.api.expression.math.Mod;
 import org.wso2.siddhi.query.api.expression.math.Multiply;
 import org.wso2.siddhi.query.api.expression.math.Subtract;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -79,6 +83,12 @@ public class CollectionExpressionParser {
             matchingMetaInfoHolder, IndexedEventHolder indexedEventHolder) {
         if (expression instanceof And) {
 
+            CollectionExpression compositeIndexCollectionExpression = parseCompositeIndexExpression((And)
+                    expression, matchingMetaInfoHolder, indexedEventHolder);
+            if (compositeIndexCollectionExpression != null) {
+                return compositeIndexCollectionExpression;
+            }
+
             CollectionExpression leftCollectionExpression = parseCollectionExpression(((And) expression)
                     .getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
             CollectionExpression rightCollectionExpression = parseCollectionExpression(((And) expression)
@@ -144,8 +154,8 @@ public class CollectionExpressionParser {
             } else if (leftCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope
                     .INDEXED_ATTRIBUTE &&
                     rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.NON) {
-                if (indexedEventHolder.isAttributeIndexed(((AttributeCollectionExpression) leftCollectionExpression)
-                        .getAttribute())) {
+                if (indexedEventHolder.isSupportedIndex(((AttributeCollectionExpression) leftCollectionExpression)
+                        .getAttribute(), ((Compare) expression).getOperator())) {
                     //comparing indexed table attribute with stream attributes
                     return new CompareCollectionExpression((Compare) expression,
                             CollectionExpression.CollectionScope.INDEXED_RESULT_SET, leftCollectionExpression,
@@ -177,8 +187,8 @@ public class CollectionExpressionParser {
                     case NOT_EQUAL:
                         break;
                 }
-                if (indexedEventHolder.isAttributeIndexed(((AttributeCollectionExpression) rightCollectionExpression)
-                        .getAttribute())) {
+                if (indexedEventHolder.isSupportedIndex(((AttributeCollectionExpression) rightCollectionExpression)
+                        .getAttribute(), operator)) {
                     //comparing indexed table attribute with stream attributes
                     return new CompareCollectionExpression((Compare) expression,
                             CollectionExpression.CollectionScope.INDEXED_RESULT_SET, rightCollectionExpression,
@@ -295,6 +305,94 @@ public class CollectionExpressionParser {
         throw new UnsupportedOperationException(expression.toString() + " not supported!");
     }
 
+    /**
+     * Pick the composite index covering the most attributes that are all compared for equality with non table
+     * values in the given AND condition, so that the matching events can be found with a single lookup instead of
+     * intersecting the results of single attribute indexes.
+     *
+     * @param expression             AND condition
+     * @param matchingMetaInfoHolder matchingMetaInfoHolder
+     * @param indexedEventHolder     indexed event holder
+     * @return CollectionExpression using the composite index, null if no composite index is applicable
+     */
+    private static CollectionExpression parseCompositeIndexExpression(And expression, MatchingMetaInfoHolder
+            matchingMetaInfoHolder, IndexedEventHolder indexedEventHolder) {
+        if (indexedEventHolder.getCompositeIndexes().isEmpty()) {
+            return null;
+        }
+        List<Expression> conditions = new ArrayList<Expression>();
+        collectAndConditions(expression, conditions);
+
+        Map<String, Expression> equalConditions = new HashMap<String, Expression>();
+        Map<String, Expression> equalValueExpressions = new HashMap<String, Expression>();
+        for (Expression condition : conditions) {
+            if (condition instanceof Compare && ((Compare) condition).getOperator() == Compare.Operator.EQUAL) {
+                Expression leftExpression = ((Compare) condition).getLeftExpression();
+                Expression rightExpression = ((Compare) condition).getRightExpression();
+                if (leftExpression instanceof Variable &&
+                        isCollectionVariable(matchingMetaInfoHolder, (Variable) leftExpression) &&
+                        parseCollectionExpression(rightExpression, matchingMetaInfoHolder, indexedEventHolder)
+                                .getCollectionScope() == CollectionExpression.CollectionScope.NON) {
+                    String attribute = ((Variable) leftExpression).getAttributeName();
+                    if (!equalConditions.containsKey(attribute)) {
+                        equalConditions.put(attribute, condition);
+                        equalValueExpressions.put(attribute, rightExpression);
+                    }
+                } else if (rightExpression instanceof Variable &&
+                        isCollectionVariable(matchingMetaInfoHolder, (Variable) rightExpression) &&
+                        parseCollectionExpression(leftExpression, matchingMetaInfoHolder, indexedEventHolder)
+                                .getCollectionScope() == CollectionExpression.CollectionScope.NON) {
+                    String attribute = ((Variable) rightExpression).getAttributeName();
+                    if (!equalConditions.containsKey(attribute)) {
+                        equalConditions.put(attribute, condition);
+                        equalValueExpressions.put(attribute, leftExpression);
+                    }
+                }
+            }
+        }
+        String primaryKeyAttribute = indexedEventHolder.getPrimaryKeyAttribute();
+        if (primaryKeyAttribute != null && equalConditions.containsKey(primaryKeyAttribute)) {
+            //primary key lookup returns at most one event, hence it is preferred over composite indexes
+            return null;
+        }
+        List<String> selectedCompositeIndex = null;
+        for (List<String> compositeIndex : indexedEventHolder.getCompositeIndexes()) {
+            if ((selectedCompositeIndex == null || compositeIndex.size() > selectedCompositeIndex.size()) &&
+                    equalConditions.keySet().containsAll(compositeIndex)) {
+                selectedCompositeIndex = compositeIndex;
+            }
+        }
+        if (selectedCompositeIndex == null) {
+            return null;
+        }
+
+        List<Expression> valueExpressions = new ArrayList<Expression>(selectedCompositeIndex.size());
+        for (String attribute : selectedCompositeIndex) {
+            valueExpressions.add(equalValueExpressions.get(attribute));
+            conditions.remove(equalConditions.get(attribute));
+        }
+        CollectionExpression compositeIndexCollectionExpression = new CompositeIndexCollectionExpression(expression,
+                CollectionExpression.CollectionScope.INDEXED_RESULT_SET, selectedCompositeIndex, valueExpressions);
+        if (conditions.isEmpty()) {
+            return compositeIndexCollectionExpression;
+        }
+        Expression remainingCondition = conditions.get(0);
+        for (int i = 1; i < conditions.size(); i++) {
+            remainingCondition = Expression.and(remainingCondition, conditions.get(i));
+        }
+        return new AndCollectionExpression(expression, CollectionExpression.CollectionScope.OPTIMISED_RESULT_SET,
+                compositeIndexCollectionExpression, parseCollectionExpression(remainingCondition,
+                matchingMetaInfoHolder, indexedEventHolder));
+    }
+
+    private static void collectAndConditions(Expression expression, List<Expression> conditions) {
+        if (expression instanceof And) {
+            collectAndConditions(((And) expression).getLeftExpression(), conditions);
+            collectAndConditions(((And) expression).getRightExpression(), conditions);
+        } else {
+            conditions.add(expression);
+        }
+    }
 
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
@@ -343,7 +441,25 @@ public class CollectionExpressionParser {
             }
             return new CompareCollectionExecutor(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex(),
                     attributeCollectionExpression.getAttribute(), ((CompareCollectionExpression)
-                    collectionExpression).getOperator(), valueExpressionExecutor);
+                    collectionExpression).getOperator(), valueExpressionExecutor,
+                    matchingMetaInfoHolder.getStoreDefinition().getAttributeType(
+                            attributeCollectionExpression.getAttribute()));
+        } else if (collectionExpression instanceof CompositeIndexCollectionExpression) {
+            List<String> compositeIndex = ((CompositeIndexCollectionExpression) collectionExpression)
+                    .getCompositeIndex();
+            List<Expression> valueExpressions = ((CompositeIndexCollectionExpression) collectionExpression)
+                    .getValueExpressions();
+            ExpressionExecutor[] valueExpressionExecutors = new ExpressionExecutor[valueExpressions.size()];
+            Attribute.Type[] indexAttributeTypes = new Attribute.Type[valueExpressions.size()];
+            for (int i = 0; i < valueExpressions.size(); i++) {
+                valueExpressionExecutors[i] = ExpressionParser.parseExpression(valueExpressions.get(i),
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                indexAttributeTypes[i] = matchingMetaInfoHolder.getStoreDefinition().getAttributeType(
+                        compositeIndex.get(i));
+            }
+            return new CompositeIndexCollectionExecutor(compositeIndex, valueExpressionExecutors,
+                    indexAttributeTypes);
         } else if (collectionExpression instanceof NullCollectionExpression) {
             ExpressionExecutor expressionExecutor = null;
             if (isFirst) {
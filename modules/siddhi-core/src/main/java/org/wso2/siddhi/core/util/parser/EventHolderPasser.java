@@ -34,8 +34,12 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class to parse {@link EventHolder}
@@ -44,12 +48,25 @@ public class EventHolderPasser {
     private static final Logger log = Logger.getLogger(EventHolderPasser.class);
 
     public static EventHolder parse(AbstractDefinition tableDefinition, StreamEventPool tableStreamEventPool) {
+        return parse(tableDefinition, tableStreamEventPool, false);
+    }
+
+    /**
+     * @param tableDefinition      definition of the table
+     * @param tableStreamEventPool pool of the events of the table
+     * @param concurrentReads      whether the indexed events should be readable while they are being modified
+     * @return event holder of the table
+     */
+    public static EventHolder parse(AbstractDefinition tableDefinition, StreamEventPool tableStreamEventPool,
+                                    boolean concurrentReads) {
         ZeroStreamEventConverter eventConverter = new ZeroStreamEventConverter();
 
         String primaryKeyAttribute = null;
         int primaryKeyPosition = -1;
 
         Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        Set<String> hashIndexAttributes = new HashSet<String>();
+        Map<List<String>, int[]> compositeIndexMetaData = new HashMap<List<String>, int[]>();
 
         // primaryKey.
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
@@ -81,12 +98,42 @@ public class EventHolderPasser {
                                                                    + indexAnnotation.getElements().size() + " element");
             }
             for (Element element : indexAnnotation.getElements()) {
-                Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
-                        .getAttributePosition(element.getValue().trim()));
-                if (previousValue != null) {
-                    throw new SiddhiAppCreationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
-                                                                     "annotations defined with same attribute '" + element.getValue().trim() + "', at '" +
+                if (element.getKey() != null && !element.getKey().equalsIgnoreCase(SiddhiConstants
+                        .ANNOTATION_ELEMENT_HASH)) {
+                    throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation " +
+                                                                   "contains unknown element '" + element.getKey() +
+                                                                   "', only '" + SiddhiConstants
+                            .ANNOTATION_ELEMENT_HASH + "' is supported, at '" + tableDefinition.getId() + "'");
+                }
+                String[] indexAttributes = element.getValue().split(",");
+                if (indexAttributes.length > 1) {
+                    // composite indexes are always hashed as they only serve equality lookups
+                    List<String> compositeIndex = new ArrayList<String>(indexAttributes.length);
+                    int[] compositeIndexPositions = new int[indexAttributes.length];
+                    for (int i = 0; i < indexAttributes.length; i++) {
+                        compositeIndex.add(indexAttributes[i].trim());
+                        compositeIndexPositions[i] = tableDefinition.getAttributePosition(indexAttributes[i].trim());
+                    }
+                    int[] previousValue = compositeIndexMetaData.put(compositeIndex, compositeIndexPositions);
+                    if (previousValue != null) {
+                        throw new SiddhiAppCreationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
+                                                                     "annotations defined with same attributes '" +
+                                                                     compositeIndex + "', at '" +
+                                                                     tableDefinition.getId() + "'");
+                    }
+                } else {
+                    String indexAttribute = element.getValue().trim();
+                    Integer previousValue = indexMetaData.put(indexAttribute, tableDefinition
+                            .getAttributePosition(indexAttribute));
+                    if (previousValue != null) {
+                        throw new SiddhiAppCreationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
+                                                                     "annotations defined with same attribute '" +
+                                                                     indexAttribute + "', at '" +
                                                                      tableDefinition.getId() + "'");
+                    }
+                    if (element.getKey() != null) {
+                        hashIndexAttributes.add(indexAttribute);
+                    }
                 }
             }
         }
@@ -100,7 +147,7 @@ public class EventHolderPasser {
                                                              " at '" + tableDefinition.getId() + "'");
         }
 
-        if (primaryKeyAttribute != null || indexMetaData.size() > 0) {
+        if (primaryKeyAttribute != null || indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
             boolean isNumeric = false;
             if (primaryKeyAttribute != null) {
                 Attribute.Type type = tableDefinition.getAttributeType(primaryKeyAttribute);
@@ -110,7 +157,8 @@ public class EventHolderPasser {
                 }
             }
             return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyPosition, primaryKeyAttribute,
-                                        isNumeric, indexMetaData);
+                                        isNumeric, indexMetaData, hashIndexAttributes, compositeIndexMetaData,
+                                        concurrentReads);
         } else {
             return new ListEventHolder(tableStreamEventPool, eventConverter);
         }
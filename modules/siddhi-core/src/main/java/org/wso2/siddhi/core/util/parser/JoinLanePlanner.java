@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.parser;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.SiddhiApp;
+import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.annotation.Element;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
+import org.wso2.siddhi.query.api.execution.partition.Partition;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Window;
+import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.selection.OutputAttribute;
+import org.wso2.siddhi.query.api.execution.query.selection.Selector;
+import org.wso2.siddhi.query.api.expression.AttributeFunction;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.condition.In;
+import org.wso2.siddhi.query.api.expression.condition.IsNull;
+import org.wso2.siddhi.query.api.expression.condition.Not;
+import org.wso2.siddhi.query.api.expression.condition.Or;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
+import org.wso2.siddhi.query.api.expression.constant.IntConstant;
+import org.wso2.siddhi.query.api.expression.constant.LongConstant;
+import org.wso2.siddhi.query.api.expression.math.Add;
+import org.wso2.siddhi.query.api.expression.math.Divide;
+import org.wso2.siddhi.query.api.expression.math.Mod;
+import org.wso2.siddhi.query.api.expression.math.Multiply;
+import org.wso2.siddhi.query.api.expression.math.Subtract;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plans the parallel execution of join queries annotated with {@literal @}async(workers='..', buffer.size='..').
+ * Such a join is rewritten into a partition by the attributes of its equality condition, e.g.
+ * 'from A#window.time(1 min) join B#window.time(1 min) on A.id == B.id' is partitioned with (id of A, id of B), such
+ * that the join state of each key is kept by its own partition instance with its own lock, and the instances are
+ * processed by the worker lanes of the partition. The events of a key are always processed by the same lane, in the
+ * order they arrived.
+ * <p>
+ * Only the joins producing the same results per key as a whole are rewritten, i.e. inner joins between two streams
+ * having no windows other than time windows, without output rate limiting, and aggregating only when grouped by the
+ * key. Outer joins are not rewritten, as the events with null keys, which are dropped by the partition, still produce
+ * outer join results. The query stays registered under its name such that query callbacks can be added to it.
+ * <p>
+ * A {@literal @}purge annotation of the query is applied to the partition. Without it, the instances idle for twice
+ * the longest window time, and at least a minute, are purged, as their windows are empty by then. Hence the join is
+ * not rewritten without {@literal @}purge when the state of an instance might not become empty, i.e. when a window
+ * length is not a constant, or when it aggregates while one of the streams has no window.
+ */
+public class JoinLanePlanner {
+
+    private static final Logger log = Logger.getLogger(JoinLanePlanner.class);
+    private static final long MIN_PURGE_IDLE_PERIOD = 60000;
+    private final SiddhiApp siddhiApp;
+    private final List<ExecutionElement> executionElementList;
+    private final Set<Partition> lanePartitions = Collections.newSetFromMap(new IdentityHashMap<Partition, Boolean>());
+
+    /**
+     * @param siddhiApp            app of the queries
+     * @param executionElementList execution elements of the app to be planned
+     */
+    public JoinLanePlanner(SiddhiApp siddhiApp, List<ExecutionElement> executionElementList) {
+        this.siddhiApp = siddhiApp;
+        this.executionElementList = new ArrayList<ExecutionElement>(executionElementList);
+        plan();
+    }
+
+    /**
+     * @return execution elements with the parallel joins rewritten into partitions
+     */
+    public List<ExecutionElement> getExecutionElementList() {
+        return executionElementList;
+    }
+
+    /**
+     * @param executionElement execution element returned by {@link #getExecutionElementList()}
+     * @return true if the element is a partition rewritten from a join query
+     */
+    public boolean isLanePartition(ExecutionElement executionElement) {
+        return lanePartitions.contains(executionElement);
+    }
+
+    private void plan() {
+        for (int i = 0; i < executionElementList.size(); i++) {
+            if (!(executionElementList.get(i) instanceof Query)) {
+                continue;
+            }
+            Query query = (Query) executionElementList.get(i);
+            Annotation async = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
+                    query.getAnnotations());
+            if (async == null || !(query.getInputStream() instanceof JoinInputStream)) {
+                continue;
+            }
+            Partition partition = toPartition(query);
+            if (partition == null) {
+                Element nameElement = AnnotationHelper.getAnnotationElement("info", "name",
+                        query.getAnnotations());
+                log.warn("Join query '" + (nameElement != null ? nameElement.getValue() : query.toString()) +
+                        "' cannot be processed in parallel lanes, hence '@" + SiddhiConstants.ANNOTATION_ASYNC +
+                        "' is ignored");
+                continue;
+            }
+            executionElementList.set(i, partition);
+            lanePartitions.add(partition);
+        }
+    }
+
+    private Partition toPartition(Query query) {
+        JoinInputStream joinInputStream = (JoinInputStream) query.getInputStream();
+        if (!(joinInputStream.getLeftInputStream() instanceof SingleInputStream) ||
+                !(joinInputStream.getRightInputStream() instanceof SingleInputStream) ||
+                query.getOutputRate() != null || joinInputStream.getOnCompare() == null ||
+                (joinInputStream.getType() != JoinInputStream.Type.JOIN &&
+                        joinInputStream.getType() != JoinInputStream.Type.INNER_JOIN)) {
+            return null;
+        }
+        SingleInputStream left = (SingleInputStream) joinInputStream.getLeftInputStream();
+        SingleInputStream right = (SingleInputStream) joinInputStream.getRightInputStream();
+        if (!isPartitionable(left) || !isPartitionable(right) || left.getStreamId().equals(right.getStreamId())) {
+            return null;
+        }
+        Compare keyCondition = findKeyCondition(joinInputStream.getOnCompare(), left, right);
+        if (keyCondition == null) {
+            return null;
+        }
+        Variable leftKey;
+        Variable rightKey;
+        if (refersTo(keyCondition.getLeftExpression(), left)) {
+            leftKey = (Variable) keyCondition.getLeftExpression();
+            rightKey = (Variable) keyCondition.getRightExpression();
+        } else {
+            leftKey = (Variable) keyCondition.getRightExpression();
+            rightKey = (Variable) keyCondition.getLeftExpression();
+        }
+        boolean aggregating = isAggregating(query.getSelector());
+        if (aggregating && !isGroupedByKey(query.getSelector(), leftKey, rightKey)) {
+            return null;
+        }
+        Annotation purge = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PURGE, query.getAnnotations());
+        if (purge == null) {
+            purge = getDefaultPurge(left, right, aggregating);
+            if (purge == null) {
+                return null;
+            }
+        }
+
+        Query partitionedQuery = Query.query()
+                .from(joinInputStream)
+                .select(query.getSelector())
+                .outStream(query.getOutputStream());
+        Partition partition = Partition.partition()
+                .with(left.getStreamId(), Expression.variable(leftKey.getAttributeName()))
+                .with(right.getStreamId(), Expression.variable(rightKey.getAttributeName()));
+        partition.annotation(purge);
+        for (Annotation annotation : query.getAnnotations()) {
+            if (SiddhiConstants.ANNOTATION_ASYNC.equalsIgnoreCase(annotation.getName())) {
+                partition.annotation(annotation);
+            } else if (!SiddhiConstants.ANNOTATION_PURGE.equalsIgnoreCase(annotation.getName())) {
+                partitionedQuery.annotation(annotation);
+            }
+        }
+        return partition.addQuery(partitionedQuery);
+    }
+
+    /**
+     * As each join key gets its own partition instance, the instances have to be purged once their state is empty,
+     * which is once the events of the key are expired from the windows.
+     *
+     * @return purge annotation removing the instances idle for twice the longest window time, null if the state of
+     * an instance might not become empty
+     */
+    private Annotation getDefaultPurge(SingleInputStream left, SingleInputStream right, boolean aggregating) {
+        long leftWindowTime = getWindowTime(left);
+        long rightWindowTime = getWindowTime(right);
+        if (leftWindowTime < 0 || rightWindowTime < 0) {
+            return null;
+        }
+        if (aggregating && (leftWindowTime == 0 || rightWindowTime == 0)) {
+            // the join results are not expired, hence the aggregations accumulate
+            return null;
+        }
+        long idlePeriod = Math.max(2 * Math.max(leftWindowTime, rightWindowTime), MIN_PURGE_IDLE_PERIOD);
+        return Annotation.annotation(SiddhiConstants.ANNOTATION_PURGE)
+                .element(SiddhiConstants.ANNOTATION_ELEMENT_ENABLE, SiddhiConstants.TRUE)
+                .element(SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL, (idlePeriod / 2) + " millisec")
+                .element(SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD, idlePeriod + " millisec");
+    }
+
+    /**
+     * @return the longest time window length of the stream, 0 if it has no windows, -1 if a length is not a
+     * constant
+     */
+    private long getWindowTime(SingleInputStream singleInputStream) {
+        long windowTime = 0;
+        for (StreamHandler streamHandler : singleInputStream.getStreamHandlers()) {
+            if (streamHandler instanceof Window) {
+                Expression[] parameters = ((Window) streamHandler).getParameters();
+                if (parameters == null || parameters.length != 1) {
+                    return -1;
+                } else if (parameters[0] instanceof LongConstant) {
+                    windowTime = Math.max(windowTime, ((LongConstant) parameters[0]).getValue());
+                } else if (parameters[0] instanceof IntConstant) {
+                    windowTime = Math.max(windowTime, ((IntConstant) parameters[0]).getValue());
+                } else {
+                    return -1;
+                }
+            }
+        }
+        return windowTime;
+    }
+
+    /**
+     * The state of the stream is equally partitionable when it is a defined stream whose events are held only by
+     * time windows.
+     */
+    private boolean isPartitionable(SingleInputStream singleInputStream) {
+        if (singleInputStream.isInnerStream() ||
+                !siddhiApp.getStreamDefinitionMap().containsKey(singleInputStream.getStreamId())) {
+            return false;
+        }
+        for (StreamHandler streamHandler : singleInputStream.getStreamHandlers()) {
+            if (streamHandler instanceof Window) {
+                Window window = (Window) streamHandler;
+                if (window.getNamespace() != null && !window.getNamespace().isEmpty() ||
+                        !"time".equals(window.getName())) {
+                    return false;
+                }
+            } else if (!(streamHandler instanceof Filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find an equality condition, that must hold for the join condition to be true, between attributes of the same
+     * type of the two streams.
+     */
+    private Compare findKeyCondition(Expression expression, SingleInputStream left, SingleInputStream right) {
+        if (expression instanceof And) {
+            Compare keyCondition = findKeyCondition(((And) expression).getLeftExpression(), left, right);
+            if (keyCondition != null) {
+                return keyCondition;
+            }
+            return findKeyCondition(((And) expression).getRightExpression(), left, right);
+        } else if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression leftExpression = ((Compare) expression).getLeftExpression();
+            Expression rightExpression = ((Compare) expression).getRightExpression();
+            if ((refersTo(leftExpression, left) && refersTo(rightExpression, right) &&
+                    isKeyType(leftExpression, left, rightExpression, right)) ||
+                    (refersTo(leftExpression, right) && refersTo(rightExpression, left) &&
+                            isKeyType(rightExpression, left, leftExpression, right))) {
+                return (Compare) expression;
+            }
+        }
+        return null;
+    }
+
+    private boolean refersTo(Expression expression, SingleInputStream singleInputStream) {
+        if (!(expression instanceof Variable) || ((Variable) expression).getStreamId() == null ||
+                ((Variable) expression).getStreamIndex() != null) {
+            return false;
+        }
+        String streamId = ((Variable) expression).getStreamId();
+        return streamId.equals(singleInputStream.getStreamReferenceId()) ||
+                streamId.equals(singleInputStream.getStreamId());
+    }
+
+    /**
+     * Partition keys are compared by their string values, hence the attributes should be of the same type whose
+     * string values are equal only when the values are.
+     */
+    private boolean isKeyType(Expression leftKey, SingleInputStream left, Expression rightKey,
+                              SingleInputStream right) {
+        Attribute.Type type = getAttributeType((Variable) leftKey, left);
+        if (type == null || type != getAttributeType((Variable) rightKey, right)) {
+            return false;
+        }
+        switch (type) {
+            case STRING:
+            case INT:
+            case LONG:
+            case BOOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Attribute.Type getAttributeType(Variable variable, SingleInputStream singleInputStream) {
+        StreamDefinition streamDefinition = siddhiApp.getStreamDefinitionMap().get(singleInputStream.getStreamId());
+        for (Attribute attribute : streamDefinition.getAttributeList()) {
+            if (attribute.getName().equals(variable.getAttributeName())) {
+                return attribute.getType();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the selection might aggregate
+     */
+    private boolean isAggregating(Selector selector) {
+        boolean aggregating = false;
+        for (OutputAttribute outputAttribute : selector.getSelectionList()) {
+            aggregating |= !isPlain(outputAttribute.getExpression());
+        }
+        if (selector.getHavingExpression() != null) {
+            aggregating |= !isPlain(selector.getHavingExpression());
+        }
+        return aggregating;
+    }
+
+    /**
+     * Aggregations are kept per partition instance, hence are allowed only when grouped by the key.
+     */
+    private boolean isGroupedByKey(Selector selector, Variable leftKey, Variable rightKey) {
+        for (Variable variable : selector.getGroupByList()) {
+            if (variable.equals(leftKey) || variable.equals(rightKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the expression has no function calls, which might be aggregations
+     */
+    private boolean isPlain(Expression expression) {
+        if (expression instanceof Constant || expression instanceof Variable) {
+            return true;
+        } else if (expression instanceof AttributeFunction) {
+            return false;
+        } else if (expression instanceof IsNull) {
+            return ((IsNull) expression).getExpression() == null || isPlain(((IsNull) expression).getExpression());
+        } else if (expression instanceof Not) {
+            return isPlain(((Not) expression).getExpression());
+        } else if (expression instanceof In) {
+            return isPlain(((In) expression).getExpression());
+        } else if (expression instanceof And) {
+            return isPlain(((And) expression).getLeftExpression()) && isPlain(((And) expression).getRightExpression());
+        } else if (expression instanceof Or) {
+            return isPlain(((Or) expression).getLeftExpression()) && isPlain(((Or) expression).getRightExpression());
+        } else if (expression instanceof Compare) {
+            return isPlain(((Compare) expression).getLeftExpression()) &&
+                    isPlain(((Compare) expression).getRightExpression());
+        } else if (expression instanceof Add) {
+            return isPlain(((Add) expression).getLeftValue()) && isPlain(((Add) expression).getRightValue());
+        } else if (expression instanceof Subtract) {
+            return isPlain(((Subtract) expression).getLeftValue()) &&
+                    isPlain(((Subtract) expression).getRightValue());
+        } else if (expression instanceof Multiply) {
+            return isPlain(((Multiply) expression).getLeftValue()) &&
+                    isPlain(((Multiply) expression).getRightValue());
+        } else if (expression instanceof Divide) {
+            return isPlain(((Divide) expression).getLeftValue()) && isPlain(((Divide) expression).getRightValue());
+        } else if (expression instanceof Mod) {
+            return isPlain(((Mod) expression).getLeftValue()) && isPlain(((Mod) expression).getRightValue());
+        }
+        return false;
+    }
+}
@@ -26,6 +26,7 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.util.collection.IndexedEventChunk;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CollectionExpression;
@@ -33,12 +34,14 @@ import org.wso2.siddhi.core.util.collection.expression.CompareCollectionExpressi
 import org.wso2.siddhi.core.util.collection.operator.CollectionOperator;
 import org.wso2.siddhi.core.util.collection.operator.EventChunkOperator;
 import org.wso2.siddhi.core.util.collection.operator.IndexOperator;
+import org.wso2.siddhi.core.util.collection.operator.IndexedEventChunkOperator;
 import org.wso2.siddhi.core.util.collection.operator.MapOperator;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Arrays;
@@ -77,6 +80,28 @@ public class OperatorParser {
                 return new IndexOperator(collectionExecutor, queryName);
 
             }
+        } else if (storeEvents instanceof IndexedEventChunk) {
+            ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                    variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            Compare keyCondition = findKeyCondition(expression, matchingMetaInfoHolder);
+            if (keyCondition != null) {
+                boolean storeOnLeft = isStoreVariable(matchingMetaInfoHolder, keyCondition.getLeftExpression());
+                ExpressionExecutor storeKeyExecutor = ExpressionParser.parseExpression(storeOnLeft ?
+                                keyCondition.getLeftExpression() : keyCondition.getRightExpression(),
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                        variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                ExpressionExecutor matchingKeyExecutor = ExpressionParser.parseExpression(storeOnLeft ?
+                                keyCondition.getRightExpression() : keyCondition.getLeftExpression(),
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                        variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+                if (isIndexableKey(storeKeyExecutor, matchingKeyExecutor)) {
+                    return new IndexedEventChunkOperator(expressionExecutor,
+                            matchingMetaInfoHolder.getStoreEventIndex(), (VariableExpressionExecutor) storeKeyExecutor,
+                            matchingKeyExecutor);
+                }
+            }
+            return new EventChunkOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof ComplexEventChunk) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                                                                                      matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
@@ -94,6 +119,78 @@ public class OperatorParser {
         }
     }
 
+    /**
+     * Find an equality condition, that must hold for the whole expression to be true, between an attribute of the
+     * store events and an attribute of the matching events.
+     *
+     * @param expression             condition of the operator
+     * @param matchingMetaInfoHolder meta information of the matching and store events
+     * @return equality condition, or null if there is none
+     */
+    private static Compare findKeyCondition(Expression expression, MatchingMetaInfoHolder matchingMetaInfoHolder) {
+        if (expression instanceof And) {
+            Compare keyCondition = findKeyCondition(((And) expression).getLeftExpression(), matchingMetaInfoHolder);
+            if (keyCondition != null) {
+                return keyCondition;
+            }
+            return findKeyCondition(((And) expression).getRightExpression(), matchingMetaInfoHolder);
+        } else if (expression instanceof Compare && ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Expression left = ((Compare) expression).getLeftExpression();
+            Expression right = ((Compare) expression).getRightExpression();
+            if ((isStoreVariable(matchingMetaInfoHolder, left) && isMatchingVariable(matchingMetaInfoHolder, right))
+                    || (isStoreVariable(matchingMetaInfoHolder, right) &&
+                    isMatchingVariable(matchingMetaInfoHolder, left))) {
+                return (Compare) expression;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStoreVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        return refersTo(matchingMetaInfoHolder.getStoreEventIndex(), matchingMetaInfoHolder, expression) &&
+                !refersTo(matchingMetaInfoHolder.getMatchingStreamEventIndex(), matchingMetaInfoHolder, expression);
+    }
+
+    private static boolean isMatchingVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression) {
+        return refersTo(matchingMetaInfoHolder.getMatchingStreamEventIndex(), matchingMetaInfoHolder, expression) &&
+                !refersTo(matchingMetaInfoHolder.getStoreEventIndex(), matchingMetaInfoHolder, expression);
+    }
+
+    private static boolean refersTo(int streamEventIndex, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                    Expression expression) {
+        if (!(expression instanceof Variable) || ((Variable) expression).getStreamId() == null ||
+                streamEventIndex < 0 ||
+                streamEventIndex >= matchingMetaInfoHolder.getMetaStateEvent().getStreamEventCount()) {
+            return false;
+        }
+        String streamId = ((Variable) expression).getStreamId();
+        MetaStreamEvent metaStreamEvent = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvent
+                (streamEventIndex);
+        return metaStreamEvent != null && (streamId.equals(metaStreamEvent.getInputReferenceId()) ||
+                streamId.equals(metaStreamEvent.getLastInputDefinition().getId()));
+    }
+
+    /**
+     * Equality of the values of the keys should imply the equality condition to be true, which is the case when the
+     * keys are of the same type, and are not of floating point types.
+     */
+    private static boolean isIndexableKey(ExpressionExecutor storeKeyExecutor,
+                                          ExpressionExecutor matchingKeyExecutor) {
+        if (!(storeKeyExecutor instanceof VariableExpressionExecutor) ||
+                storeKeyExecutor.getReturnType() != matchingKeyExecutor.getReturnType()) {
+            return false;
+        }
+        switch (storeKeyExecutor.getReturnType()) {
+            case STRING:
+            case INT:
+            case LONG:
+            case BOOL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression,
                                                 String indexAttribute) {
         if (expression instanceof Variable) {
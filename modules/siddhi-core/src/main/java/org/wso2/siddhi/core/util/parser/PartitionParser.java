@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
@@ -72,6 +73,19 @@ public class PartitionParser {
             partitionRuntime.init();
 
         }
+        if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
+            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_PARTITIONS +
+                    SiddhiConstants.METRIC_DELIMITER + partitionRuntime.getPartitionId();
+            siddhiAppContext.getSiddhiContext()
+                    .getStatisticsConfiguration()
+                    .getFactory()
+                    .createPartitionInstanceTracker(siddhiAppContext.getStatisticsManager())
+                    .registerPartition(partitionRuntime, metricName);
+        }
         return partitionRuntime;
 
     }
@@ -39,6 +39,7 @@ import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockSynchronizer;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.window.Window;
 import org.wso2.siddhi.query.api.annotation.Element;
@@ -90,6 +91,8 @@ public class QueryParser {
         QueryRuntime queryRuntime;
         Element nameElement = null;
         LatencyTracker latencyTracker = null;
+        EventPoolTracker eventPoolTracker = null;
+        String metricName = null;
         LockWrapper lockWrapper = null;
         try {
             nameElement = AnnotationHelper.getAnnotationElement("info", "name",
@@ -102,7 +105,7 @@ public class QueryParser {
             }
             if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
                 if (nameElement != null) {
-                    String metricName =
+                    metricName =
                             siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
                                     SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
                                     SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
@@ -113,6 +116,10 @@ public class QueryParser {
                             .getStatisticsConfiguration()
                             .getFactory()
                             .createLatencyTracker(metricName, siddhiAppContext.getStatisticsManager());
+                    eventPoolTracker = siddhiAppContext.getSiddhiContext()
+                            .getStatisticsConfiguration()
+                            .getFactory()
+                            .createEventPoolTracker(siddhiAppContext.getStatisticsManager());
                 }
             }
             OutputStream.OutputEventType outputEventType = query.getOutputStream().getOutputEventType();
@@ -208,7 +215,7 @@ public class QueryParser {
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    queryName);
+                    queryName, eventPoolTracker, metricName);
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime
                     .getMetaComplexEvent()));
             queryRuntime = new QueryRuntime(query, siddhiAppContext, streamRuntime, selector, outputRateLimiter,
@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.parser;
+
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.SiddhiApp;
+import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.annotation.Element;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.state.EveryStateElement;
+import org.wso2.siddhi.query.api.execution.query.input.state.NextStateElement;
+import org.wso2.siddhi.query.api.execution.query.input.state.StateElement;
+import org.wso2.siddhi.query.api.execution.query.input.state.StreamStateElement;
+import org.wso2.siddhi.query.api.execution.query.input.stream.BasicSingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
+import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
+import org.wso2.siddhi.query.api.execution.query.output.stream.ReturnStream;
+import org.wso2.siddhi.query.api.execution.query.selection.OutputAttribute;
+import org.wso2.siddhi.query.api.execution.query.selection.Selector;
+import org.wso2.siddhi.query.api.expression.AttributeFunction;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+import org.wso2.siddhi.query.api.expression.condition.In;
+import org.wso2.siddhi.query.api.expression.condition.IsNull;
+import org.wso2.siddhi.query.api.expression.condition.Not;
+import org.wso2.siddhi.query.api.expression.condition.Or;
+import org.wso2.siddhi.query.api.expression.constant.Constant;
+import org.wso2.siddhi.query.api.expression.math.Add;
+import org.wso2.siddhi.query.api.expression.math.Divide;
+import org.wso2.siddhi.query.api.expression.math.Mod;
+import org.wso2.siddhi.query.api.expression.math.Multiply;
+import org.wso2.siddhi.query.api.expression.math.Subtract;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans the sharing of the state machine between pattern and sequence queries of a {@link SiddhiApp} having the same
+ * input, e.g. several rules over 'every e1=Login -> e2=Transfer[e1.user == user]' differing only in their
+ * selection, having conditions or outputs. The matching is done once, by a query publishing the attributes referred
+ * by the rules into an internal stream, and each rule is rewritten to read its attributes from that stream.
+ * <p>
+ * Patterns that are plain chains of stream states, e.g. 'every e1=Login -> e2=Transfer[...] -> e3=Logout[...]', also
+ * share their longest common prefix: the prefix is matched once, and the rules continuing it are rewritten to
+ * continue from the internal stream, e.g. 'every SharedPattern-0 -> e3=Logout[...]'. Chains with within conditions,
+ * or continuing with the streams of the prefix, are only shared as a whole.
+ * <p>
+ * The given execution elements are not modified. Sharing adds elements to the app and thereby shifts the element
+ * ids its snapshots are keyed by, hence it is only enabled with '@app:sharePatterns('true')'.
+ */
+public class SharedPatternPlanner {
+
+    private static final String SHARED_PATTERN_PREFIX = "SharedPattern-";
+    private static final String SHARED_ATTRIBUTE_PREFIX = "attribute";
+    private final SiddhiApp siddhiApp;
+    private final List<ExecutionElement> executionElementList;
+
+    /**
+     * @param siddhiApp            app of the queries
+     * @param executionElementList execution elements of the app to be planned
+     */
+    public SharedPatternPlanner(SiddhiApp siddhiApp, List<ExecutionElement> executionElementList) {
+        this.siddhiApp = siddhiApp;
+        this.executionElementList = new ArrayList<ExecutionElement>(executionElementList);
+        Element element = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_SHARE_PATTERNS, null,
+                siddhiApp.getAnnotations());
+        if (element != null && "true".equalsIgnoreCase(element.getValue())) {
+            plan();
+        }
+    }
+
+    /**
+     * @return execution elements with the queries sharing their state machines rewritten and the queries matching
+     * the shared patterns added
+     */
+    public List<ExecutionElement> getExecutionElementList() {
+        return executionElementList;
+    }
+
+    private void plan() {
+        Set<String> usedIds = new HashSet<String>();
+        usedIds.addAll(siddhiApp.getStreamDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getTableDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getWindowDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getTriggerDefinitionMap().keySet());
+        Map<Query, List<StateInputStream>> shareableInputs = new LinkedHashMap<Query, List<StateInputStream>>();
+        Map<StateInputStream, Integer> inputCounts = new HashMap<StateInputStream, Integer>();
+        for (ExecutionElement executionElement : executionElementList) {
+            if (executionElement instanceof Query) {
+                Query query = (Query) executionElement;
+                Element nameElement = AnnotationHelper.getAnnotationElement("info", "name", query.getAnnotations());
+                if (nameElement != null) {
+                    usedIds.add(nameElement.getValue());
+                }
+                if (query.getOutputStream() != null && query.getOutputStream().getId() != null) {
+                    usedIds.add(query.getOutputStream().getId());
+                }
+                List<StateInputStream> inputs = getShareableInputs(query);
+                if (!inputs.isEmpty()) {
+                    shareableInputs.put(query, inputs);
+                    for (StateInputStream input : inputs) {
+                        Integer inputCount = inputCounts.get(input);
+                        inputCounts.put(input, inputCount == null ? 1 : inputCount + 1);
+                    }
+                }
+            }
+        }
+
+        // each query shares the longest of its inputs also shareable by another query
+        Map<StateInputStream, List<Query>> sharingQueries = new LinkedHashMap<StateInputStream, List<Query>>();
+        for (Map.Entry<Query, List<StateInputStream>> entry : shareableInputs.entrySet()) {
+            List<StateInputStream> inputs = entry.getValue();
+            for (int i = inputs.size() - 1; i >= 0; i--) {
+                if (inputCounts.get(inputs.get(i)) > 1) {
+                    List<Query> queries = sharingQueries.get(inputs.get(i));
+                    if (queries == null) {
+                        queries = new ArrayList<Query>();
+                        sharingQueries.put(inputs.get(i), queries);
+                    }
+                    queries.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+
+        int sharedPatternCount = 0;
+        for (Map.Entry<StateInputStream, List<Query>> entry : sharingQueries.entrySet()) {
+            List<Query> queries = entry.getValue();
+            if (queries.size() < 2) {
+                continue;
+            }
+            // attributes referred by the queries, named by their position in the shared stream
+            Map<Expression, String> sharedAttributes = new LinkedHashMap<Expression, String>();
+            List<Query> rewrittenQueries = new ArrayList<Query>(queries.size());
+            String streamId;
+            do {
+                streamId = SHARED_PATTERN_PREFIX + sharedPatternCount++;
+            } while (usedIds.contains(streamId));
+            for (Query query : queries) {
+                rewrittenQueries.add(rewrite(query, entry.getKey(), streamId, sharedAttributes));
+            }
+            if (sharedAttributes.isEmpty()) {
+                continue;
+            }
+
+            Selector selector = Selector.selector();
+            for (Map.Entry<Expression, String> sharedAttribute : sharedAttributes.entrySet()) {
+                selector.select(sharedAttribute.getValue(), sharedAttribute.getKey());
+            }
+            Query matchingQuery = Query.query()
+                    .annotation(Annotation.annotation("info").element("name", streamId))
+                    .from(entry.getKey())
+                    .select(selector)
+                    .insertInto(streamId);
+            executionElementList.add(executionElementList.indexOf(queries.get(0)), matchingQuery);
+            for (int i = 0; i < queries.size(); i++) {
+                executionElementList.set(executionElementList.indexOf(queries.get(i)), rewrittenQueries.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param query query of the app
+     * @return pattern inputs the query can share, from the shortest prefix to the whole input
+     */
+    private List<StateInputStream> getShareableInputs(Query query) {
+        List<StateInputStream> inputs = new ArrayList<StateInputStream>();
+        if (!(query.getInputStream() instanceof StateInputStream) || query.getSelector().getSelectionList()
+                .isEmpty()) {
+            // 'select *' of a pattern depends on the attributes of all the states
+            return inputs;
+        }
+        if (!(query.getOutputStream() instanceof InsertIntoStream || query.getOutputStream() instanceof ReturnStream)) {
+            // update and delete conditions are resolved against the input of the query
+            return inputs;
+        }
+        StateInputStream stateInputStream = (StateInputStream) query.getInputStream();
+        List<StateElement> chain = getChain(stateInputStream);
+        if (chain == null) {
+            if (rewrite(query.getSelector(), new AttributeRewriter(null, null)) != null) {
+                inputs.add(stateInputStream);
+            }
+            return inputs;
+        }
+        // a prefix of a single state is not worth matching separately
+        for (int i = 2; i < chain.size(); i++) {
+            AttributeRewriter rewriter = new AttributeRewriter(SHARED_PATTERN_PREFIX, getStateIds(chain.subList(0, i)));
+            if (rewrite(chain, i, rewriter) != null && rewrite(query.getSelector(), rewriter) != null) {
+                inputs.add(toStateInputStream(chain.subList(0, i)));
+            }
+        }
+        if (rewrite(query.getSelector(), new AttributeRewriter(null, null)) != null) {
+            inputs.add(toStateInputStream(chain));
+        }
+        return inputs;
+    }
+
+    private Query rewrite(Query query, StateInputStream sharedInput, String streamId,
+                          Map<Expression, String> sharedAttributes) {
+        List<StateElement> chain = getChain((StateInputStream) query.getInputStream());
+        List<StateElement> sharedChain = getChain(sharedInput);
+        Query rewrittenQuery;
+        if (chain == null || chain.size() == sharedChain.size()) {
+            AttributeRewriter rewriter = new AttributeRewriter(null, null, sharedAttributes);
+            rewrittenQuery = Query.query()
+                    .from(new SingleInputStream(null, streamId))
+                    .select(rewrite(query.getSelector(), rewriter));
+        } else {
+            AttributeRewriter rewriter = new AttributeRewriter(streamId, getStateIds(sharedChain), sharedAttributes);
+            rewrittenQuery = Query.query()
+                    .from(rewrite(chain, sharedChain.size(), rewriter))
+                    .select(rewrite(query.getSelector(), rewriter));
+        }
+        rewrittenQuery.outStream(query.getOutputStream());
+        rewrittenQuery.output(query.getOutputRate());
+        for (Annotation annotation : query.getAnnotations()) {
+            rewrittenQuery.annotation(annotation);
+        }
+        return rewrittenQuery;
+    }
+
+    /**
+     * Rewrite the selector of a query to refer the attributes of the shared stream.
+     *
+     * @param selector selector of the query
+     * @param rewriter rewriter of the attributes
+     * @return rewritten selector, or null if the selector is not supported
+     */
+    private Selector rewrite(Selector selector, AttributeRewriter rewriter) {
+        Selector rewrittenSelector = Selector.selector();
+        for (OutputAttribute outputAttribute : selector.getSelectionList()) {
+            Expression expression = rewriter.rewrite(outputAttribute.getExpression(), null, false);
+            if (expression == null) {
+                return null;
+            }
+            rewrittenSelector.select(outputAttribute.getRename(), expression);
+        }
+        for (Variable variable : selector.getGroupByList()) {
+            Expression expression = rewriter.rewrite(variable, null, false);
+            if (!(expression instanceof Variable)) {
+                return null;
+            }
+            rewrittenSelector.groupBy((Variable) expression);
+        }
+        if (selector.getHavingExpression() != null) {
+            Expression expression = rewriter.rewrite(selector.getHavingExpression(),
+                    getOutputAttributeNames(selector), false);
+            if (expression == null) {
+                return null;
+            }
+            rewrittenSelector.having(expression);
+        }
+        return rewrittenSelector;
+    }
+
+    /**
+     * Rewrite a chain of stream states to continue from the shared stream matching its prefix.
+     *
+     * @param chain        stream states of the pattern
+     * @param prefixLength number of states matched by the shared stream
+     * @param rewriter     rewriter of the attributes, referring the states of the prefix
+     * @return pattern continuing from the shared stream, or null if the rest of the chain is not supported
+     */
+    private StateInputStream rewrite(List<StateElement> chain, int prefixLength, AttributeRewriter rewriter) {
+        StateElement stateElement = new StreamStateElement(new BasicSingleInputStream(null,
+                rewriter.sharedStreamId));
+        if (chain.get(0) instanceof EveryStateElement) {
+            stateElement = new EveryStateElement(stateElement);
+        }
+        for (int i = prefixLength; i < chain.size(); i++) {
+            BasicSingleInputStream inputStream = ((StreamStateElement) chain.get(i)).getBasicSingleInputStream();
+            if (inputStream.isInnerStream() || rewriter.prefixStateIds.contains(inputStream.getStreamId()) ||
+                    rewriter.prefixStateIds.contains(inputStream.getStreamReferenceId())) {
+                // an event of the prefix streams could both complete the prefix and match the rest of the chain
+                return null;
+            }
+            BasicSingleInputStream rewrittenInputStream = new BasicSingleInputStream(
+                    inputStream.getStreamReferenceId(), inputStream.getStreamId());
+            for (StreamHandler streamHandler : inputStream.getStreamHandlers()) {
+                if (!(streamHandler instanceof Filter)) {
+                    return null;
+                }
+                Expression expression = rewriter.rewrite(streamHandler.getParameters()[0], null, true);
+                if (expression == null) {
+                    return null;
+                }
+                rewrittenInputStream.filter(expression);
+            }
+            stateElement = new NextStateElement(stateElement, new StreamStateElement(rewrittenInputStream));
+        }
+        return new StateInputStream(StateInputStream.Type.PATTERN, stateElement);
+    }
+
+    /**
+     * @param stateInputStream input of a pattern or sequence query
+     * @return stream states of the pattern in matching order, or null if it is not a chain of stream states with an
+     * optional leading every and no within conditions
+     */
+    private List<StateElement> getChain(StateInputStream stateInputStream) {
+        if (stateInputStream.getStateType() != StateInputStream.Type.PATTERN) {
+            return null;
+        }
+        List<StateElement> chain = new ArrayList<StateElement>();
+        return addToChain(stateInputStream.getStateElement(), chain) ? chain : null;
+    }
+
+    private boolean addToChain(StateElement stateElement, List<StateElement> chain) {
+        if (stateElement.getWithin() != null) {
+            return false;
+        } else if (stateElement instanceof NextStateElement) {
+            return addToChain(((NextStateElement) stateElement).getStateElement(), chain) &&
+                    addToChain(((NextStateElement) stateElement).getNextStateElement(), chain);
+        } else if (stateElement instanceof EveryStateElement) {
+            StateElement everyStateElement = ((EveryStateElement) stateElement).getStateElement();
+            if (!chain.isEmpty() || !(everyStateElement instanceof StreamStateElement) ||
+                    everyStateElement.getWithin() != null) {
+                return false;
+            }
+            chain.add(stateElement);
+            return true;
+        } else if (stateElement instanceof StreamStateElement) {
+            chain.add(stateElement);
+            return true;
+        }
+        return false;
+    }
+
+    private StateInputStream toStateInputStream(List<StateElement> chain) {
+        StateElement stateElement = chain.get(0);
+        for (int i = 1; i < chain.size(); i++) {
+            stateElement = new NextStateElement(stateElement, chain.get(i));
+        }
+        return new StateInputStream(StateInputStream.Type.PATTERN, stateElement);
+    }
+
+    private Set<String> getStateIds(List<StateElement> chain) {
+        Set<String> stateIds = new HashSet<String>();
+        for (StateElement stateElement : chain) {
+            if (stateElement instanceof EveryStateElement) {
+                stateElement = ((EveryStateElement) stateElement).getStateElement();
+            }
+            BasicSingleInputStream inputStream = ((StreamStateElement) stateElement).getBasicSingleInputStream();
+            stateIds.add(inputStream.getStreamId());
+            if (inputStream.getStreamReferenceId() != null) {
+                stateIds.add(inputStream.getStreamReferenceId());
+            }
+        }
+        return stateIds;
+    }
+
+    private Set<String> getOutputAttributeNames(Selector selector) {
+        Set<String> outputAttributeNames = new HashSet<String>();
+        for (OutputAttribute outputAttribute : selector.getSelectionList()) {
+            outputAttributeNames.add(outputAttribute.getRename());
+        }
+        return outputAttributeNames;
+    }
+
+    /**
+     * Rewrites the expressions of a query to refer the attributes of the shared stream. When the whole pattern is
+     * shared all the state attributes are read from the shared stream, else only the attributes of the states of the
+     * shared prefix are, qualified by the shared stream.
+     */
+    private static class AttributeRewriter {
+
+        private final String sharedStreamId;
+        private final Set<String> prefixStateIds;
+        private final Map<Expression, String> sharedAttributes;
+
+        /**
+         * @param sharedStreamId stream matching the shared prefix, null if the whole pattern is shared
+         * @param prefixStateIds stream and reference ids of the states of the shared prefix, null if the whole
+         *                       pattern is shared
+         */
+        AttributeRewriter(String sharedStreamId, Set<String> prefixStateIds) {
+            this(sharedStreamId, prefixStateIds, new LinkedHashMap<Expression, String>());
+        }
+
+        /**
+         * @param sharedStreamId   stream matching the shared prefix, null if the whole pattern is shared
+         * @param prefixStateIds   stream and reference ids of the states of the shared prefix, null if the whole
+         *                         pattern is shared
+         * @param sharedAttributes attributes of the shared stream, to which the referred state attributes are added
+         */
+        AttributeRewriter(String sharedStreamId, Set<String> prefixStateIds,
+                          Map<Expression, String> sharedAttributes) {
+            this.sharedStreamId = sharedStreamId;
+            this.prefixStateIds = prefixStateIds;
+            this.sharedAttributes = sharedAttributes;
+        }
+
+        /**
+         * Rewrite the given expression to refer the attributes of the shared stream, instead of the states of the
+         * pattern.
+         *
+         * @param expression           expression of the query
+         * @param outputAttributeNames names of the output attributes that can be referred, null if they cannot be
+         * @param stateFilter          whether the expression filters a state, where unqualified attributes refer
+         *                             the filtered stream
+         * @return rewritten expression, or null if the expression is not supported
+         */
+        Expression rewrite(Expression expression, Set<String> outputAttributeNames, boolean stateFilter) {
+            if (expression instanceof Constant) {
+                return expression;
+            } else if (expression instanceof Variable) {
+                Variable variable = (Variable) expression;
+                if (variable.getFunctionId() != null) {
+                    return null;
+                }
+                if (outputAttributeNames != null && variable.getStreamId() == null &&
+                        outputAttributeNames.contains(variable.getAttributeName())) {
+                    return variable;
+                }
+                if (prefixStateIds == null) {
+                    return getSharedAttribute(variable);
+                } else if (variable.getStreamId() == null) {
+                    // unqualified attributes of the selection may belong to the states of the prefix
+                    return stateFilter ? variable : null;
+                }
+                return prefixStateIds.contains(variable.getStreamId()) ? getSharedAttribute(variable) : variable;
+            } else if (expression instanceof IsNull) {
+                IsNull isNull = (IsNull) expression;
+                if (isNull.getExpression() == null) {
+                    // null check of a state of the pattern
+                    if (prefixStateIds == null) {
+                        return getSharedAttribute(isNull);
+                    }
+                    return prefixStateIds.contains(isNull.getStreamId()) ? null : isNull;
+                }
+                Expression rewrittenExpression = rewrite(isNull.getExpression(), outputAttributeNames, stateFilter);
+                return rewrittenExpression == null ? null : new IsNull(rewrittenExpression);
+            } else if (expression instanceof AttributeFunction) {
+                AttributeFunction attributeFunction = (AttributeFunction) expression;
+                Expression[] parameters = attributeFunction.getParameters();
+                Expression[] rewrittenParameters = new Expression[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    rewrittenParameters[i] = rewrite(parameters[i], outputAttributeNames, stateFilter);
+                    if (rewrittenParameters[i] == null) {
+                        return null;
+                    }
+                }
+                return new AttributeFunction(attributeFunction.getNamespace(), attributeFunction.getName(),
+                        rewrittenParameters);
+            } else if (expression instanceof Not) {
+                Expression rewrittenExpression = rewrite(((Not) expression).getExpression(), outputAttributeNames,
+                        stateFilter);
+                return rewrittenExpression == null ? null : new Not(rewrittenExpression);
+            } else if (expression instanceof In) {
+                Expression rewrittenExpression = rewrite(((In) expression).getExpression(), outputAttributeNames,
+                        stateFilter);
+                return rewrittenExpression == null ? null :
+                        new In(rewrittenExpression, ((In) expression).getSourceId());
+            }
+
+            Expression left;
+            Expression right;
+            if (expression instanceof And) {
+                left = ((And) expression).getLeftExpression();
+                right = ((And) expression).getRightExpression();
+            } else if (expression instanceof Or) {
+                left = ((Or) expression).getLeftExpression();
+                right = ((Or) expression).getRightExpression();
+            } else if (expression instanceof Compare) {
+                left = ((Compare) expression).getLeftExpression();
+                right = ((Compare) expression).getRightExpression();
+            } else if (expression instanceof Add) {
+                left = ((Add) expression).getLeftValue();
+                right = ((Add) expression).getRightValue();
+            } else if (expression instanceof Subtract) {
+                left = ((Subtract) expression).getLeftValue();
+                right = ((Subtract) expression).getRightValue();
+            } else if (expression instanceof Multiply) {
+                left = ((Multiply) expression).getLeftValue();
+                right = ((Multiply) expression).getRightValue();
+            } else if (expression instanceof Divide) {
+                left = ((Divide) expression).getLeftValue();
+                right = ((Divide) expression).getRightValue();
+            } else if (expression instanceof Mod) {
+                left = ((Mod) expression).getLeftValue();
+                right = ((Mod) expression).getRightValue();
+            } else {
+                return null;
+            }
+            left = rewrite(left, outputAttributeNames, stateFilter);
+            right = rewrite(right, outputAttributeNames, stateFilter);
+            if (left == null || right == null) {
+                return null;
+            }
+            if (expression instanceof And) {
+                return new And(left, right);
+            } else if (expression instanceof Or) {
+                return new Or(left, right);
+            } else if (expression instanceof Compare) {
+                return new Compare(left, ((Compare) expression).getOperator(), right);
+            } else if (expression instanceof Add) {
+                return new Add(left, right);
+            } else if (expression instanceof Subtract) {
+                return new Subtract(left, right);
+            } else if (expression instanceof Multiply) {
+                return new Multiply(left, right);
+            } else if (expression instanceof Divide) {
+                return new Divide(left, right);
+            } else {
+                return new Mod(left, right);
+            }
+        }
+
+        private Variable getSharedAttribute(Expression expression) {
+            String attributeName = sharedAttributes.get(expression);
+            if (attributeName == null) {
+                attributeName = SHARED_ATTRIBUTE_PREFIX + sharedAttributes.size();
+                sharedAttributes.put(expression, attributeName);
+            }
+            Variable variable = new Variable(attributeName);
+            return sharedStreamId == null ? variable : variable.ofStream(sharedStreamId);
+        }
+    }
+}
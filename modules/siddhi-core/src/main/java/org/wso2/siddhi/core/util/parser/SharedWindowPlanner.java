@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.parser;
+
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.query.api.SiddhiApp;
+import org.wso2.siddhi.query.api.annotation.Annotation;
+import org.wso2.siddhi.query.api.annotation.Element;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.definition.WindowDefinition;
+import org.wso2.siddhi.query.api.execution.ExecutionElement;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Window;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.output.ratelimit.SnapshotOutputRate;
+import org.wso2.siddhi.query.api.execution.query.selection.Selector;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans the sharing of identical windows between the queries of a {@link SiddhiApp}. When several queries apply the
+ * same sliding window directly on the same stream, e.g. 'from StockStream#window.time(5 min)', the window is
+ * created once as a {@link WindowDefinition} fed by the stream, and the queries are rewritten to consume the current
+ * and expired events of that window, instead of each holding its own copy of the events.
+ * <p>
+ * The given {@link SiddhiApp} is not modified. Sharing adds elements to the app and thereby shifts the element ids
+ * its snapshots are keyed by, hence it is only enabled with '@app:shareWindows('true')', so that revisions persisted
+ * before enabling it are not restored into a differently planned app.
+ */
+public class SharedWindowPlanner {
+
+    private static final String SHARED_WINDOW_PREFIX = "SharedWindow-";
+    // windows whose output only consists of current and expired events, as the shared windows do not emit others
+    private static final Set<String> SHAREABLE_WINDOWS = new HashSet<String>(Arrays.asList("length", "time"));
+    private final SiddhiApp siddhiApp;
+    private final Map<String, WindowDefinition> windowDefinitionMap;
+    private final List<ExecutionElement> executionElementList;
+
+    public SharedWindowPlanner(SiddhiApp siddhiApp) {
+        this.siddhiApp = siddhiApp;
+        this.windowDefinitionMap = new LinkedHashMap<String, WindowDefinition>(siddhiApp.getWindowDefinitionMap());
+        this.executionElementList = new ArrayList<ExecutionElement>(siddhiApp.getExecutionElementList());
+        Element element = AnnotationHelper.getAnnotationElement(SiddhiConstants.ANNOTATION_SHARE_WINDOWS, null,
+                siddhiApp.getAnnotations());
+        if (element != null && "true".equalsIgnoreCase(element.getValue())) {
+            plan();
+        }
+    }
+
+    /**
+     * @return window definitions of the app including the shared windows
+     */
+    public Map<String, WindowDefinition> getWindowDefinitionMap() {
+        return windowDefinitionMap;
+    }
+
+    /**
+     * @return execution elements of the app, with the queries consuming the shared windows rewritten and the queries
+     * feeding the shared windows added
+     */
+    public List<ExecutionElement> getExecutionElementList() {
+        return executionElementList;
+    }
+
+    private void plan() {
+        Map<List<Object>, List<Query>> sharingQueries = new LinkedHashMap<List<Object>, List<Query>>();
+        Set<String> usedIds = new HashSet<String>();
+        usedIds.addAll(siddhiApp.getStreamDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getTableDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getWindowDefinitionMap().keySet());
+        usedIds.addAll(siddhiApp.getTriggerDefinitionMap().keySet());
+        for (ExecutionElement executionElement : executionElementList) {
+            if (executionElement instanceof Query) {
+                Query query = (Query) executionElement;
+                Element nameElement = AnnotationHelper.getAnnotationElement("info", "name", query.getAnnotations());
+                if (nameElement != null) {
+                    usedIds.add(nameElement.getValue());
+                }
+                if (isShareable(query)) {
+                    SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+                    List<Object> key = Arrays.<Object>asList(inputStream.getStreamId(),
+                            inputStream.getStreamHandlers().get(0));
+                    List<Query> queries = sharingQueries.get(key);
+                    if (queries == null) {
+                        queries = new ArrayList<Query>();
+                        sharingQueries.put(key, queries);
+                    }
+                    queries.add(query);
+                }
+            }
+        }
+
+        int sharedWindowCount = 0;
+        for (Map.Entry<List<Object>, List<Query>> entry : sharingQueries.entrySet()) {
+            if (entry.getValue().size() < 2) {
+                continue;
+            }
+            String windowId;
+            do {
+                windowId = SHARED_WINDOW_PREFIX + sharedWindowCount++;
+            } while (usedIds.contains(windowId));
+            String streamId = (String) entry.getKey().get(0);
+            Window window = (Window) entry.getKey().get(1);
+
+            WindowDefinition windowDefinition = WindowDefinition.id(windowId);
+            for (Attribute attribute : siddhiApp.getStreamDefinitionMap().get(streamId).getAttributeList()) {
+                windowDefinition.attribute(attribute.getName(), attribute.getType());
+            }
+            windowDefinition.window(window);
+            windowDefinitionMap.put(windowId, windowDefinition);
+
+            List<Query> queries = entry.getValue();
+            Query feedingQuery = Query.query()
+                    .annotation(Annotation.annotation("info").element("name", windowId))
+                    .from(new SingleInputStream(null, streamId))
+                    .select(Selector.selector())
+                    .insertInto(windowId);
+            executionElementList.add(executionElementList.indexOf(queries.get(0)), feedingQuery);
+            for (Query query : queries) {
+                executionElementList.set(executionElementList.indexOf(query), rewrite(query, windowId));
+            }
+        }
+    }
+
+    private boolean isShareable(Query query) {
+        if (!(query.getInputStream() instanceof SingleInputStream) ||
+                query.getOutputRate() instanceof SnapshotOutputRate) {
+            // joins, patterns and sequences have their own window semantics, and the snapshot rate limiters
+            // need to know that the query holds a window
+            return false;
+        }
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+        if (inputStream.isInnerStream() || streamHandlers.isEmpty() || !(streamHandlers.get(0) instanceof Window)) {
+            return false;
+        }
+        Window window = (Window) streamHandlers.get(0);
+        StreamDefinition streamDefinition = siddhiApp.getStreamDefinitionMap().get(inputStream.getStreamId());
+        return streamDefinition != null && window.getNamespace() == null &&
+                SHAREABLE_WINDOWS.contains(window.getName());
+    }
+
+    private Query rewrite(Query query, String windowId) {
+        SingleInputStream inputStream = (SingleInputStream) query.getInputStream();
+        // keep the stream reference, such that the attributes qualified with the stream id still resolve
+        String streamReferenceId = inputStream.getStreamReferenceId() != null ?
+                inputStream.getStreamReferenceId() : inputStream.getStreamId();
+        SingleInputStream windowInputStream = new SingleInputStream(streamReferenceId, windowId);
+        List<StreamHandler> streamHandlers = inputStream.getStreamHandlers();
+        windowInputStream.addStreamHandlers(streamHandlers.subList(1, streamHandlers.size()));
+
+        Query rewrittenQuery = Query.query()
+                .from(windowInputStream)
+                .select(query.getSelector())
+                .outStream(query.getOutputStream());
+        rewrittenQuery.output(query.getOutputRate());
+        for (Annotation annotation : query.getAnnotations()) {
+            rewrittenQuery.annotation(annotation);
+        }
+        return rewrittenQuery;
+    }
+}
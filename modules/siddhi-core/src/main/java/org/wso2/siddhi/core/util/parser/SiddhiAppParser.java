@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
@@ -100,6 +101,10 @@ public class SiddhiAppParser {
                 } else {
                     siddhiAppContext.setBufferSize(SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE);
                 }
+                siddhiAppContext.setWaitStrategy(annotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY));
+                siddhiAppContext.setProducerType(annotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE));
             }
 
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STATISTICS,
@@ -130,6 +135,7 @@ public class SiddhiAppParser {
             siddhiAppContext.setScheduledExecutorService(Executors.newScheduledThreadPool(5,
                                                                                               new ThreadFactoryBuilder().setNameFormat("Siddhi-" +
                                                                                                                                                siddhiAppContext.getName() + "-scheduler-thread-%d").build()));
+            siddhiAppContext.setTimerWheel(new TimerWheel(siddhiAppContext));
 
             // Select the TimestampGenerator based on playback mode on/off
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PLAYBACK,
@@ -191,9 +197,15 @@ public class SiddhiAppParser {
 
         SiddhiAppRuntimeBuilder siddhiAppRuntimeBuilder = new SiddhiAppRuntimeBuilder(siddhiAppContext);
 
+        SharedWindowPlanner sharedWindowPlanner = new SharedWindowPlanner(siddhiApp);
+        SharedPatternPlanner sharedPatternPlanner = new SharedPatternPlanner(siddhiApp,
+                sharedWindowPlanner.getExecutionElementList());
+        JoinLanePlanner joinLanePlanner = new JoinLanePlanner(siddhiApp,
+                sharedPatternPlanner.getExecutionElementList());
+
         defineStreamDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getStreamDefinitionMap());
         defineTableDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getTableDefinitionMap());
-        defineWindowDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getWindowDefinitionMap());
+        defineWindowDefinitions(siddhiAppRuntimeBuilder, sharedWindowPlanner.getWindowDefinitionMap());
         defineFunctionDefinitions(siddhiAppRuntimeBuilder, siddhiApp.getFunctionDefinitionMap());
         for (Window window : siddhiAppRuntimeBuilder.getEventWindowMap().values()) {
             String metricName =
@@ -214,7 +226,7 @@ public class SiddhiAppParser {
                     .getEventWindowMap(), latencyTracker, window.getWindowDefinition().getId());
         }
         try {
-            for (ExecutionElement executionElement : siddhiApp.getExecutionElementList()) {
+            for (ExecutionElement executionElement : joinLanePlanner.getExecutionElementList()) {
                 if (executionElement instanceof Query) {
                     QueryRuntime queryRuntime = QueryParser.parse((Query) executionElement, siddhiAppContext,
                                                                   siddhiAppRuntimeBuilder.getStreamDefinitionMap(),
@@ -231,6 +243,11 @@ public class SiddhiAppParser {
                                                                               (Partition) executionElement, siddhiAppContext,
                                                                               siddhiAppRuntimeBuilder.getStreamDefinitionMap());
                     siddhiAppRuntimeBuilder.addPartition(partitionRuntime);
+                    if (joinLanePlanner.isLanePartition(executionElement)) {
+                        for (QueryRuntime queryRuntime : partitionRuntime.getMetaQueryRuntimeMap().values()) {
+                            siddhiAppRuntimeBuilder.addPartitionedQuery(queryRuntime);
+                        }
+                    }
                 }
             }
         } catch (SiddhiAppCreationException e) {
@@ -22,9 +22,11 @@ import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
+import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.CountPostStateProcessor;
 import org.wso2.siddhi.core.query.input.stream.state.CountPreStateProcessor;
+import org.wso2.siddhi.core.query.input.stream.state.IndexedStreamPreStateProcessor;
 import org.wso2.siddhi.core.query.input.stream.state.LogicalPostStateProcessor;
 import org.wso2.siddhi.core.query.input.stream.state.LogicalPreStateProcessor;
 import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
@@ -44,6 +46,8 @@ import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
 import org.wso2.siddhi.query.api.execution.query.input.state.CountStateElement;
 import org.wso2.siddhi.query.api.execution.query.input.state.EveryStateElement;
 import org.wso2.siddhi.query.api.execution.query.input.state.LogicalStateElement;
@@ -52,6 +56,10 @@ import org.wso2.siddhi.query.api.execution.query.input.state.StateElement;
 import org.wso2.siddhi.query.api.execution.query.input.state.StreamStateElement;
 import org.wso2.siddhi.query.api.execution.query.input.stream.BasicSingleInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.StateInputStream;
+import org.wso2.siddhi.query.api.expression.Expression;
+import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -110,7 +118,9 @@ public class StateInputStreamParser {
                                                     windowDefinitionMap, tableMap, metaStateEvent,
                                                     siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap, null, null,
                                                     stateInputStream.getStateType(),
-                                                    new ArrayList<Map.Entry<Long, Set<Integer>>>(), latencyTracker, queryName);
+                                                    new ArrayList<Map.Entry<Long, Set<Integer>>>(),
+                                                    new HashSet<Integer>(),
+                                                    latencyTracker, queryName);
 
         stateStreamRuntime.setInnerStateRuntime(innerStateRuntime);
 
@@ -131,6 +141,7 @@ public class StateInputStreamParser {
                                            StreamPostStateProcessor streamPostStateProcessor,
                                            StateInputStream.Type stateType,
                                            ArrayList<Map.Entry<Long, Set<Integer>>> withinStates,
+                                           Set<Integer> simpleStateIds,
                                            LatencyTracker latencyTracker, String queryName) {
 
 
@@ -154,8 +165,27 @@ public class StateInputStreamParser {
                                                                                                 .getValue(), withinStateset));
                 }
 
-                streamPreStateProcessor = new StreamPreStateProcessor(stateType, clonewithinStates(withinStates));
+                VariableExpressionExecutor[] correlationKeyExecutors = null;
+                if (stateType == StateInputStream.Type.PATTERN) {
+                    correlationKeyExecutors = parseCorrelationKeys(basicSingleInputStream, stateIndex, simpleStateIds,
+                            metaStateEvent, tableMap, siddhiAppContext, queryName);
+                }
+                if (correlationKeyExecutors != null) {
+                    variableExpressionExecutors.add(correlationKeyExecutors[0]);
+                    variableExpressionExecutors.add(correlationKeyExecutors[1]);
+                    streamPreStateProcessor = new IndexedStreamPreStateProcessor(stateType,
+                            clonewithinStates(withinStates), correlationKeyExecutors[0], correlationKeyExecutors[1]);
+                } else {
+                    streamPreStateProcessor = new StreamPreStateProcessor(stateType, clonewithinStates(withinStates));
+                }
                 streamPreStateProcessor.init(siddhiAppContext, queryName);
+                simpleStateIds.add(stateIndex);
+                if (stateType == StateInputStream.Type.PATTERN && !withinStates.isEmpty()) {
+                    EntryValveProcessor entryValveProcessor = new EntryValveProcessor(siddhiAppContext);
+                    entryValveProcessor.setNextProcessor(streamPreStateProcessor);
+                    streamPreStateProcessor.setScheduler(SchedulerParser.parse(
+                            siddhiAppContext.getScheduledExecutorService(), entryValveProcessor, siddhiAppContext));
+                }
 
                 if (stateElement.getWithin() != null) {
                     withinStates.remove(0);
@@ -189,7 +219,8 @@ public class StateInputStreamParser {
                                                                siddhiAppContext, variableExpressionExecutors,
                                                                processStreamReceiverMap,
                                                                streamPreStateProcessor, streamPostStateProcessor,
-                                                               stateType, withinStates, latencyTracker, queryName);
+                                                               stateType, withinStates,
+                                                               simpleStateIds, latencyTracker, queryName);
 
             if (stateElement.getWithin() != null) {
                 Set<Integer> withinStateSet = new HashSet<Integer>();
@@ -204,7 +235,8 @@ public class StateInputStreamParser {
                                                             windowDefinitionMap, tableMap, metaStateEvent,
                                                             siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap,
                                                             streamPreStateProcessor,
-                                                            streamPostStateProcessor, stateType, withinStates, latencyTracker, queryName);
+                                                            streamPostStateProcessor, stateType, withinStates,
+                                                            simpleStateIds, latencyTracker, queryName);
 
             if (stateElement.getWithin() != null) {
                 withinStates.remove(0);
@@ -234,7 +266,8 @@ public class StateInputStreamParser {
                                                         windowDefinitionMap, tableMap, metaStateEvent,
                                                         siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap,
                                                         streamPreStateProcessor,
-                                                        streamPostStateProcessor, stateType, withinStates, latencyTracker, queryName);
+                                                        streamPostStateProcessor, stateType, withinStates,
+                                                        simpleStateIds, latencyTracker, queryName);
 
             EveryInnerStateRuntime everyInnerStateRuntime = new EveryInnerStateRuntime(innerStateRuntime, stateType);
 
@@ -289,14 +322,15 @@ public class StateInputStreamParser {
                                                          windowDefinitionMap, tableMap, metaStateEvent,
                                                          siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap,
                                                          logicalPreStateProcessor2, logicalPostStateProcessor2,
-                                                         stateType, withinStates, latencyTracker,
+                                                         stateType, withinStates, simpleStateIds, latencyTracker,
                                                          queryName);
 
             StateElement stateElement1 = ((LogicalStateElement) stateElement).getStreamStateElement1();
             InnerStateRuntime innerStateRuntime1 = parse(stateElement1, streamDefinitionMap, tableDefinitionMap,
                                                          windowDefinitionMap, tableMap, metaStateEvent,
                                                          siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap,
-                                                         logicalPreStateProcessor1, logicalPostStateProcessor1, stateType, withinStates, latencyTracker,
+                                                         logicalPreStateProcessor1, logicalPostStateProcessor1, stateType, withinStates,
+                                                         simpleStateIds, latencyTracker,
                                                          queryName);
 
 
@@ -348,7 +382,8 @@ public class StateInputStreamParser {
             InnerStateRuntime innerStateRuntime = parse(currentElement, streamDefinitionMap, tableDefinitionMap,
                                                         windowDefinitionMap, tableMap, metaStateEvent,
                                                         siddhiAppContext, variableExpressionExecutors, processStreamReceiverMap,
-                                                        countPreStateProcessor, countPostStateProcessor, stateType, withinStates, latencyTracker,
+                                                        countPreStateProcessor, countPostStateProcessor, stateType, withinStates,
+                                                        simpleStateIds, latencyTracker,
                                                         queryName);
 
             return new CountInnerStateRuntime((StreamInnerStateRuntime) innerStateRuntime);
@@ -360,6 +395,85 @@ public class StateInputStreamParser {
 
     }
 
+    /**
+     * Find an equality condition correlating the given pattern state with an earlier state, such as
+     * 'e2=FillStream[e1.orderId == orderId]', to index the pending state events of the state by the correlated
+     * attribute. The earlier state should be a plain stream state, as the events of the count and logical states can
+     * still change after the state event is passed on, and both attributes should be of a type whose equality
+     * matches {@link Object#equals(Object)}.
+     *
+     * @return executors of the attribute of the earlier state and of the given state, or null if there is no such
+     * condition
+     */
+    private static VariableExpressionExecutor[] parseCorrelationKeys(BasicSingleInputStream basicSingleInputStream,
+                                                                     int stateIndex, Set<Integer> simpleStateIds,
+                                                                     MetaStateEvent metaStateEvent,
+                                                                     Map<String, Table> tableMap,
+                                                                     SiddhiAppContext siddhiAppContext,
+                                                                     String queryName) {
+        List<StreamHandler> streamHandlers = basicSingleInputStream.getStreamHandlers();
+        if (streamHandlers.isEmpty() || !(streamHandlers.get(0) instanceof Filter)) {
+            return null;
+        }
+        List<Expression> conditions = new ArrayList<Expression>();
+        collectConditions(streamHandlers.get(0).getParameters()[0], conditions);
+        for (Expression condition : conditions) {
+            if (!(condition instanceof Compare) || ((Compare) condition).getOperator() != Compare.Operator.EQUAL) {
+                continue;
+            }
+            Expression left = ((Compare) condition).getLeftExpression();
+            Expression right = ((Compare) condition).getRightExpression();
+            if (!isKeyVariable(left) || !isKeyVariable(right)) {
+                continue;
+            }
+            VariableExpressionExecutor leftExecutor = (VariableExpressionExecutor) ExpressionParser.parseExpression(
+                    left, metaStateEvent, stateIndex, tableMap, null, siddhiAppContext, false, 0, queryName);
+            VariableExpressionExecutor rightExecutor = (VariableExpressionExecutor) ExpressionParser.parseExpression(
+                    right, metaStateEvent, stateIndex, tableMap, null, siddhiAppContext, false, 0, queryName);
+            if (leftExecutor.getReturnType() != rightExecutor.getReturnType()) {
+                continue;
+            }
+            switch (leftExecutor.getReturnType()) {
+                case STRING:
+                case INT:
+                case LONG:
+                case BOOL:
+                    break;
+                default:
+                    // float and double equality differs from Object equality for 0.0 and NaN
+                    continue;
+            }
+            int leftState = leftExecutor.getPosition()[SiddhiConstants.STREAM_EVENT_CHAIN_INDEX];
+            int rightState = rightExecutor.getPosition()[SiddhiConstants.STREAM_EVENT_CHAIN_INDEX];
+            if (rightState == stateIndex && ((Variable) right).getStreamIndex() == null &&
+                    simpleStateIds.contains(leftState)) {
+                return new VariableExpressionExecutor[]{leftExecutor, rightExecutor};
+            } else if (leftState == stateIndex && ((Variable) left).getStreamIndex() == null &&
+                    simpleStateIds.contains(rightState)) {
+                return new VariableExpressionExecutor[]{rightExecutor, leftExecutor};
+            }
+        }
+        return null;
+    }
+
+    private static void collectConditions(Expression expression, List<Expression> conditions) {
+        if (expression instanceof And) {
+            collectConditions(((And) expression).getLeftExpression(), conditions);
+            collectConditions(((And) expression).getRightExpression(), conditions);
+        } else {
+            conditions.add(expression);
+        }
+    }
+
+    private static boolean isKeyVariable(Expression expression) {
+        if (!(expression instanceof Variable)) {
+            return false;
+        }
+        Variable variable = (Variable) expression;
+        return variable.getFunctionId() == null &&
+                (variable.getStreamIndex() == null || variable.getStreamIndex() == 0);
+    }
+
     private static List<Map.Entry<Long, Set<Integer>>> clonewithinStates(List<Map.Entry<Long, Set<Integer>>>
                                                                                  withinStates) {
         List<Map.Entry<Long, Set<Integer>>> clonedwithinStates = new ArrayList<Map.Entry<Long, Set<Integer>>>
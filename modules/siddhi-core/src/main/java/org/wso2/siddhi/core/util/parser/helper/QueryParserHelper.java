@@ -35,7 +35,10 @@ import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
 import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import org.wso2.siddhi.core.util.Scheduler;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.List;
@@ -146,23 +149,44 @@ public class QueryParserHelper {
 
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent, LockWrapper
             lockWrapper, String queryName) {
+        initStreamRuntime(runtime, metaComplexEvent, lockWrapper, queryName, null, null);
+    }
+
+    /**
+     * Initialise the stream runtime of a query and register its event pools with the given tracker
+     *
+     * @param runtime          stream runtime of the query
+     * @param metaComplexEvent meta event of the query
+     * @param lockWrapper      lock of the query
+     * @param queryName        name of the query
+     * @param eventPoolTracker tracker to monitor the event pools, can be null
+     * @param metricName       base metric name of the query, used when eventPoolTracker is not null
+     */
+    public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent, LockWrapper
+            lockWrapper, String queryName, EventPoolTracker eventPoolTracker, String metricName) {
 
         if (runtime instanceof SingleStreamRuntime) {
-            initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent, null, lockWrapper, queryName);
+            initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent, null, lockWrapper, queryName,
+                    eventPoolTracker, metricName);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
             StateEventPool stateEventPool = new StateEventPool(metaStateEvent, 5);
+            if (eventPoolTracker != null) {
+                eventPoolTracker.registerEventPool(stateEventPool, metricName + SiddhiConstants.METRIC_DELIMITER +
+                        "StateEventPool");
+            }
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i),
-                        i, metaStateEvent, stateEventPool, lockWrapper, queryName);
+                        i, metaStateEvent, stateEventPool, lockWrapper, queryName, eventPoolTracker, metricName);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventPool stateEventPool,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName,
+                                                EventPoolTracker eventPoolTracker, String metricName) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -171,6 +195,10 @@ public class QueryParserHelper {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
         StreamEventPool streamEventPool = new StreamEventPool(metaStreamEvent, 5);
+        if (eventPoolTracker != null) {
+            eventPoolTracker.registerEventPool(streamEventPool, metricName + SiddhiConstants.METRIC_DELIMITER +
+                    "StreamEventPool" + SiddhiConstants.METRIC_DELIMITER + streamEventChainIndex);
+        }
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventPool(streamEventPool);
@@ -197,6 +225,11 @@ public class QueryParserHelper {
                 ((StreamPreStateProcessor) processor).setStreamEventPool(streamEventPool);
                 ((StreamPreStateProcessor) processor).setStreamEventCloner(new StreamEventCloner(metaStreamEvent,
                         streamEventPool));
+                Scheduler scheduler = ((StreamPreStateProcessor) processor).getScheduler();
+                if (scheduler != null) {
+                    scheduler.setStreamEventPool(streamEventPool);
+                    scheduler.init(lockWrapper, queryName);
+                }
                 if (metaComplexEvent instanceof MetaStateEvent) {
                     ((StreamPreStateProcessor) processor).setStateEventCloner(new StateEventCloner(((MetaStateEvent)
                             metaComplexEvent), stateEventPool));
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of {@link StreamingPersistenceStore} which will store the state in the local file system. Each
+ * revision is stored in its own file under a folder per siddhi app, along with an index file listing the retained
+ * revisions in the order they were saved, along with the revisions the incremental ones are based on. Files are first
+ * written to a temporary file and then atomically moved in place, hence a crash while saving never corrupts the
+ * existing revisions. A failed save throws a {@link SiddhiAppRuntimeException}, as does using a siddhi app name or a
+ * revision which is not a plain file name, e.g. one containing '../'.
+ * <p>
+ * Supported properties are,
+ * <ul>
+ * <li>location: folder to store the revisions, defaults to "siddhi-app-persistence"</li>
+ * <li>revisionsToKeep: number of latest revisions retained per siddhi app, defaults to 3, and 0 retains all the
+ * revisions. The revisions the retained incremental revisions are based on are retained as well, until a later full
+ * revision makes them unnecessary</li>
+ * <li>sync: whether the files are forced to the storage device before a save completes, defaults to true</li>
+ * </ul>
+ */
+public class FileSystemPersistenceStore implements StreamingPersistenceStore {
+
+    private static final Logger log = Logger.getLogger(FileSystemPersistenceStore.class);
+    private static final String INDEX_FILE = "revisions.idx";
+    private static final String BASE_REVISION_SEPARATOR = "\t";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Path folder = Paths.get("siddhi-app-persistence");
+    private int revisionsToKeep = 3;
+    private boolean sync = true;
+    private Map<String, List<String>> revisionMap = new HashMap<String, List<String>>();
+    // revisions the incremental revisions are based on, per siddhi app
+    private Map<String, Map<String, String>> baseRevisionMap = new HashMap<String, Map<String, String>>();
+
+    public FileSystemPersistenceStore() {
+    }
+
+    public FileSystemPersistenceStore(String location, int revisionsToKeep) {
+        this.folder = Paths.get(location);
+        this.revisionsToKeep = revisionsToKeep;
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, byte[] snapshot) {
+        if (snapshot == null) {
+            throw new SiddhiAppRuntimeException("Cannot save the revision " + revision + " of siddhi app " +
+                    siddhiAppId + ", as it is empty");
+        }
+        save(siddhiAppId, revision, outputStream -> {
+            for (int offset = 0; offset < snapshot.length; offset += CHUNK_SIZE) {
+                outputStream.write(snapshot, offset, Math.min(CHUNK_SIZE, snapshot.length - offset));
+            }
+        });
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter) {
+        save(siddhiAppId, revision, null, snapshotWriter);
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, String baseRevision, SnapshotWriter snapshotWriter) {
+        Path appFolder = resolve(folder, siddhiAppId, "siddhi app name");
+        Path file = resolve(appFolder, revision, "revision");
+        try {
+            Files.createDirectories(appFolder);
+            write(file, snapshotWriter);
+            addRevision(siddhiAppId, revision, baseRevision);
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Cannot save the revision " + revision + " of siddhi app " +
+                    siddhiAppId + " to the file system, " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized void addRevision(String siddhiAppId, String revision, String baseRevision)
+            throws IOException {
+        Path appFolder = folder.resolve(siddhiAppId);
+        List<String> revisionList = getRevisionList(siddhiAppId);
+        List<String> updatedRevisionList = new ArrayList<String>(revisionList);
+        updatedRevisionList.remove(revision);
+        updatedRevisionList.add(revision);
+        Map<String, String> baseRevisions = new HashMap<String, String>(baseRevisionMap.get(siddhiAppId));
+        if (baseRevision != null) {
+            baseRevisions.put(revision, baseRevision);
+        } else {
+            baseRevisions.remove(revision);
+        }
+        List<String> expiredRevisions = new ArrayList<String>();
+        if (revisionsToKeep > 0 && updatedRevisionList.size() > revisionsToKeep) {
+            // the latest revisions are retained along with all the revisions they are based on
+            Set<String> retainedRevisions = new HashSet<String>();
+            for (String retainedRevision : updatedRevisionList.subList(updatedRevisionList.size() - revisionsToKeep,
+                    updatedRevisionList.size())) {
+                while (retainedRevision != null && retainedRevisions.add(retainedRevision)) {
+                    retainedRevision = baseRevisions.get(retainedRevision);
+                }
+            }
+            for (Iterator<String> iterator = updatedRevisionList.iterator(); iterator.hasNext(); ) {
+                String expiredRevision = iterator.next();
+                if (!retainedRevisions.contains(expiredRevision)) {
+                    iterator.remove();
+                    baseRevisions.remove(expiredRevision);
+                    expiredRevisions.add(expiredRevision);
+                }
+            }
+        }
+        StringBuilder index = new StringBuilder();
+        for (String retainedRevision : updatedRevisionList) {
+            if (index.length() > 0) {
+                index.append('\n');
+            }
+            index.append(retainedRevision);
+            if (baseRevisions.containsKey(retainedRevision)) {
+                index.append(BASE_REVISION_SEPARATOR).append(baseRevisions.get(retainedRevision));
+            }
+        }
+        byte[] indexBytes = index.toString().getBytes(StandardCharsets.UTF_8);
+        write(appFolder.resolve(INDEX_FILE), outputStream -> outputStream.write(indexBytes));
+        revisionMap.put(siddhiAppId, updatedRevisionList);
+        baseRevisionMap.put(siddhiAppId, baseRevisions);
+
+        // revisions are deleted only after the index stops referring them
+        for (String expiredRevision : expiredRevisions) {
+            Files.deleteIfExists(appFolder.resolve(expiredRevision));
+        }
+    }
+
+    @Override
+    public void setProperties(Map properties) {
+        Object location = properties.get("location");
+        if (location != null) {
+            folder = Paths.get(location.toString());
+        }
+        Object revisions = properties.get("revisionsToKeep");
+        if (revisions != null) {
+            revisionsToKeep = Integer.parseInt(revisions.toString());
+        }
+        Object syncProperty = properties.get("sync");
+        if (syncProperty != null) {
+            sync = Boolean.parseBoolean(syncProperty.toString());
+        }
+        synchronized (this) {
+            revisionMap.clear();
+            baseRevisionMap.clear();
+        }
+    }
+
+    @Override
+    public byte[] load(String siddhiAppId, String revision) {
+        Path file = resolve(resolve(folder, siddhiAppId, "siddhi app name"), revision, "revision");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Revision of " + size + " bytes is too large to be loaded");
+            }
+            byte[] snapshot = new byte[(int) size];
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+            }
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            log.warn("Revision " + revision + " not found for the siddhi app " + siddhiAppId);
+            return null;
+        } catch (IOException e) {
+            log.error("Cannot load the revision " + revision + " of siddhi app " + siddhiAppId + " from the file " +
+                    "system, " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public InputStream loadAsStream(String siddhiAppId, String revision) {
+        try {
+            return new BufferedInputStream(Files.newInputStream(resolve(resolve(folder, siddhiAppId,
+                    "siddhi app name"), revision, "revision")), BUFFER_SIZE);
+        } catch (NoSuchFileException e) {
+            log.warn("Revision " + revision + " not found for the siddhi app " + siddhiAppId);
+            return null;
+        } catch (IOException e) {
+            log.error("Cannot load the revision " + revision + " of siddhi app " + siddhiAppId + " from the file " +
+                    "system, " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized String getLastRevision(String siddhiAppId) {
+        try {
+            List<String> revisionList = getRevisionList(siddhiAppId);
+            if (revisionList.size() > 0) {
+                return revisionList.get(revisionList.size() - 1);
+            }
+        } catch (IOException e) {
+            log.error("Cannot read the revisions of siddhi app " + siddhiAppId + " from the file system, " +
+                    e.getMessage(), e);
+        }
+        return null;
+    }
+
+    private List<String> getRevisionList(String siddhiAppId) throws IOException {
+        List<String> revisionList = revisionMap.get(siddhiAppId);
+        if (revisionList == null) {
+            revisionList = new ArrayList<String>();
+            Map<String, String> baseRevisions = new HashMap<String, String>();
+            Path indexFile = resolve(folder, siddhiAppId, "siddhi app name").resolve(INDEX_FILE);
+            if (Files.exists(indexFile)) {
+                for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+                    if (!line.isEmpty()) {
+                        // each line holds a revision, followed by its base revision if it is incremental
+                        String[] revisions = line.split(BASE_REVISION_SEPARATOR, 2);
+                        revisionList.add(revisions[0]);
+                        if (revisions.length > 1) {
+                            baseRevisions.put(revisions[0], revisions[1]);
+                        }
+                    }
+                }
+            }
+            revisionMap.put(siddhiAppId, revisionList);
+            baseRevisionMap.put(siddhiAppId, baseRevisions);
+        }
+        return revisionList;
+    }
+
+    /**
+     * Resolve the file of the given name within the given folder. Names which are not a plain file name, such as
+     * '../app', are rejected as they could refer to files outside of the folder, along with the names clashing with
+     * the index and temporary files, and those containing control characters, which would corrupt the index.
+     */
+    private static Path resolve(Path folder, String name, String description) {
+        boolean valid = name != null && !name.isEmpty() && !name.equals(".") && !name.equals("..") &&
+                !name.equals(INDEX_FILE) && !name.endsWith(TEMP_FILE_SUFFIX);
+        for (int i = 0; valid && i < name.length(); i++) {
+            char character = name.charAt(i);
+            valid = character >= ' ' && character != '/' && character != '\\';
+        }
+        if (!valid) {
+            throw new SiddhiAppRuntimeException("Invalid " + description + " '" + name + "', as it cannot be used " +
+                    "as a file name in the persistence folder " + folder);
+        }
+        return folder.resolve(name);
+    }
+
+    /**
+     * Write the data to a temporary file, and move it in place of the given file once written successfully.
+     */
+    private void write(Path file, SnapshotWriter snapshotWriter) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                snapshotWriter.write(outputStream);
+                outputStream.flush();
+                if (sync) {
+                    channel.force(true);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -20,9 +20,21 @@ package org.wso2.siddhi.core.util.persistence;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshot;
+import org.wso2.siddhi.core.util.snapshot.SnapshotCodec;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Persistence Service is the service layer to handle state persistence tasks such as persisting current state and
  * restoring previous states.
@@ -34,10 +46,23 @@ public class PersistenceService {
     private PersistenceStore persistenceStore;
     private SnapshotService snapshotService;
     private ThreadBarrier threadBarrier;
+    private SnapshotCodec snapshotCodec;
+    private boolean snapshotStatesCopied;
+    private int incrementalSnapshotsPerBase;
+    // revision which the next incremental snapshot is chained to, set only once that revision is saved
+    private String lastIncrementalRevision;
+    private String lastCapturedRevision;
+    // number of incremental revisions between the base revision and each of the above revisions
+    private int lastIncrementalChainLength;
+    private int lastCapturedChainLength;
+    private long lastRevisionTime;
 
     public PersistenceService(SiddhiAppContext siddhiAppContext) {
         this.snapshotService = siddhiAppContext.getSnapshotService();
         this.persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
+        this.snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
+        this.snapshotStatesCopied = siddhiAppContext.getSiddhiContext().isSnapshotStatesCopied();
+        this.incrementalSnapshotsPerBase = siddhiAppContext.getSiddhiContext().getIncrementalSnapshotsPerBase();
         this.siddhiAppName = siddhiAppContext.getName();
         this.threadBarrier = siddhiAppContext.getThreadBarrier();
     }
@@ -49,9 +74,13 @@ public class PersistenceService {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            byte[] snapshot = snapshotService.snapshot();
-            String revision = System.currentTimeMillis() + "_" + siddhiAppName;
-            persistenceStore.save(siddhiAppName, revision, snapshot);
+            String revision = nextRevision();
+            if (isSnapshotStreamed()) {
+                streamSnapshot(revision, false);
+            } else {
+                Object snapshot = captureSnapshot(revision);
+                saveSnapshot(snapshot, revision);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -63,14 +92,196 @@ public class PersistenceService {
 
     }
 
+    public String persistIncrementally() {
+
+        if (persistenceStore != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Persisting incrementally...");
+            }
+            String revision = nextRevision();
+            if (isSnapshotStreamed()) {
+                streamSnapshot(revision, true);
+            } else {
+                Object snapshot = captureIncrementalSnapshot(revision);
+                saveSnapshot(snapshot, revision);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Persisted incrementally.");
+            }
+            return revision;
+        } else {
+            throw new NoPersistenceStoreException("No persistence store assigned for siddhi app " +
+                                                          siddhiAppName);
+        }
+
+    }
+
+    /**
+     * Generate the revision of the next snapshot. Revisions are made of the current time and the siddhi app name, and
+     * the time is advanced when needed such that each revision is unique.
+     *
+     * @return revision of the next snapshot
+     */
+    public synchronized String nextRevision() {
+        lastRevisionTime = Math.max(System.currentTimeMillis(), lastRevisionTime + 1);
+        return lastRevisionTime + "_" + siddhiAppName;
+    }
+
+    /**
+     * Capture a snapshot of all the elements, which also becomes the base of the following incremental snapshots
+     * once it is saved via {@link #saveSnapshot(Object, String)}.
+     *
+     * @param revision revision under which the returned snapshot will be persisted
+     * @return captured snapshot, to be encoded via the {@link SnapshotCodec}
+     */
+    public synchronized Object captureSnapshot(String revision) {
+        Object snapshot = snapshotService.captureIncrementalSnapshot(null);
+        lastCapturedRevision = revision;
+        lastCapturedChainLength = 0;
+        lastIncrementalRevision = null;
+        return snapshot;
+    }
+
+    /**
+     * Take a snapshot of the elements changed since the previous incremental snapshot, chained to the revision of
+     * that snapshot. The first incremental snapshot after starting, and any taken before the previous snapshot is
+     * saved or after it failed to be saved, is a base snapshot with all the elements. A base snapshot is also taken
+     * once the chain reaches the configured number of incremental snapshots per base, such that the restore cost
+     * stays bounded and the stores can drop the older chains.
+     *
+     * @param revision revision under which the returned snapshot will be persisted
+     * @return captured snapshot, to be encoded via the {@link SnapshotCodec}
+     */
+    public synchronized Object captureIncrementalSnapshot(String revision) {
+        Object snapshot = snapshotService.captureIncrementalSnapshot(nextPreviousRevision(revision));
+        lastIncrementalRevision = null;
+        return snapshot;
+    }
+
+    /**
+     * Resolve the revision the next incremental snapshot is chained to, and record it as the last captured one.
+     *
+     * @param revision revision of the next incremental snapshot
+     * @return revision to chain to, or null if the next snapshot should be a base snapshot
+     */
+    private String nextPreviousRevision(String revision) {
+        String previousRevision = lastIncrementalRevision;
+        if (previousRevision != null && incrementalSnapshotsPerBase > 0 &&
+                lastIncrementalChainLength >= incrementalSnapshotsPerBase) {
+            previousRevision = null;
+        }
+        lastCapturedRevision = revision;
+        lastCapturedChainLength = previousRevision == null ? 0 : lastIncrementalChainLength + 1;
+        return previousRevision;
+    }
+
+    /**
+     * Whether the snapshots are encoded straight into the persistence store while the events are held back via
+     * {@link #streamSnapshot(String, boolean)}, rather than captured and saved separately. This is the case for a
+     * {@link StreamingPersistenceStore}, unless the states are configured to be copied.
+     *
+     * @return true if the snapshots should be persisted via {@link #streamSnapshot(String, boolean)}
+     */
+    public boolean isSnapshotStreamed() {
+        return persistenceStore instanceof StreamingPersistenceStore && !snapshotStatesCopied;
+    }
+
+    /**
+     * Take a snapshot and save it to the {@link StreamingPersistenceStore} at once, while the events are held back.
+     * Once saved, the snapshot becomes the base of the next incremental snapshot.
+     *
+     * @param revision    revision under which the snapshot is persisted
+     * @param incremental whether only the elements changed since the previous incremental snapshot are saved, as in
+     *                    {@link #captureIncrementalSnapshot(String)}, or all of them as in
+     *                    {@link #captureSnapshot(String)}
+     */
+    public synchronized void streamSnapshot(String revision, boolean incremental) {
+        String previousRevision = null;
+        if (incremental) {
+            previousRevision = nextPreviousRevision(revision);
+        } else {
+            lastCapturedRevision = revision;
+            lastCapturedChainLength = 0;
+        }
+        lastIncrementalRevision = null;
+        snapshotService.streamIncrementalSnapshot(previousRevision, (StreamingPersistenceStore) persistenceStore,
+                revision);
+        lastIncrementalRevision = revision;
+        lastIncrementalChainLength = lastCapturedChainLength;
+    }
+
+    /**
+     * Encode and save a captured snapshot to the persistence store. Once saved, the snapshot becomes the base of the
+     * next incremental snapshot, unless a later snapshot was captured meanwhile.
+     *
+     * @param snapshot snapshot captured via {@link #captureSnapshot(String)} or
+     *                 {@link #captureIncrementalSnapshot(String)}
+     * @param revision revision the snapshot was captured for
+     */
+    public void saveSnapshot(Object snapshot, String revision) {
+        new AsyncSnapshotPersistor(snapshot, snapshotCodec, persistenceStore, siddhiAppName, revision).run();
+        synchronized (this) {
+            if (revision.equals(lastCapturedRevision)) {
+                lastIncrementalRevision = revision;
+                lastIncrementalChainLength = lastCapturedChainLength;
+            }
+        }
+    }
+
     public void restoreRevision(String revision) {
 
         if (persistenceStore != null) {
             if (log.isDebugEnabled()) {
                 log.debug("Restoring revision: " + revision + " ...");
             }
-            byte[] snapshot = persistenceStore.load(siddhiAppName, revision);
-            snapshotService.restore(snapshot);
+            List<IncrementalSnapshot> incrementalSnapshots = new ArrayList<IncrementalSnapshot>();
+            Set<String> chainedRevisions = new HashSet<String>();
+            chainedRevisions.add(revision);
+            Object snapshot = loadSnapshot(revision);
+            if (snapshot == null) {
+                throw new SiddhiAppRuntimeException("Cannot restore revision " + revision + " of siddhi app " +
+                        siddhiAppName + ", as it cannot be loaded from the persistence store");
+            }
+            String chainedRevision = revision;
+            while (snapshot instanceof IncrementalSnapshot) {
+                incrementalSnapshots.add((IncrementalSnapshot) snapshot);
+                String previousRevision = ((IncrementalSnapshot) snapshot).getPreviousRevision();
+                if (!chainedRevisions.add(previousRevision)) {
+                    throw new SiddhiAppRuntimeException("Cannot restore revision " + revision + " of siddhi app " +
+                            siddhiAppName + ", as its chain of incremental revisions loops back to revision " +
+                            previousRevision + " from revision " + chainedRevision);
+                }
+                snapshot = loadSnapshot(previousRevision);
+                if (snapshot == null) {
+                    throw new SiddhiAppRuntimeException("Cannot restore revision " + revision + " of siddhi app " +
+                            siddhiAppName + ", as revision " + previousRevision + " which the incremental " +
+                            "revision " + chainedRevision + " is based on cannot be loaded from the persistence store");
+                }
+                chainedRevision = previousRevision;
+            }
+            Map<String, Object> snapshots = (Map<String, Object>) snapshot;
+            for (int i = incrementalSnapshots.size() - 1; i >= 0; i--) {
+                snapshots.putAll(incrementalSnapshots.get(i).getSnapshots());
+            }
+            synchronized (this) {
+                snapshotService.restore(snapshots);
+                // the restored state is the state of the revision, hence further increments can be based on it
+                snapshotService.clearStateChanges();
+                lastCapturedRevision = revision;
+                lastCapturedChainLength = incrementalSnapshots.size();
+                lastIncrementalRevision = revision;
+                lastIncrementalChainLength = lastCapturedChainLength;
+                // the following revisions must not reuse the time of the restored one, which would chain it to itself
+                int separator = revision.indexOf('_');
+                if (separator > 0) {
+                    try {
+                        lastRevisionTime = Math.max(lastRevisionTime, Long.parseLong(revision.substring(0,
+                                separator)));
+                    } catch (NumberFormatException e) {
+                        log.debug("Revision " + revision + " does not start with its time");
+                    }
+                }
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Restored revision: " + revision);
             }
@@ -81,6 +292,21 @@ public class PersistenceService {
 
     }
 
+    private Object loadSnapshot(String revision) {
+        if (persistenceStore instanceof StreamingPersistenceStore) {
+            try (InputStream inputStream = ((StreamingPersistenceStore) persistenceStore).loadAsStream(siddhiAppName,
+                    revision)) {
+                return inputStream == null ? null : snapshotCodec.decode(inputStream);
+            } catch (IOException | ClassNotFoundException e) {
+                log.error("Error when decoding revision " + revision + " of siddhi app " + siddhiAppName + ". " +
+                        e.getMessage(), e);
+                return null;
+            }
+        }
+        byte[] snapshot = persistenceStore.load(siddhiAppName, revision);
+        return snapshot == null ? null : snapshotCodec.decode(snapshot);
+    }
+
     public void restoreLastRevision() {
         try {
             this.threadBarrier.lock();
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a snapshot to the stream provided by a {@link StreamingPersistenceStore}.
+ */
+public interface SnapshotWriter {
+
+    /**
+     * Write the snapshot to the given stream. The stream should not be closed.
+     *
+     * @param outputStream stream to write the snapshot
+     * @throws IOException if the snapshot could not be written
+     */
+    void write(OutputStream outputStream) throws IOException;
+}
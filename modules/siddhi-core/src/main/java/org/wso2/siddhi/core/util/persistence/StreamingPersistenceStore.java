@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import java.io.InputStream;
+
+/**
+ * {@link PersistenceStore} which can save and load the snapshots as streams, so that the encoded snapshot is never
+ * held in memory as a whole while persisting or restoring.
+ * <p>
+ * Snapshots are encoded straight into the stream while the events are held back, hence the heap usage while
+ * persisting does not grow with the size of the state. When the states are configured to be copied via
+ * {@link org.wso2.siddhi.core.SiddhiManager#setSnapshotStatesCopied(boolean)}, they are deep copied by
+ * {@link org.wso2.siddhi.core.util.snapshot.StateCopier} instead, and encoded after the events resume.
+ */
+public interface StreamingPersistenceStore extends PersistenceStore {
+
+    /**
+     * Save the snapshot written by the given writer. The revision should become available only if the writer
+     * completes successfully.
+     *
+     * @param siddhiAppId    id of the siddhi app
+     * @param revision       revision of the snapshot
+     * @param snapshotWriter writer of the snapshot
+     */
+    void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter);
+
+    /**
+     * Save the snapshot of an incremental revision written by the given writer. An incremental revision can only be
+     * restored along with the revision it is based on, hence a store retaining a limited number of revisions should
+     * also retain the base revisions of the retained ones.
+     *
+     * @param siddhiAppId    id of the siddhi app
+     * @param revision       revision of the snapshot
+     * @param baseRevision   revision the snapshot is based on
+     * @param snapshotWriter writer of the snapshot
+     */
+    default void save(String siddhiAppId, String revision, String baseRevision, SnapshotWriter snapshotWriter) {
+        save(siddhiAppId, revision, snapshotWriter);
+    }
+
+    /**
+     * Open a stream to read the snapshot of the given revision. The caller is responsible for closing the stream.
+     *
+     * @param siddhiAppId id of the siddhi app
+     * @param revision    revision of the snapshot
+     * @return stream to read the snapshot, or null if the revision is not available
+     */
+    InputStream loadAsStream(String siddhiAppId, String revision);
+}
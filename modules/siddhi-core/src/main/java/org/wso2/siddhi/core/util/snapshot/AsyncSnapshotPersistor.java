@@ -21,13 +21,18 @@ package org.wso2.siddhi.core.util.snapshot;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.persistence.StreamingPersistenceStore;
 
 /**
- * {@link Runnable} which is responsible for persisting the snapshots that are taken
+ * {@link Runnable} which is responsible for persisting the snapshots that are taken. Snapshots captured via
+ * {@link SnapshotService#captureSnapshot()} are encoded by the task itself, directly to the store when it is a
+ * {@link StreamingPersistenceStore}.
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
     private byte[] snapshots;
+    private Object snapshot;
+    private SnapshotCodec snapshotCodec;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
@@ -40,6 +45,15 @@ public class AsyncSnapshotPersistor implements Runnable {
         revision = System.currentTimeMillis() + "_" + siddhiAppName;
     }
 
+    public AsyncSnapshotPersistor(Object snapshot, SnapshotCodec snapshotCodec, PersistenceStore persistenceStore,
+                                  String siddhiAppName, String revision) {
+        this.snapshot = snapshot;
+        this.snapshotCodec = snapshotCodec;
+        this.persistenceStore = persistenceStore;
+        this.siddhiAppName = siddhiAppName;
+        this.revision = revision;
+    }
+
     public String getRevision() {
         return revision;
     }
@@ -50,7 +64,19 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            if (snapshots != null) {
+                persistenceStore.save(siddhiAppName, revision, snapshots);
+            } else if (snapshot instanceof IncrementalSnapshot &&
+                    persistenceStore instanceof StreamingPersistenceStore) {
+                ((StreamingPersistenceStore) persistenceStore).save(siddhiAppName, revision,
+                        ((IncrementalSnapshot) snapshot).getPreviousRevision(),
+                        outputStream -> snapshotCodec.encode(snapshot, outputStream));
+            } else if (persistenceStore instanceof StreamingPersistenceStore) {
+                ((StreamingPersistenceStore) persistenceStore).save(siddhiAppName, revision,
+                        outputStream -> snapshotCodec.encode(snapshot, outputStream));
+            } else {
+                persistenceStore.save(siddhiAppName, revision, snapshotCodec.encode(snapshot));
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary {@link SnapshotCodec}. Attribute values, event data and state maps are written as type tagged
+ * primitives via {@link SnapshotOutputStream}, while other state objects fall back to Java serialization, sharing
+ * the class descriptors within a snapshot. The encoded snapshot can optionally be compressed.
+ * <p>
+ * Snapshots encoded by {@link JavaSnapshotCodec} can still be decoded, so that existing revisions can be restored.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+
+    private static final Logger log = Logger.getLogger(BinarySnapshotCodec.class);
+    // Java serialization streams start with 0xACED, hence this header never conflicts with them
+    private static final byte MAGIC = 0x53;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final byte UNCOMPRESSED = 0;
+    private static final byte COMPRESSED = 1;
+    private final boolean compress;
+    private final JavaSnapshotCodec javaSnapshotCodec = new JavaSnapshotCodec();
+
+    public BinarySnapshotCodec() {
+        this(false);
+    }
+
+    /**
+     * @param compress whether the encoded snapshots should be compressed, trading CPU time for snapshot size
+     */
+    public BinarySnapshotCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public byte[] encode(Object snapshot) {
+        long start = System.currentTimeMillis();
+        byte[] out = null;
+        if (snapshot != null) {
+            try {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                encode(snapshot, baos);
+                out = baos.toByteArray();
+            } catch (IOException e) {
+                log.error("Error when encoding snapshot. " + e.getMessage(), e);
+                return null;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Encoded in :" + (System.currentTimeMillis() - start) + " msec");
+        }
+        return out;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != MAGIC) {
+            return ByteSerializer.byteToObject(bytes);
+        }
+        long start = System.currentTimeMillis();
+        Object out;
+        try {
+            out = decode(new ByteArrayInputStream(bytes));
+        } catch (IOException | ClassNotFoundException e) {
+            log.error("Error when decoding snapshot. " + e.getMessage(), e);
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Decoded in :" + (System.currentTimeMillis() - start) + " msec");
+        }
+        return out;
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(MAGIC);
+        outputStream.write(VERSION);
+        if (compress) {
+            outputStream.write(COMPRESSED);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater);
+                SnapshotOutputStream sos = new SnapshotOutputStream(deflaterOutputStream);
+                sos.writeValue(snapshot);
+                sos.flush();
+                deflaterOutputStream.finish();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            outputStream.write(UNCOMPRESSED);
+            SnapshotOutputStream sos = new SnapshotOutputStream(outputStream);
+            sos.writeValue(snapshot);
+            sos.flush();
+        }
+    }
+
+    @Override
+    public Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        if (!inputStream.markSupported()) {
+            inputStream = new BufferedInputStream(inputStream);
+        }
+        inputStream.mark(HEADER_LENGTH);
+        if (inputStream.read() != MAGIC) {
+            inputStream.reset();
+            return javaSnapshotCodec.decode(inputStream);
+        }
+        int version = inputStream.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        if (inputStream.read() == COMPRESSED) {
+            inputStream = new InflaterInputStream(inputStream);
+        }
+        return new SnapshotInputStream(inputStream).readValue();
+    }
+}
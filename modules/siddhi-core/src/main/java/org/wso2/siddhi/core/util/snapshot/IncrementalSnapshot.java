@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * Snapshot holding only the states of the elements which changed since the snapshot of the previous revision. The
+ * full state is obtained by applying the chain of incremental snapshots on top of the base snapshot.
+ */
+public class IncrementalSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 4390176845612470612L;
+    private final String previousRevision;
+    private final HashMap<String, Object> snapshots;
+
+    public IncrementalSnapshot(String previousRevision, HashMap<String, Object> snapshots) {
+        this.previousRevision = previousRevision;
+        this.snapshots = snapshots;
+    }
+
+    public String getPreviousRevision() {
+        return previousRevision;
+    }
+
+    public HashMap<String, Object> getSnapshots() {
+        return snapshots;
+    }
+}
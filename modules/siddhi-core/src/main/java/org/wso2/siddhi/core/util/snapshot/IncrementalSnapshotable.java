@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+/**
+ * {@link Snapshotable} which keeps track of whether its state changed since the last incremental snapshot, so that
+ * incremental snapshots can leave it out when it did not change.
+ */
+public interface IncrementalSnapshotable extends Snapshotable {
+
+    /**
+     * @return true if the state changed since the last call to {@link #clearStateChanged()}
+     */
+    boolean isStateChanged();
+
+    /**
+     * Called once the current state of the element is captured by an incremental snapshot.
+     */
+    void clearStateChanged();
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link SnapshotCodec} using plain Java serialization via {@link ByteSerializer}.
+ */
+public class JavaSnapshotCodec implements SnapshotCodec {
+
+    @Override
+    public byte[] encode(Object snapshot) {
+        return ByteSerializer.objectToByte(snapshot);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return ByteSerializer.byteToObject(bytes);
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(outputStream);
+        oos.writeObject(snapshot);
+        oos.flush();
+    }
+
+    @Override
+    public Object decode(InputStream inputStream) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(inputStream).readObject();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Codec used by {@link SnapshotService} to convert the snapshot state to a byte[] and vise-versa. Implementations
+ * can be set via {@link org.wso2.siddhi.core.SiddhiManager#setSnapshotCodec(SnapshotCodec)}.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Encode the given snapshot state.
+     *
+     * @param snapshot snapshot state to be encoded
+     * @return encoded snapshot, or null if the state could not be encoded
+     */
+    byte[] encode(Object snapshot);
+
+    /**
+     * Decode the given snapshot.
+     *
+     * @param bytes encoded snapshot
+     * @return decoded snapshot state, or null if the snapshot could not be decoded
+     */
+    Object decode(byte[] bytes);
+
+    /**
+     * Encode the given snapshot state to the output stream, without holding the whole encoded snapshot in memory.
+     * The output stream is not closed.
+     *
+     * @param snapshot     snapshot state to be encoded
+     * @param outputStream stream to write the encoded snapshot
+     * @throws IOException if the state could not be encoded or written
+     */
+    void encode(Object snapshot, OutputStream outputStream) throws IOException;
+
+    /**
+     * Decode the snapshot read from the input stream. The input stream is not closed.
+     *
+     * @param inputStream stream to read the encoded snapshot
+     * @return decoded snapshot state
+     * @throws IOException            if the snapshot could not be read or decoded
+     * @throws ClassNotFoundException if the class of a state object cannot be found
+     */
+    Object decode(InputStream inputStream) throws IOException, ClassNotFoundException;
+}
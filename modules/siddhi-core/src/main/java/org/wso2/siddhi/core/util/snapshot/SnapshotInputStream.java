@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * {@link ObjectInputStream} used by {@link BinarySnapshotCodec} to read the values written by
+ * {@link SnapshotOutputStream}.
+ */
+public class SnapshotInputStream extends ObjectInputStream {
+
+    public SnapshotInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    /**
+     * Read a value written via {@link SnapshotOutputStream#writeValue(Object)}.
+     *
+     * @return the value read
+     * @throws IOException            if an I/O error occurs or the stream is corrupted
+     * @throws ClassNotFoundException if the class of a Java serialized value cannot be found
+     */
+    public Object readValue() throws IOException, ClassNotFoundException {
+        byte tag = readByte();
+        switch (tag) {
+            case SnapshotOutputStream.NULL:
+                return null;
+            case SnapshotOutputStream.STRING:
+                return readUTF();
+            case SnapshotOutputStream.INT:
+                return readInt();
+            case SnapshotOutputStream.LONG:
+                return readLong();
+            case SnapshotOutputStream.FLOAT:
+                return readFloat();
+            case SnapshotOutputStream.DOUBLE:
+                return readDouble();
+            case SnapshotOutputStream.BOOLEAN:
+                return readBoolean();
+            case SnapshotOutputStream.OBJECT_ARRAY:
+                return readValues();
+            case SnapshotOutputStream.HASH_MAP:
+                int mapSize = readInt();
+                HashMap<Object, Object> map = new HashMap<>(Math.max((int) (mapSize / .75f) + 1, 16));
+                for (int i = 0; i < mapSize; i++) {
+                    map.put(readValue(), readValue());
+                }
+                return map;
+            case SnapshotOutputStream.ARRAY_LIST:
+                int listSize = readInt();
+                ArrayList<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue());
+                }
+                return list;
+            case SnapshotOutputStream.INCREMENTAL_SNAPSHOT:
+                String previousRevision = (String) readValue();
+                return new IncrementalSnapshot(previousRevision, (HashMap<String, Object>) readValue());
+            case SnapshotOutputStream.OBJECT:
+                return readObject();
+            default:
+                throw new StreamCorruptedException("Invalid snapshot value tag " + tag);
+        }
+    }
+
+    /**
+     * Read an array of values written via {@link SnapshotOutputStream#writeValues(Object[])}.
+     *
+     * @return the values read, can be null
+     * @throws IOException            if an I/O error occurs or the stream is corrupted
+     * @throws ClassNotFoundException if the class of a Java serialized value cannot be found
+     */
+    public Object[] readValues() throws IOException, ClassNotFoundException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readValue();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ObjectOutputStream} used by {@link BinarySnapshotCodec}, which writes the values commonly found in snapshot
+ * state (attribute values, event data arrays and state maps) as type tagged primitives, and falls back to Java
+ * serialization for any other object.
+ */
+public class SnapshotOutputStream extends ObjectOutputStream {
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INT = 2;
+    static final byte LONG = 3;
+    static final byte FLOAT = 4;
+    static final byte DOUBLE = 5;
+    static final byte BOOLEAN = 6;
+    static final byte OBJECT_ARRAY = 7;
+    static final byte HASH_MAP = 8;
+    static final byte ARRAY_LIST = 9;
+    static final byte INCREMENTAL_SNAPSHOT = 10;
+    static final byte OBJECT = 11;
+
+    // writeUTF() is limited to 65535 bytes, and a char takes at most 3 bytes in modified UTF-8
+    private static final int MAX_UTF_LENGTH = 65535 / 3;
+
+    public SnapshotOutputStream(OutputStream out) throws IOException {
+        super(out);
+    }
+
+    /**
+     * Write the given value, such that it can be read via {@link SnapshotInputStream#readValue()}.
+     *
+     * @param value value to be written
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeByte(NULL);
+            return;
+        }
+        Class<?> clazz = value.getClass();
+        if (clazz == String.class && ((String) value).length() <= MAX_UTF_LENGTH) {
+            writeByte(STRING);
+            writeUTF((String) value);
+        } else if (clazz == Integer.class) {
+            writeByte(INT);
+            writeInt((Integer) value);
+        } else if (clazz == Long.class) {
+            writeByte(LONG);
+            writeLong((Long) value);
+        } else if (clazz == Float.class) {
+            writeByte(FLOAT);
+            writeFloat((Float) value);
+        } else if (clazz == Double.class) {
+            writeByte(DOUBLE);
+            writeDouble((Double) value);
+        } else if (clazz == Boolean.class) {
+            writeByte(BOOLEAN);
+            writeBoolean((Boolean) value);
+        } else if (clazz == Object[].class) {
+            writeByte(OBJECT_ARRAY);
+            writeValues((Object[]) value);
+        } else if (clazz == HashMap.class) {
+            writeByte(HASH_MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        } else if (clazz == ArrayList.class) {
+            writeByte(ARRAY_LIST);
+            ArrayList<?> list = (ArrayList<?>) value;
+            writeInt(list.size());
+            for (Object item : list) {
+                writeValue(item);
+            }
+        } else if (clazz == IncrementalSnapshot.class) {
+            writeByte(INCREMENTAL_SNAPSHOT);
+            IncrementalSnapshot incrementalSnapshot = (IncrementalSnapshot) value;
+            writeValue(incrementalSnapshot.getPreviousRevision());
+            writeValue(incrementalSnapshot.getSnapshots());
+        } else {
+            writeByte(OBJECT);
+            writeObject(value);
+        }
+    }
+
+    /**
+     * Write the given array of values, such that it can be read via {@link SnapshotInputStream#readValues()}.
+     *
+     * @param values values to be written, can be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeValues(Object[] values) throws IOException {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        writeInt(values.length);
+        for (Object value : values) {
+            writeValue(value);
+        }
+    }
+}
@@ -19,11 +19,15 @@ package org.wso2.siddhi.core.util.snapshot;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.persistence.StreamingPersistenceStore;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -33,6 +37,7 @@ public class SnapshotService {
 
     private static final Logger log = Logger.getLogger(SnapshotService.class);
     private HashMap<String, List<Snapshotable>> snapshotableMap = new HashMap<String, List<Snapshotable>>();
+    private ThreadLocal<List<Snapshotable>> recordedSnapshotables = new ThreadLocal<List<Snapshotable>>();
     private SiddhiAppContext siddhiAppContext;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
@@ -41,6 +46,10 @@ public class SnapshotService {
 
     public synchronized void addSnapshotable(String queryName, Snapshotable snapshotable) {
 
+        List<Snapshotable> recordedList = recordedSnapshotables.get();
+        if (recordedList != null) {
+            recordedList.add(snapshotable);
+        }
         List<Snapshotable> snapshotableList = snapshotableMap.get(queryName);
 
         // if List does not exist create it
@@ -56,26 +65,72 @@ public class SnapshotService {
         }
     }
 
+    /**
+     * Remove the given snapshotable elements, so that their state will no longer be persisted
+     *
+     * @param snapshotables elements to be removed
+     */
+    public synchronized void removeSnapshotables(List<Snapshotable> snapshotables) {
+        if (snapshotables.isEmpty()) {
+            return;
+        }
+        Set<Snapshotable> removedSnapshotables = Collections.newSetFromMap(
+                new IdentityHashMap<Snapshotable, Boolean>(snapshotables.size()));
+        removedSnapshotables.addAll(snapshotables);
+        for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+            snapshotableList.removeIf(removedSnapshotables::contains);
+        }
+    }
+
+    /**
+     * Start recording the snapshotable elements added by the current thread
+     */
+    public void startRecording() {
+        recordedSnapshotables.set(new ArrayList<Snapshotable>());
+    }
+
+    /**
+     * Stop recording the snapshotable elements added by the current thread
+     *
+     * @return snapshotable elements added since {@link #startRecording()}
+     */
+    public List<Snapshotable> stopRecording() {
+        List<Snapshotable> recordedList = recordedSnapshotables.get();
+        recordedSnapshotables.remove();
+        return recordedList;
+    }
+
     public byte[] snapshot() {
-        HashMap<String, Map<String, Object>> snapshots = new HashMap<>(snapshotableMap.size());
-        List<Snapshotable> snapshotableList;
-        byte[] serializedSnapshots;
+        Map<String, Object> snapshots = captureSnapshot();
+        // the captured states are detached from the elements, hence serialized while the events are being processed
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization started ...");
+        }
+        byte[] serializedSnapshots = siddhiAppContext.getSiddhiContext().getSnapshotCodec().encode(snapshots);
+        if (log.isDebugEnabled()) {
+            log.debug("Snapshot serialization finished.");
+        }
+        return serializedSnapshots;
+    }
+
+    /**
+     * Capture the state of all the elements. The returned state is detached from the elements, hence it can be
+     * encoded via the {@link SnapshotCodec} while the events are being processed.
+     *
+     * @return captured states keyed by the element ids
+     */
+    public Map<String, Object> captureSnapshot() {
+        HashMap<String, Object> snapshots = new HashMap<>(snapshotableMap.size());
+        SnapshotCodec snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
         if (log.isDebugEnabled()) {
             log.debug("Taking snapshot ...");
         }
         try {
             siddhiAppContext.getThreadBarrier().lock();
-            for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                snapshotableList = entry.getValue();
-                snapshotableList.forEach(snapshotableElement -> snapshots.put(snapshotableElement.getElementId(),
-                                                                              snapshotableElement.currentState()));
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization started ...");
-            }
-            serializedSnapshots = ByteSerializer.objectToByte(snapshots);
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization finished.");
+            for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+                for (Snapshotable snapshotable : snapshotableList) {
+                    snapshots.put(snapshotable.getElementId(), captureState(snapshotable, snapshotCodec));
+                }
             }
         } finally {
             siddhiAppContext.getThreadBarrier().unlock();
@@ -83,8 +138,156 @@ public class SnapshotService {
         if (log.isDebugEnabled()) {
             log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
         }
+        return snapshots;
+    }
 
-        return serializedSnapshots;
+    /**
+     * Take a snapshot containing only the elements whose state changed since the last incremental snapshot.
+     * Elements which do not track their state changes are always included.
+     *
+     * @param previousRevision revision of the previous snapshot in the chain, null to take a base snapshot
+     *                         containing all the elements
+     * @return serialized {@link IncrementalSnapshot}, or the serialized base snapshot when previousRevision is null
+     */
+    public byte[] incrementalSnapshot(String previousRevision) {
+        return siddhiAppContext.getSiddhiContext().getSnapshotCodec().encode(
+                captureIncrementalSnapshot(previousRevision));
+    }
+
+    /**
+     * Capture the state of the elements whose state changed since the last incremental snapshot, as in
+     * {@link #incrementalSnapshot(String)}, without encoding it.
+     *
+     * @param previousRevision revision of the previous snapshot in the chain, null to take a base snapshot
+     *                         containing all the elements
+     * @return captured {@link IncrementalSnapshot}, or the captured base snapshot when previousRevision is null
+     */
+    public Object captureIncrementalSnapshot(String previousRevision) {
+        HashMap<String, Object> snapshots;
+        if (log.isDebugEnabled()) {
+            log.debug("Taking incremental snapshot ...");
+        }
+        try {
+            siddhiAppContext.getThreadBarrier().lock();
+            snapshots = collectStates(previousRevision, true);
+        } finally {
+            siddhiAppContext.getThreadBarrier().unlock();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Incremental snapshot with " + snapshots.size() + " elements taken for Siddhi app '" +
+                    siddhiAppContext.getName() + "'");
+        }
+        if (previousRevision == null) {
+            return snapshots;
+        }
+        return new IncrementalSnapshot(previousRevision, snapshots);
+    }
+
+    /**
+     * Take a snapshot as in {@link #captureIncrementalSnapshot(String)}, and encode it straight into the given store
+     * while the thread barrier is held. The states are neither copied nor held in their encoded form, hence the heap
+     * usage does not grow with the size of the state, at the cost of holding back the events until it is saved.
+     *
+     * @param previousRevision revision of the previous snapshot in the chain, null to take a base snapshot
+     *                         containing all the elements
+     * @param persistenceStore store to save the snapshot
+     * @param revision         revision under which the snapshot is saved
+     */
+    public void streamIncrementalSnapshot(String previousRevision, StreamingPersistenceStore persistenceStore,
+                                          String revision) {
+        SnapshotCodec snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
+        if (log.isDebugEnabled()) {
+            log.debug("Taking and saving incremental snapshot ...");
+        }
+        try {
+            siddhiAppContext.getThreadBarrier().lock();
+            HashMap<String, Object> snapshots = collectStates(previousRevision, false);
+            if (previousRevision == null) {
+                persistenceStore.save(siddhiAppContext.getName(), revision,
+                        outputStream -> snapshotCodec.encode(snapshots, outputStream));
+            } else {
+                IncrementalSnapshot incrementalSnapshot = new IncrementalSnapshot(previousRevision, snapshots);
+                persistenceStore.save(siddhiAppContext.getName(), revision, previousRevision,
+                        outputStream -> snapshotCodec.encode(incrementalSnapshot, outputStream));
+            }
+        } finally {
+            siddhiAppContext.getThreadBarrier().unlock();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Incremental snapshot saved for Siddhi app '" + siddhiAppContext.getName() + "'");
+        }
+    }
+
+    /**
+     * Collect the states of the elements changed since the last incremental snapshot. Should be called while holding
+     * the thread barrier.
+     *
+     * @param previousRevision revision of the previous snapshot in the chain, null to collect all the elements
+     * @param copy             whether the states are detached from the elements via {@link #captureState}, or
+     *                         referred as they are, hence should be encoded before releasing the thread barrier
+     * @return states keyed by the element ids
+     */
+    private HashMap<String, Object> collectStates(String previousRevision, boolean copy) {
+        HashMap<String, Object> snapshots = new HashMap<>(snapshotableMap.size());
+        SnapshotCodec snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
+        for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+            for (Snapshotable snapshotable : snapshotableList) {
+                if (snapshotable instanceof IncrementalSnapshotable) {
+                    IncrementalSnapshotable incrementalSnapshotable = (IncrementalSnapshotable) snapshotable;
+                    // cleared before capturing, such that a change made meanwhile, e.g. by a scheduler thread not
+                    // held by the thread barrier, is included in the next snapshot rather than lost
+                    boolean stateChanged = incrementalSnapshotable.isStateChanged();
+                    incrementalSnapshotable.clearStateChanged();
+                    if (previousRevision != null && !stateChanged) {
+                        continue;
+                    }
+                }
+                snapshots.put(snapshotable.getElementId(),
+                        copy ? captureState(snapshotable, snapshotCodec) : snapshotable.currentState());
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Capture the current state of the given element. The state is copied via {@link StateCopier} such that it can
+     * be serialized after releasing the thread barrier, and it is encoded right away if it cannot be copied. The
+     * copy is held until the snapshot is persisted, hence it is only taken when the states are not encoded straight
+     * into the store via {@link #streamIncrementalSnapshot(String, StreamingPersistenceStore, String)}.
+     *
+     * @param snapshotable  element whose state should be captured
+     * @param snapshotCodec codec used to encode the states that cannot be copied
+     * @return detached state map, or {@link EncodedState}
+     */
+    private Object captureState(Snapshotable snapshotable, SnapshotCodec snapshotCodec) {
+        Map<String, Object> state = snapshotable.currentState();
+        if (state == null) {
+            return null;
+        }
+        Object stateCopy = StateCopier.copy(state, new IdentityHashMap<Object, Object>());
+        if (stateCopy == StateCopier.UNCOPYABLE) {
+            return new EncodedState(snapshotCodec.encode(state));
+        }
+        return stateCopy;
+    }
+
+    /**
+     * Mark the state of all elements as unchanged, such that the next incremental snapshot is relative to the
+     * current state.
+     */
+    public void clearStateChanges() {
+        try {
+            siddhiAppContext.getThreadBarrier().lock();
+            for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+                for (Snapshotable snapshotable : snapshotableList) {
+                    if (snapshotable instanceof IncrementalSnapshotable) {
+                        ((IncrementalSnapshotable) snapshotable).clearStateChanged();
+                    }
+                }
+            }
+        } finally {
+            siddhiAppContext.getThreadBarrier().unlock();
+        }
     }
 
     public Map<String, Object> queryState(String queryName) {
@@ -113,15 +316,27 @@ public class SnapshotService {
 
 
     public void restore(byte[] snapshot) {
-        Map<String, Map<String, Object>> snapshots = (Map<String, Map<String, Object>>)
-                ByteSerializer.byteToObject(snapshot);
+        restore((Map<String, Object>) siddhiAppContext.getSiddhiContext().getSnapshotCodec().decode(snapshot));
+    }
+
+    /**
+     * Restore the elements from the given states.
+     *
+     * @param snapshots state maps or {@link EncodedState}s of the elements, keyed by their element ids
+     */
+    public void restore(Map<String, Object> snapshots) {
         List<Snapshotable> snapshotableList;
+        SnapshotCodec snapshotCodec = siddhiAppContext.getSiddhiContext().getSnapshotCodec();
         try {
             this.siddhiAppContext.getThreadBarrier().lock();
             for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
                 snapshotableList = entry.getValue();
                 for (Snapshotable snapshotable : snapshotableList) {
-                    snapshotable.restoreState(snapshots.get(snapshotable.getElementId()));
+                    Object state = snapshots.get(snapshotable.getElementId());
+                    if (state instanceof EncodedState) {
+                        state = snapshotCodec.decode(((EncodedState) state).getBytes());
+                    }
+                    snapshotable.restoreState((Map<String, Object>) state);
                 }
             }
         } finally {
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Creates detached copies of snapshot state, so that the copies can be serialized while the elements continue to
+ * process events. Events, event chunks, data arrays and the common collection types are copied, while immutable
+ * values are shared. Any other object cannot be copied, and {@link #UNCOPYABLE} is returned instead.
+ */
+public class StateCopier {
+
+    public static final Object UNCOPYABLE = new Object();
+
+    private StateCopier() {
+    }
+
+    /**
+     * Copy the given state value.
+     *
+     * @param value  value to be copied
+     * @param copies copies created so far, used to preserve shared references within the state
+     * @return detached copy of the value, or {@link #UNCOPYABLE} if the value or any object it refers cannot be
+     * copied
+     */
+    public static Object copy(Object value, IdentityHashMap<Object, Object> copies) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character ||
+                value instanceof Enum || isImmutableNumber(value)) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        Class<?> clazz = value.getClass();
+        if (clazz == StreamEvent.class) {
+            return copyStreamEvents((StreamEvent) value, copies);
+        } else if (clazz == StateEvent.class) {
+            return copyStateEvents((StateEvent) value, copies);
+        } else if (clazz == Object[].class) {
+            return copyArray((Object[]) value, copies);
+        } else if (clazz.isArray() && clazz.getComponentType().isPrimitive()) {
+            int length = Array.getLength(value);
+            Object arrayCopy = Array.newInstance(clazz.getComponentType(), length);
+            System.arraycopy(value, 0, arrayCopy, 0, length);
+            copies.put(value, arrayCopy);
+            return arrayCopy;
+        } else if (clazz == ComplexEventChunk.class) {
+            ComplexEventChunk<ComplexEvent> eventChunk = (ComplexEventChunk<ComplexEvent>) value;
+            ComplexEventChunk<ComplexEvent> eventChunkCopy = new ComplexEventChunk<ComplexEvent>(eventChunk.isBatch());
+            copies.put(value, eventChunkCopy);
+            Object first = copy(eventChunk.getFirst(), copies);
+            if (first == UNCOPYABLE) {
+                return UNCOPYABLE;
+            }
+            if (first != null) {
+                eventChunkCopy.add((ComplexEvent) first);
+            }
+            return eventChunkCopy;
+        } else if (value instanceof Map) {
+            Map<Object, Object> mapCopy = newMap((Map<Object, Object>) value);
+            if (mapCopy == null) {
+                return UNCOPYABLE;
+            }
+            copies.put(value, mapCopy);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object key = copy(entry.getKey(), copies);
+                Object entryValue = copy(entry.getValue(), copies);
+                if (key == UNCOPYABLE || entryValue == UNCOPYABLE) {
+                    return UNCOPYABLE;
+                }
+                mapCopy.put(key, entryValue);
+            }
+            return mapCopy;
+        } else if (value instanceof Collection) {
+            Collection<Object> collectionCopy = newCollection((Collection<Object>) value);
+            if (collectionCopy == null) {
+                return UNCOPYABLE;
+            }
+            copies.put(value, collectionCopy);
+            for (Object item : (Collection<?>) value) {
+                Object itemCopy = copy(item, copies);
+                if (itemCopy == UNCOPYABLE) {
+                    return UNCOPYABLE;
+                }
+                collectionCopy.add(itemCopy);
+            }
+            return collectionCopy;
+        }
+        return UNCOPYABLE;
+    }
+
+    private static boolean isImmutableNumber(Object value) {
+        Class<?> clazz = value.getClass();
+        return clazz == Integer.class || clazz == Long.class || clazz == Float.class || clazz == Double.class ||
+                clazz == Short.class || clazz == Byte.class;
+    }
+
+    private static Object copyArray(Object[] values, IdentityHashMap<Object, Object> copies) {
+        Object[] valuesCopy = new Object[values.length];
+        copies.put(values, valuesCopy);
+        for (int i = 0; i < values.length; i++) {
+            Object valueCopy = copy(values[i], copies);
+            if (valueCopy == UNCOPYABLE) {
+                return UNCOPYABLE;
+            }
+            valuesCopy[i] = valueCopy;
+        }
+        return valuesCopy;
+    }
+
+    private static Object copyStreamEvents(StreamEvent streamEvent, IdentityHashMap<Object, Object> copies) {
+        StreamEvent firstCopy = null;
+        StreamEvent previousCopy = null;
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            StreamEvent eventCopy = (StreamEvent) copies.get(event);
+            if (eventCopy != null) {
+                // rest of the chain is already copied
+                if (previousCopy == null) {
+                    return eventCopy;
+                }
+                previousCopy.setNext(eventCopy);
+                break;
+            }
+            eventCopy = new StreamEvent(0, 0, 0);
+            copies.put(event, eventCopy);
+            Object beforeWindowData = copy(event.getBeforeWindowData(), copies);
+            Object onAfterWindowData = copy(event.getOnAfterWindowData(), copies);
+            Object outputData = copy(event.getOutputData(), copies);
+            if (beforeWindowData == UNCOPYABLE || onAfterWindowData == UNCOPYABLE || outputData == UNCOPYABLE) {
+                return UNCOPYABLE;
+            }
+            eventCopy.setBeforeWindowData((Object[]) beforeWindowData);
+            eventCopy.setOnAfterWindowData((Object[]) onAfterWindowData);
+            eventCopy.setOutputData((Object[]) outputData);
+            eventCopy.setType(event.getType());
+            eventCopy.setTimestamp(event.getTimestamp());
+            if (previousCopy == null) {
+                firstCopy = eventCopy;
+            } else {
+                previousCopy.setNext(eventCopy);
+            }
+            previousCopy = eventCopy;
+        }
+        return firstCopy;
+    }
+
+    private static Object copyStateEvents(StateEvent stateEvent, IdentityHashMap<Object, Object> copies) {
+        StateEvent firstCopy = null;
+        StateEvent previousCopy = null;
+        for (StateEvent event = stateEvent; event != null; event = event.getNext()) {
+            StateEvent eventCopy = (StateEvent) copies.get(event);
+            if (eventCopy != null) {
+                // rest of the chain is already copied
+                if (previousCopy == null) {
+                    return eventCopy;
+                }
+                previousCopy.setNext(eventCopy);
+                break;
+            }
+            StreamEvent[] streamEvents = event.getStreamEvents();
+            Object[] outputData = event.getOutputData();
+            eventCopy = new StateEvent(streamEvents.length, outputData == null ? 0 : outputData.length);
+            copies.put(event, eventCopy);
+            for (int i = 0; i < streamEvents.length; i++) {
+                Object streamEventCopy = copy(streamEvents[i], copies);
+                if (streamEventCopy == UNCOPYABLE) {
+                    return UNCOPYABLE;
+                }
+                eventCopy.setEvent(i, (StreamEvent) streamEventCopy);
+            }
+            if (outputData != null) {
+                for (int i = 0; i < outputData.length; i++) {
+                    Object valueCopy = copy(outputData[i], copies);
+                    if (valueCopy == UNCOPYABLE) {
+                        return UNCOPYABLE;
+                    }
+                    eventCopy.setOutputData(valueCopy, i);
+                }
+            }
+            eventCopy.setType(event.getType());
+            eventCopy.setTimestamp(event.getTimestamp());
+            eventCopy.setId(event.getId());
+            if (previousCopy == null) {
+                firstCopy = eventCopy;
+            } else {
+                previousCopy.setNext(eventCopy);
+            }
+            previousCopy = eventCopy;
+        }
+        return firstCopy;
+    }
+
+    private static Map<Object, Object> newMap(Map<Object, Object> map) {
+        Class<?> clazz = map.getClass();
+        if (clazz == HashMap.class) {
+            return new HashMap<Object, Object>(Math.max((int) (map.size() / .75f) + 1, 16));
+        } else if (clazz == LinkedHashMap.class) {
+            return new LinkedHashMap<Object, Object>(Math.max((int) (map.size() / .75f) + 1, 16));
+        } else if (clazz == TreeMap.class) {
+            return new TreeMap<Object, Object>(((TreeMap<Object, Object>) map).comparator());
+        } else if (clazz == ConcurrentHashMap.class) {
+            return new ConcurrentHashMap<Object, Object>(map.size());
+        }
+        return null;
+    }
+
+    private static Collection<Object> newCollection(Collection<Object> collection) {
+        Class<?> clazz = collection.getClass();
+        if (clazz == ArrayList.class) {
+            return new ArrayList<Object>(collection.size());
+        } else if (clazz == LinkedList.class) {
+            return new LinkedList<Object>();
+        } else if (clazz == ArrayDeque.class) {
+            return new ArrayDeque<Object>(collection.size());
+        } else if (clazz == HashSet.class) {
+            return new HashSet<Object>(Math.max((int) (collection.size() / .75f) + 1, 16));
+        } else if (clazz == LinkedHashSet.class) {
+            return new LinkedHashSet<Object>(Math.max((int) (collection.size() / .75f) + 1, 16));
+        } else if (clazz == TreeSet.class) {
+            return new TreeSet<Object>(((TreeSet<Object>) collection).comparator());
+        } else if (clazz == LinkedBlockingQueue.class) {
+            LinkedBlockingQueue<Object> queue = (LinkedBlockingQueue<Object>) collection;
+            return new LinkedBlockingQueue<Object>(queue.size() + queue.remainingCapacity());
+        }
+        return null;
+    }
+}
@@ -33,6 +33,28 @@ public interface StatisticsTrackerFactory {
 
     MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager);
 
+    /**
+     * Create a tracker of the event pool reuse. Factories not supporting it track nothing.
+     *
+     * @param statisticsManager statistics manager of the app
+     * @return event pool tracker
+     */
+    default EventPoolTracker createEventPoolTracker(StatisticsManager statisticsManager) {
+        return (eventPool, name) -> {
+        };
+    }
+
+    /**
+     * Create a tracker of the partition instances. Factories not supporting it track nothing.
+     *
+     * @param statisticsManager statistics manager of the app
+     * @return partition instance tracker
+     */
+    default PartitionInstanceTracker createPartitionInstanceTracker(StatisticsManager statisticsManager) {
+        return (partitionRuntime, name) -> {
+        };
+    }
+
     StatisticsManager createStatisticsManager(List<Element> elements);
 
 }
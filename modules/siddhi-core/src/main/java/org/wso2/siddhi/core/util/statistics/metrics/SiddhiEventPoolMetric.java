@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.event.EventPool;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class to publish the hit, miss and buffered event counts of Siddhi event pools.
+ */
+public class SiddhiEventPoolMetric implements EventPoolTracker {
+    private ConcurrentMap<String, EventPool> registeredEventPools = new ConcurrentHashMap<String, EventPool>();
+    private MetricRegistry metricRegistry;
+
+    public SiddhiEventPoolMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Register the event pool that needs to be monitored
+     *
+     * @param eventPool Event pool
+     * @param name      An unique value to identify the event pool.
+     */
+    @Override
+    public void registerEventPool(final EventPool eventPool, String name) {
+        if (registeredEventPools.putIfAbsent(name, eventPool) == null) {
+            metricRegistry.register(name + ".hits", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return eventPool.getHitCount();
+                }
+            });
+            metricRegistry.register(name + ".misses", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return eventPool.getMissCount();
+                }
+            });
+            metricRegistry.register(name + ".buffered", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return eventPool.getBufferedEventsSize();
+                }
+            });
+        }
+    }
+}
@@ -18,8 +18,10 @@
 
 package org.wso2.siddhi.core.util.statistics.metrics;
 
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.core.util.statistics.PartitionInstanceTracker;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
 import org.wso2.siddhi.core.util.statistics.StatisticsTrackerFactory;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
@@ -44,6 +46,14 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiMemoryUsageMetric(statisticsManager.getRegistry());
     }
 
+    public EventPoolTracker createEventPoolTracker(StatisticsManager statisticsManager) {
+        return new SiddhiEventPoolMetric(statisticsManager.getRegistry());
+    }
+
+    public PartitionInstanceTracker createPartitionInstanceTracker(StatisticsManager statisticsManager) {
+        return new SiddhiPartitionInstanceMetric(statisticsManager.getRegistry());
+    }
+
     @Override
     public StatisticsManager createStatisticsManager(List<Element> elements) {
         return new SiddhiStatisticsManager(elements);
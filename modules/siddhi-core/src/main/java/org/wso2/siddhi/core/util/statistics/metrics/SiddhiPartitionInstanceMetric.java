@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.partition.PartitionRuntime;
+import org.wso2.siddhi.core.util.statistics.PartitionInstanceTracker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class to publish the active and purged instance counts of Siddhi partitions.
+ */
+public class SiddhiPartitionInstanceMetric implements PartitionInstanceTracker {
+    private ConcurrentMap<String, PartitionRuntime> registeredPartitions =
+            new ConcurrentHashMap<String, PartitionRuntime>();
+    private MetricRegistry metricRegistry;
+
+    public SiddhiPartitionInstanceMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Register the partition that needs to be monitored
+     *
+     * @param partitionRuntime Partition runtime
+     * @param name             An unique value to identify the partition.
+     */
+    @Override
+    public void registerPartition(final PartitionRuntime partitionRuntime, String name) {
+        if (registeredPartitions.putIfAbsent(name, partitionRuntime) == null) {
+            metricRegistry.register(name + ".instances", new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return partitionRuntime.getPartitionInstanceCount();
+                }
+            });
+            metricRegistry.register(name + ".purged", new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return partitionRuntime.getPurgedInstanceCount();
+                }
+            });
+        }
+    }
+}
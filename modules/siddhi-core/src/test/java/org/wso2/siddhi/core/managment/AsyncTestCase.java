@@ -25,10 +25,14 @@ import org.junit.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AsyncTestCase {
     private static final Logger log = Logger.getLogger(AsyncTestCase.class);
     private int count;
@@ -316,4 +320,165 @@ public class AsyncTestCase {
 
     }
 
+    @Test
+    public void asyncTest6() throws InterruptedException {
+        log.info("async test 6");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='yielding', producer.type='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"FB", 7.6f, 100});
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(2, count);
+
+    }
+
+    @Test
+    public void asyncTest7() throws InterruptedException {
+        log.info("async test 7");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:async(buffer.size='16', wait.strategy='phasedBackoff') " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream[volume > 90] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"FB", 7.6f, 10});
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(1, count);
+
+    }
+
+    @Test(expected = SiddhiAppCreationException.class)
+    public void asyncTest8() throws InterruptedException {
+        log.info("async test 8");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(wait.strategy='unknown')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            siddhiAppRuntime.start();
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='4')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[10];
+        List<Event> eventList = new ArrayList<Event>();
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, i});
+            eventList.add(new Event(System.currentTimeMillis(), new Object[]{"IBM", 75.6f, i}));
+        }
+        eventList.add(new Event(System.currentTimeMillis(), new Object[]{"FB", 5.6f, 10}));
+        inputHandler.send(events);
+        inputHandler.send(eventList);
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(11, count);
+
+    }
+
 }
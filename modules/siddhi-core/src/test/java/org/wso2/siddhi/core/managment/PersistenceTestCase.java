@@ -26,13 +26,22 @@ import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.persistence.StreamingPersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.ExecutionException;
 
 public class PersistenceTestCase {
@@ -595,4 +604,763 @@ public class PersistenceTestCase {
 
     }
 
+    @Test
+    public void persistenceTest8() throws InterruptedException, ExecutionException {
+        log.info("persistence test 8 - incremental persistence");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream TradeStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream; " +
+                "" +
+                "@info(name = 'query2')" +
+                "from TradeStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream; ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", queryCallback);
+
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        InputHandler tradeStream = siddhiAppRuntime.getInputHandler("TradeStream");
+        siddhiAppRuntime.start();
+
+        //persisting base revision
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+        tradeStream.send(new Object[]{"WSO2", 57.6f, 10});
+
+        //persisting changes of both queries
+        Thread.sleep(10);
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+
+        //persisting changes of query1 only
+        Thread.sleep(10);
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+        tradeStream.send(new Object[]{"WSO2", 57.6f, 10});
+
+        //restarting siddhi app
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        siddhiAppRuntime.addCallback("query2", queryCallback);
+        stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        tradeStream = siddhiAppRuntime.getInputHandler("TradeStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        siddhiAppRuntime.restoreLastRevision();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+        Assert.assertEquals(new Long(300), lastValue);
+        tradeStream.send(new Object[]{"WSO2", 57.6f, 10});
+        Assert.assertEquals(new Long(20), lastValue);
+
+        //persisting after restore chains to the restored revision
+        Thread.sleep(10);
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        siddhiAppRuntime.restoreLastRevision();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+
+        //shutdown siddhi app
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(new Long(400), lastValue);
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest9() throws InterruptedException, ExecutionException {
+        log.info("persistence test 9 - snapshot codecs");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiManager.setSnapshotCodec(new JavaSnapshotCodec());
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 10});
+
+        //persisting with java serialization
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        //restoring the java serialized revision with the compressed binary codec
+        siddhiManager.setSnapshotCodec(new BinarySnapshotCodec(true));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Assert.assertEquals(new Long(200), lastValue);
+
+        //persisting with the compressed binary codec
+        Thread.sleep(10);
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 10});
+        Assert.assertEquals(new Long(20), lastValue);
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Assert.assertEquals(new Long(300), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest10() throws InterruptedException, ExecutionException {
+        log.info("persistence test 10 - table query");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream CheckStockStream ( symbol string );" +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream " +
+                "insert into StockTable; " +
+                "" +
+                "@info(name = 'query2')" +
+                "from CheckStockStream join StockTable " +
+                "on CheckStockStream.symbol == StockTable.symbol " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream; ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = ((Integer) inEvent.getData(2)).longValue();
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query2", queryCallback);
+        InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        stockStream.send(new Object[]{"IBM", 75.6f, 100});
+        stockStream.send(new Object[]{"WSO2", 57.6f, 10});
+
+        //persisting
+        siddhiAppRuntime.persist().getFuture().get();
+
+        stockStream.send(new Object[]{"ORACLE", 50.6f, 5});
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query2", queryCallback);
+        InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        siddhiAppRuntime.restoreLastRevision();
+
+        checkStockStream.send(new Object[]{"ORACLE"});
+        Assert.assertEquals(0, count);
+        checkStockStream.send(new Object[]{"WSO2"});
+        Assert.assertEquals(1, count);
+        Assert.assertEquals(new Long(10), lastValue);
+
+        //shutdown siddhi app
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest11() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 11 - file system persistence store with retention");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(folder.toString(), 3);
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        PersistenceReference persistenceReference = null;
+        String expiredRevision = null;
+        for (int i = 0; i < 3; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+            Thread.sleep(10);
+            persistenceReference = siddhiAppRuntime.persist();
+            persistenceReference.getFuture().get();
+            if (i == 1) {
+                expiredRevision = persistenceReference.getRevision();
+            }
+        }
+        //incremental revisions based on the last full revision
+        Thread.sleep(10);
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Thread.sleep(10);
+        persistenceReference = siddhiAppRuntime.persistIncrementally();
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        //only the last 3 revisions are retained
+        Assert.assertFalse(Files.exists(folder.resolve("Test").resolve(expiredRevision)));
+        Assert.assertEquals(persistenceReference.getRevision(),
+                new FileSystemPersistenceStore(folder.toString(), 3).getLastRevision("Test"));
+
+        //restoring with a new store instance
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 3));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(new Long(500), lastValue);
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest12() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 12 - restoring an incremental revision with a missing base revision");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(folder.toString(), 0);
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        String baseRevision = persistenceReference.getRevision();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        persistenceReference = siddhiAppRuntime.persistIncrementally();
+        persistenceReference.getFuture().get();
+        //revisions persisted within the same millisecond are still unique
+        Assert.assertFalse(baseRevision.equals(persistenceReference.getRevision()));
+        siddhiAppRuntime.shutdown();
+
+        Files.delete(folder.resolve("Test").resolve(baseRevision));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+            Assert.fail("Restoring a revision with a missing base revision should fail");
+        } catch (SiddhiAppRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains(baseRevision));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+
+    }
+
+    @Test
+    public void persistenceTest13() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 13 - file system persistence store retaining the base of incremental revisions");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+        Path appFolder = folder.resolve("Test");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(folder.toString(), 2);
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        String baseRevision = persistenceReference.getRevision();
+        String firstIncrementalRevision = null;
+        for (int i = 0; i < 3; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+            persistenceReference = siddhiAppRuntime.persistIncrementally();
+            persistenceReference.getFuture().get();
+            if (i == 0) {
+                firstIncrementalRevision = persistenceReference.getRevision();
+            }
+        }
+
+        //the chain of the retained incremental revisions is retained beyond revisionsToKeep
+        Assert.assertTrue(Files.exists(appFolder.resolve(baseRevision)));
+        Assert.assertTrue(Files.exists(appFolder.resolve(firstIncrementalRevision)));
+        siddhiAppRuntime.shutdown();
+
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 2));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Assert.assertEquals(new Long(500), lastValue);
+
+        //once the latest revisions no longer depend on the chain, it is deleted
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.persistIncrementally().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertFalse(Files.exists(appFolder.resolve(baseRevision)));
+        Assert.assertFalse(Files.exists(appFolder.resolve(firstIncrementalRevision)));
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest14() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 14 - round trip through a streaming persistence store");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(folder.toString(), 3);
+        Assert.assertTrue(persistenceStore instanceof StreamingPersistenceStore);
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, max(price) as maxPrice, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                if (inEvents != null) {
+                    lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 10});
+        inputHandler.send(new Object[]{"IBM", 80.6f, 200});
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        //the revision was streamed to the store and can be read back as a stream
+        InputStream inputStream = ((StreamingPersistenceStore) persistenceStore).loadAsStream("Test",
+                persistenceReference.getRevision());
+        Assert.assertNotNull(inputStream);
+        Assert.assertTrue(inputStream.read() != -1);
+        inputStream.close();
+
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 3));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+
+        //the group states and the window events are restored
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 20});
+        Assert.assertEquals(new Long(30), lastValue);
+        inputHandler.send(new Object[]{"IBM", 70.6f, 300});
+        Assert.assertEquals(new Long(500), lastValue);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest15() throws InterruptedException {
+        log.info("persistence test 15 - pattern revision restored after adding a within condition");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String streams = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from e1=Stream1[price>20] -> e2=Stream2[price>e1.price] ";
+        String selection = "" +
+                "select e1.symbol as symbol1, e2.symbol as symbol2 " +
+                "insert into OutputStream ;";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    Assert.assertArrayEquals(new Object[]{"WSO2", "IBM"}, inEvent.getData());
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query + selection);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler stream1 = siddhiAppRuntime.getInputHandler("Stream1");
+        siddhiAppRuntime.start();
+
+        stream1.send(new Object[]{"WSO2", 55.6f, 100});
+        Thread.sleep(100);
+
+        //persisting
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+
+        //restarting siddhi app with a within condition, which expires the partial matches eagerly
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query + "within 1 min " + selection);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler stream2 = siddhiAppRuntime.getInputHandler("Stream2");
+        siddhiAppRuntime.start();
+
+        //loading, the partial match is restored to the same state
+        siddhiAppRuntime.restoreLastRevision();
+
+        stream2.send(new Object[]{"IBM", 57.7f, 100});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals("Number of success events", 1, count);
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest16() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 16 - incremental revisions streamed to the store and states copied on request");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 0));
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                if (inEvents != null) {
+                    lastValue = (Long) inEvents[inEvents.length - 1].getData(1);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //the snapshots are saved while persisting, as they are encoded straight into the store
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        PersistenceReference baseReference = siddhiAppRuntime.persistIncrementally();
+        Assert.assertTrue(baseReference.getFuture().isDone());
+        inputHandler.send(new Object[]{"IBM", 80.6f, 200});
+        PersistenceReference persistenceReference = siddhiAppRuntime.persistIncrementally();
+        Assert.assertTrue(persistenceReference.getFuture().isDone());
+        siddhiAppRuntime.shutdown();
+
+        //the states are copied and saved asynchronously when requested
+        siddhiManager.setSnapshotStatesCopied(true);
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 0));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+
+        inputHandler.send(new Object[]{"IBM", 70.6f, 300});
+        Assert.assertEquals(new Long(600), lastValue);
+        persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+
+        inputHandler.send(new Object[]{"IBM", 72.6f, 400});
+        Assert.assertEquals(new Long(1000), lastValue);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest17() throws InterruptedException, ExecutionException, IOException {
+        log.info("persistence test 17 - incremental revisions rebased on a full revision periodically");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 1));
+        siddhiManager.setIncrementalSnapshotsPerBase(2);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                eventArrived = true;
+                if (inEvents != null) {
+                    lastValue = (Long) inEvents[inEvents.length - 1].getData(1);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //a base revision followed by two incremental revisions, all retained as the latest one needs them
+        PersistenceReference persistenceReference = null;
+        for (int i = 1; i <= 3; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+            persistenceReference = siddhiAppRuntime.persistIncrementally();
+            persistenceReference.getFuture().get();
+        }
+        Assert.assertEquals(4, Files.list(folder.resolve("Test")).count());
+
+        //the chain is complete, hence the next revision is a full one and the older chain is dropped
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        persistenceReference = siddhiAppRuntime.persistIncrementally();
+        persistenceReference.getFuture().get();
+        Assert.assertEquals(2, Files.list(folder.resolve("Test")).count());
+        siddhiAppRuntime.shutdown();
+
+        siddhiManager.setPersistenceStore(new FileSystemPersistenceStore(folder.toString(), 1));
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        Assert.assertEquals(new Long(500), lastValue);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(true, eventArrived);
+
+    }
+
+    @Test
+    public void persistenceTest18() throws IOException {
+        log.info("persistence test 18 - file system persistence store rejects empty snapshots and unsafe names");
+
+        Path folder = Files.createTempDirectory("siddhi-persistence");
+        PersistenceStore persistenceStore = new FileSystemPersistenceStore(folder.resolve("store").toString(), 3);
+
+        try {
+            persistenceStore.save("Test", "1_Test", null);
+            Assert.fail("Saving an empty snapshot should fail");
+        } catch (SiddhiAppRuntimeException e) {
+            log.info(e.getMessage());
+        }
+        try {
+            persistenceStore.save("../Test", "1_Test", new byte[]{1});
+            Assert.fail("Saving under a siddhi app name outside of the folder should fail");
+        } catch (SiddhiAppRuntimeException e) {
+            log.info(e.getMessage());
+        }
+        try {
+            persistenceStore.save("Test", "../../1_Test", new byte[]{1});
+            Assert.fail("Saving a revision outside of the folder should fail");
+        } catch (SiddhiAppRuntimeException e) {
+            log.info(e.getMessage());
+        }
+        Assert.assertFalse(Files.exists(folder.resolve("Test")));
+        Assert.assertFalse(Files.exists(folder.resolve("1_Test")));
+
+        persistenceStore.save("Test", "1_Test", new byte[]{1});
+        Assert.assertEquals(1, persistenceStore.load("Test", "1_Test")[0]);
+        Assert.assertEquals("1_Test", persistenceStore.getLastRevision("Test"));
+
+    }
+
 }
@@ -1754,4 +1754,83 @@ public class FilterTestCase2 {
 
     }
 
+    @Test
+    public void filterTest122() throws InterruptedException {
+        log.info("filter test122");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price float, volume long, " +
+                "quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[(price * quantity) + volume / quantity > 1000] " +
+                "select symbol, price * quantity + 1 as total, quantity * 2 + 1 as doubled " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                Assert.assertEquals("IBM", inEvents[0].getData(0));
+                Assert.assertEquals(1001.0f, inEvents[0].getData(1));
+                Assert.assertEquals(21, inEvents[0].getData(2));
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 100f, 100L, 10});
+        inputHandler.send(new Object[]{"WSO2", 100f, 100L, 0});
+        inputHandler.send(new Object[]{"ORACLE", null, 100L, 10});
+        inputHandler.send(new Object[]{"GOOG", 10f, 100L, 10});
+        Thread.sleep(100);
+        Assert.assertEquals(1, count);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[volume * 2 != price + 50] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                count = count + inEvents.length;
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 150d, 100L});
+        inputHandler.send(new Object[]{"WSO2", 50d, 100L});
+        inputHandler.send(new Object[]{"ORACLE", 50d, null});
+        Thread.sleep(100);
+        Assert.assertEquals(2, count);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
 }
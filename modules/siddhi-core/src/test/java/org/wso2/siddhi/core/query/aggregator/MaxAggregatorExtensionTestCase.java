@@ -28,6 +28,12 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class MaxAggregatorExtensionTestCase {
     private static final Logger log = Logger.getLogger(MaxAggregatorExtensionTestCase.class);
@@ -96,4 +102,115 @@ public class MaxAggregatorExtensionTestCase {
 
     }
 
+    @Test
+    public void testMaxAggregatorExtension2() throws InterruptedException {
+        log.info("MaxAggregator TestCase 2");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (price int);";
+        String query = ("@info(name = 'query1') " +
+                "from inputStream#window.length(2) " +
+                "select max(price) as maxValue " +
+                "insert into outputStream;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                    switch (count) {
+                        case 1:
+                            Assert.assertEquals(3, event.getData(0));
+                            break;
+                        case 2:
+                            Assert.assertEquals(5, event.getData(0));
+                            break;
+                        case 3:
+                            Assert.assertEquals(5, event.getData(0));
+                            break;
+                        case 4:
+                            Assert.assertEquals(3, event.getData(0));
+                            break;
+                        case 5:
+                            Assert.assertEquals(4, event.getData(0));
+                            break;
+                        default:
+                            org.junit.Assert.fail();
+                    }
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{3});
+        inputHandler.send(new Object[]{5});
+        inputHandler.send(new Object[]{3});
+        inputHandler.send(new Object[]{1});
+        inputHandler.send(new Object[]{4});
+        Thread.sleep(300);
+
+        Assert.assertEquals(5, count);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void testMaxAggregatorExtension3() throws InterruptedException, ExecutionException {
+        log.info("MaxAggregator TestCase 3 - restoring a window with dropped dominated values");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "@app:name('MaxTest') " +
+                "define stream inputStream (price int);" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select max(price) as maxValue " +
+                "insert into outputStream;";
+        final List<Object> maxValues = new ArrayList<>();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    maxValues.add(event.getData(0));
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", streamCallback);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        // 3 is dominated by 4 and is not kept, but still occupies its position in the window
+        inputHandler.send(new Object[]{5});
+        inputHandler.send(new Object[]{3});
+        inputHandler.send(new Object[]{4});
+        siddhiAppRuntime.persist().getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", streamCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+
+        inputHandler.send(new Object[]{1});
+        inputHandler.send(new Object[]{2});
+        inputHandler.send(new Object[]{0});
+        Thread.sleep(100);
+
+        Assert.assertEquals(Arrays.<Object>asList(5, 5, 5, 4, 4, 2), maxValues);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -932,4 +932,116 @@ public class JoinTestCase {
             siddhiAppRuntime.shutdown();
         }
     }
+
+    @Test
+    public void joinTest21() throws InterruptedException {
+        log.info("Join test21");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream orderStream (id int, price float); " +
+                "define stream bidStream (id int, price float); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from orderStream#window.length(2) as o join bidStream#window.length(2) as b " +
+                "on o.id == b.id and o.price < b.price " +
+                "select o.id, o.price as orderPrice, b.price as bidPrice " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            switch (inEventCount.incrementAndGet()) {
+                                case 1:
+                                    Assert.assertArrayEquals(new Object[]{2, 20f, 25f}, event.getData());
+                                    break;
+                                case 2:
+                                    Assert.assertArrayEquals(new Object[]{3, 30f, 40f}, event.getData());
+                                    break;
+                                default:
+                                    Assert.fail();
+                            }
+                        }
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount.addAndGet(removeEvents.length);
+                    }
+                    eventArrived = true;
+                }
+            });
+            InputHandler orderStreamHandler = siddhiAppRuntime.getInputHandler("orderStream");
+            InputHandler bidStreamHandler = siddhiAppRuntime.getInputHandler("bidStream");
+            siddhiAppRuntime.start();
+            orderStreamHandler.send(new Object[]{1, 10f});
+            orderStreamHandler.send(new Object[]{2, 20f});
+            orderStreamHandler.send(new Object[]{3, 30f});
+            // the order with id 1 has left the window
+            bidStreamHandler.send(new Object[]{1, 50f});
+            bidStreamHandler.send(new Object[]{2, 15f});
+            bidStreamHandler.send(new Object[]{2, 25f});
+            bidStreamHandler.send(new Object[]{3, 40f});
+
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 6000);
+            Assert.assertEquals(2, inEventCount.get());
+            Assert.assertEquals(0, removeEventCount.get());
+            Assert.assertTrue(eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void joinTest22() throws InterruptedException {
+        log.info("Join test22");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price float, volume int); " +
+                "define stream twitterStream (user string, tweet string, company string); ";
+        String query = "" +
+                "@info(name = 'query1') @async(workers = '2') " +
+                "from cseEventStream#window.time(1 sec) join twitterStream#window.time(1 sec) " +
+                "on cseEventStream.symbol== twitterStream.company " +
+                "select cseEventStream.symbol as symbol, twitterStream.tweet, cseEventStream.price " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            Assert.assertTrue(siddhiAppRuntime.getQueryNames().contains("query1"));
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventCount.incrementAndGet();
+                            Assert.assertEquals("WSO2", event.getData(0));
+                        }
+                    }
+                    eventArrived = true;
+                }
+            });
+            InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+            InputHandler twitterStreamHandler = siddhiAppRuntime.getInputHandler("twitterStream");
+            siddhiAppRuntime.start();
+            cseEventStreamHandler.send(new Object[]{"WSO2", 55.6f, 100});
+            twitterStreamHandler.send(new Object[]{"User1", "Hello World", "WSO2"});
+            cseEventStreamHandler.send(new Object[]{"IBM", 75.6f, 100});
+            twitterStreamHandler.send(new Object[]{"User2", "Hello IBM", "GOOG"});
+            Thread.sleep(500);
+            cseEventStreamHandler.send(new Object[]{"WSO2", 57.6f, 100});
+
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 6000);
+            Thread.sleep(100);
+            Assert.assertEquals(2, inEventCount.get());
+            Assert.assertTrue(eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
 }
@@ -32,6 +32,7 @@ import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.execution.partition.Partition;
 import org.wso2.siddhi.query.api.execution.query.Query;
 import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
@@ -39,6 +40,11 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -1326,4 +1332,173 @@ public class PartitionTestCase {
         Assert.assertEquals(1, count.get());
         executionRuntime.shutdown();
     }
+
+    @Test
+    public void testPartitionQuery24() throws InterruptedException {
+        log.info("Partition test24 - purging idle partition instances");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest24') " +
+                "define stream streamA (symbol string, price int);" +
+                "@purge(enable='true', interval='500 millisec', idle.period='1 sec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from streamA select symbol, count() as total insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Object> totals = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    totals.add(event.getData(1));
+                }
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 700});
+        inputHandler.send(new Object[]{"IBM", 700});
+        Thread.sleep(2500);
+        inputHandler.send(new Object[]{"IBM", 700});
+        SiddhiTestHelper.waitForEvents(100, 3, count, 60000);
+        Assert.assertEquals(3, count.get());
+        Assert.assertEquals(1L, totals.get(0));
+        Assert.assertEquals(2L, totals.get(1));
+        Assert.assertEquals(1L, totals.get(2));
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expected = SiddhiAppValidationException.class)
+    public void testPartitionQuery25() throws InterruptedException {
+        log.info("Partition test25 - purging without an interval");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest25') " +
+                "define stream streamA (symbol string, price int);" +
+                "@purge(enable='true', idle.period='1 sec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from streamA select symbol, count() as total insert into StockQuote ;  " +
+                "end ";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void testPartitionQuery26() throws InterruptedException {
+        log.info("Partition test26 - processing partition instances in parallel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest26') " +
+                "define stream streamA (symbol string, price int);" +
+                "@async(workers='4', buffer.size='16') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from streamA select symbol, price, count() as total insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<Object, List<Object>> totals = new ConcurrentHashMap<Object, List<Object>>();
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    totals.computeIfAbsent(event.getData(0), k -> new CopyOnWriteArrayList<Object>())
+                            .add(event.getData(1) + ":" + event.getData(2));
+                }
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        for (int i = 1; i <= 20; i++) {
+            for (int j = 0; j < 10; j++) {
+                inputHandler.send(new Object[]{"SYMBOL" + j, i});
+            }
+        }
+        SiddhiTestHelper.waitForEvents(100, 200, count, 60000);
+        Assert.assertEquals(200, count.get());
+        Assert.assertEquals(10, totals.size());
+        for (List<Object> symbolTotals : totals.values()) {
+            for (int i = 1; i <= 20; i++) {
+                Assert.assertEquals(i + ":" + (long) i, symbolTotals.get(i - 1));
+            }
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery27() throws InterruptedException {
+        log.info("Partition test27 - sending events while partition instances are purged");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest27') " +
+                "define stream streamA (symbol string, price int);" +
+                "@purge(enable='true', interval='10 millisec', idle.period='5 millisec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from streamA#window.length(2) select symbol, max(price) as maxPrice insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + (i % 5), i});
+            if (i % 10 == 0) {
+                Thread.sleep(5);
+            }
+        }
+        SiddhiTestHelper.waitForEvents(100, 500, count, 60000);
+        Assert.assertEquals(500, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery28() throws InterruptedException {
+        log.info("Partition test28 - stopping parallel partition instances processes the queued events");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest28') " +
+                "define stream streamA (symbol string, price int);" +
+                "@async(workers='2', buffer.size='4') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "@info(name = 'query1') " +
+                "from streamA select symbol, price insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"SYMBOL" + (i % 10), i});
+        }
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(100, count.get());
+    }
 }
@@ -465,4 +465,196 @@ public class ComplexPatternTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery7() throws InterruptedException {
+        log.info("testPatternComplex7 - OUT 2 and 1, sharing the pattern");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "@app:sharePatterns('true') " +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from every e1=Stream1[price > 20] -> e2=Stream2[price > e1.price] " +
+                "select e1.symbol as symbol1, e2.symbol as symbol2 " +
+                "insert into OutputStream1 ;" +
+                "@info(name = 'query2') " +
+                "from every e1=Stream1[price > 20] -> e2=Stream2[price > e1.price] " +
+                "select e2.price - e1.price as gain " +
+                "having gain > 10 " +
+                "insert into OutputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        switch (inEventCount) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"WSO2", "IBM"}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"GOOG", "ORCL"}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(2, inEventCount);
+                        }
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+                eventArrived = true;
+            }
+
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        count.incrementAndGet();
+                        Assert.assertArrayEquals(new Object[]{15.0f}, event.getData());
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+            }
+
+        });
+
+        InputHandler stream1 = siddhiAppRuntime.getInputHandler("Stream1");
+        InputHandler stream2 = siddhiAppRuntime.getInputHandler("Stream2");
+
+        siddhiAppRuntime.start();
+
+        stream1.send(new Object[]{"WSO2", 55.6f, 100});
+        Thread.sleep(100);
+        stream2.send(new Object[]{"IBM", 57.7f, 100});
+        Thread.sleep(100);
+        stream1.send(new Object[]{"GOOG", 30.0f, 100});
+        Thread.sleep(100);
+        stream2.send(new Object[]{"ORCL", 45.0f, 100});
+        Thread.sleep(100);
+
+        Assert.assertEquals("Number of success events of query1", 2, inEventCount);
+        Assert.assertEquals("Number of success events of query2", 1, count.get());
+        Assert.assertEquals("Number of remove events", 0, removeEventCount);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testQuery8() throws InterruptedException {
+        log.info("testPatternComplex8 - OUT 2 and 2, sharing the pattern prefix");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "@app:sharePatterns('true') " +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); " +
+                "define stream Stream3 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from every e1=Stream1[price > 20] -> e2=Stream2[price > e1.price] " +
+                "select e1.symbol as symbol1, e2.symbol as symbol2 " +
+                "insert into OutputStream1 ;" +
+                "@info(name = 'query2') " +
+                "from every e1=Stream1[price > 20] -> e2=Stream2[price > e1.price] -> e3=Stream3[price > e2.price] " +
+                "select e1.symbol as symbol1, e3.symbol as symbol3, e3.price - e1.price as gain " +
+                "insert into OutputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        Assert.assertTrue(siddhiAppRuntime.getQueryNames().contains("SharedPattern-0"));
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        switch (inEventCount) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"WSO2", "IBM"}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"GOOG", "ORCL"}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(2, inEventCount);
+                        }
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+                eventArrived = true;
+            }
+
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        switch (count.incrementAndGet()) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"WSO2", "ORCL", 5.0f}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"GOOG", "AMZN", 20.0f}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(2, count.get());
+                        }
+                    }
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+            }
+
+        });
+
+        InputHandler stream1 = siddhiAppRuntime.getInputHandler("Stream1");
+        InputHandler stream2 = siddhiAppRuntime.getInputHandler("Stream2");
+        InputHandler stream3 = siddhiAppRuntime.getInputHandler("Stream3");
+
+        siddhiAppRuntime.start();
+
+        stream1.send(new Object[]{"WSO2", 55.5f, 100});
+        Thread.sleep(100);
+        stream2.send(new Object[]{"IBM", 57.5f, 100});
+        Thread.sleep(100);
+        stream3.send(new Object[]{"ORCL", 60.5f, 100});
+        Thread.sleep(100);
+        stream1.send(new Object[]{"GOOG", 30.0f, 100});
+        Thread.sleep(100);
+        stream3.send(new Object[]{"MSFT", 70.0f, 100});
+        Thread.sleep(100);
+        stream2.send(new Object[]{"ORCL", 45.0f, 100});
+        Thread.sleep(100);
+        stream3.send(new Object[]{"AMZN", 50.0f, 100});
+        Thread.sleep(100);
+
+        Assert.assertEquals("Number of success events of query1", 2, inEventCount);
+        Assert.assertEquals("Number of success events of query2", 2, count.get());
+        Assert.assertEquals("Number of remove events", 0, removeEventCount);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+
+        siddhiAppRuntime.shutdown();
+    }
+
 }
@@ -534,5 +534,73 @@ public class EveryPatternTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery9() throws InterruptedException {
+        log.info("testPatternEvery9 - OUT 3");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream OrderStream (orderId string, price float); " +
+                "define stream FillStream (orderId string, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from every e1=OrderStream -> e2=FillStream[e1.orderId == orderId and volume > 0] " +
+                "select e1.orderId as orderId, e1.price as price, e2.volume as volume " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventCount++;
+                        switch (inEventCount) {
+                            case 1:
+                                Assert.assertArrayEquals(new Object[]{"B", 20.0f, 5}, event.getData());
+                                break;
+                            case 2:
+                                Assert.assertArrayEquals(new Object[]{"A", 10.0f, 7}, event.getData());
+                                break;
+                            case 3:
+                                Assert.assertArrayEquals(new Object[]{"A", 30.0f, 7}, event.getData());
+                                break;
+                            default:
+                                Assert.assertSame(3, inEventCount);
+                        }
+                    }
+                    eventArrived = true;
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                }
+            }
+
+        });
+
+        InputHandler orderStream = siddhiAppRuntime.getInputHandler("OrderStream");
+        InputHandler fillStream = siddhiAppRuntime.getInputHandler("FillStream");
+
+        siddhiAppRuntime.start();
+
+        orderStream.send(new Object[]{"A", 10.0f});
+        orderStream.send(new Object[]{"B", 20.0f});
+        orderStream.send(new Object[]{"A", 30.0f});
+        fillStream.send(new Object[]{"C", 1});
+        fillStream.send(new Object[]{"A", 0});
+        fillStream.send(new Object[]{"B", 5});
+        fillStream.send(new Object[]{"A", 7});
+        fillStream.send(new Object[]{"A", 9});
+        Thread.sleep(100);
+
+        Assert.assertEquals("Number of success events", 3, inEventCount);
+        Assert.assertEquals("Number of remove events", 0, removeEventCount);
+        Assert.assertEquals("Event arrived", true, eventArrived);
+
+        siddhiAppRuntime.shutdown();
+    }
 
 }
@@ -24,11 +24,16 @@ import org.junit.Before;
 import org.junit.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.debugger.SiddhiDebugger;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.event.state.StateEvent;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.List;
+import java.util.Map;
+
 
 public class WithinPatternTestCase {
 
@@ -209,5 +214,71 @@ public class WithinPatternTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testQuery4() throws InterruptedException {
+        log.info("testPatternWithin4 - expired partial matches are removed without further events");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String streams = "" +
+                "define stream Stream1 (symbol string, price float, volume int); " +
+                "define stream Stream2 (symbol string, price float, volume int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from e1=Stream1[price>20] -> e2=Stream2[price>e1.price] within 1 sec " +
+                "select e1.symbol as symbol1, e2.symbol as symbol2 " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                    eventArrived = true;
+                }
+            }
+
+        });
+
+        InputHandler stream1 = siddhiAppRuntime.getInputHandler("Stream1");
+        InputHandler stream2 = siddhiAppRuntime.getInputHandler("Stream2");
+
+        SiddhiDebugger siddhiDebugger = siddhiAppRuntime.debug();
+
+        stream1.send(new Object[]{"WSO2", 55.6f, 100});
+        Thread.sleep(100);
+        Assert.assertEquals("Number of partial matches", 1, getPartialMatchCount(siddhiDebugger));
+        Thread.sleep(1500);
+        Assert.assertEquals("Number of partial matches", 0, getPartialMatchCount(siddhiDebugger));
+
+        stream2.send(new Object[]{"IBM", 57.7f, 100});
+        Thread.sleep(100);
+
+        Assert.assertEquals("Number of success events", 0, inEventCount);
+        Assert.assertEquals("Event arrived", false, eventArrived);
+
+        siddhiAppRuntime.shutdown();
+    }
+
+    private int getPartialMatchCount(SiddhiDebugger siddhiDebugger) {
+        int count = 0;
+        for (Map.Entry<String, Object> entry : siddhiDebugger.getQueryState("query1").entrySet()) {
+            if (entry.getKey().startsWith("StreamPreStateProcessor")) {
+                Map<String, Object> state = (Map<String, Object>) entry.getValue();
+                for (String listName : new String[]{"PendingStateEventList", "NewAndEveryStateEventList"}) {
+                    for (StateEvent stateEvent : (List<StateEvent>) state.get(listName)) {
+                        // partial matches waiting for e2 hold e1
+                        if (stateEvent.getStreamEvent(0) != null) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
 
 }
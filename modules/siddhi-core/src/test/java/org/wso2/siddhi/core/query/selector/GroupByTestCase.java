@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GroupByTestCase {
+    private static final Logger log = Logger.getLogger(GroupByTestCase.class);
+    private List<Object> results;
+
+    @Before
+    public void init() {
+        results = new ArrayList<Object>();
+    }
+
+    @Test
+    public void groupByTest1() throws InterruptedException {
+        log.info("Group by multiple attributes whose values contain the key delimiter");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (symbol string, exchange string, volume long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select symbol, exchange, sum(volume) as totalVolume " +
+                "group by symbol, exchange " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    results.add(event.getData(2));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"WSO2::NY", "SE", 10L});
+        inputHandler.send(new Object[]{"WSO2", "NY::SE", 20L});
+        inputHandler.send(new Object[]{"WSO2::NY", "SE", 30L});
+        inputHandler.send(new Object[]{"WSO2", "NY::SE", 40L});
+
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals(10L, results.get(0));
+        Assert.assertEquals(20L, results.get(1));
+        Assert.assertEquals(40L, results.get(2));
+        Assert.assertEquals(60L, results.get(3));
+    }
+
+    @Test
+    public void groupByTest2() throws InterruptedException {
+        log.info("Group by a single attribute with null values");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (deviceId int, temp double); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select deviceId, count() as readings " +
+                "group by deviceId " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    results.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{1, 20.5});
+        inputHandler.send(new Object[]{null, 21.0});
+        inputHandler.send(new Object[]{1, 22.5});
+        inputHandler.send(new Object[]{null, 23.0});
+        inputHandler.send(new Object[]{2, 24.0});
+
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(5, results.size());
+        Assert.assertEquals(1L, results.get(0));
+        Assert.assertEquals(1L, results.get(1));
+        Assert.assertEquals(2L, results.get(2));
+        Assert.assertEquals(2L, results.get(3));
+        Assert.assertEquals(1L, results.get(4));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ApproximateAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(ApproximateAggregatorTestCase.class);
+    private volatile int count;
+    private volatile Object lastValue;
+
+    @Before
+    public void init() {
+        count = 0;
+        lastValue = null;
+    }
+
+    @Test
+    public void distinctCountApproxTest() throws InterruptedException {
+        log.info("Approximate Distinct Count TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (userID string); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select distinctCountApprox(userID) as users " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    lastValue = event.getData(0);
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10000; i++) {
+            inputHandler.send(new Object[]{"USER_" + (i % 1000)});
+        }
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals("Event count", 10000, count);
+        Assert.assertEquals("Distinct users", 1000, (Long) lastValue, 20);
+    }
+
+    @Test
+    public void frequencyApproxTest() throws InterruptedException {
+        log.info("Approximate Frequency TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (userID string); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select userID, frequencyApprox(userID) as requests " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Object> requests = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    requests.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"USER_1"});
+        inputHandler.send(new Object[]{"USER_1"});
+        inputHandler.send(new Object[]{"USER_2"});
+        inputHandler.send(new Object[]{"USER_1"});
+        inputHandler.send(new Object[]{"USER_1"});
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertArrayEquals(new Object[]{1L, 2L, 1L, 2L, 2L}, requests.toArray());
+    }
+
+    @Test
+    public void percentileApproxTest() throws InterruptedException {
+        log.info("Approximate Percentile TestCase");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (latency long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select percentileApprox(latency, 50) as medianLatency " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    lastValue = event.getData(0);
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (long i = 101; i > 0; i--) {
+            inputHandler.send(new Object[]{i});
+        }
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals("Event count", 101, count);
+        Assert.assertEquals("Median latency", 51.0, (Double) lastValue, 0.0001);
+    }
+}
@@ -184,6 +184,59 @@ public class LengthWindowTestCase {
 
     }
 
-}
+    @Test
+    public void lengthWindowTest4() throws InterruptedException {
+        log.info("Testing length window shared between queries");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
 
+        String cseEventStream = "@app:shareWindows('true') " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(2) " +
+                "select sum(cseEventStream.volume) as totalVolume " +
+                "insert into outputStream1 ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.length(2) " +
+                "select count() as eventCount " +
+                "insert into outputStream2 ;";
 
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        final long[] expectedTotalVolumes = {1L, 3L, 5L};
+        final long[] expectedEventCounts = {1L, 2L, 2L};
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    Assert.assertEquals(expectedTotalVolumes[inEventCount], event.getData(0));
+                    inEventCount++;
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    Assert.assertEquals(expectedEventCounts[count], event.getData(0));
+                    count++;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 700f, 1});
+        inputHandler.send(new Object[]{"WSO2", 60.5f, 2});
+        inputHandler.send(new Object[]{"IBM", 700f, 3});
+        Thread.sleep(500);
+        Assert.assertEquals("Query1 event count", 3, inEventCount);
+        Assert.assertEquals("Query2 event count", 3, count);
+        siddhiAppRuntime.shutdown();
+
+    }
+}
@@ -30,6 +30,10 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class SortWindowTestCase {
     private static final Logger log = Logger.getLogger(SortWindowTestCase.class);
     private int inEventCount;
@@ -137,4 +141,56 @@ public class SortWindowTestCase {
         siddhiAppRuntime.shutdown();
 
     }
+
+    @Test
+    public void sortWindowTest3() throws InterruptedException {
+        log.info("sortWindow test3");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.sort(2,volume, 'asc') " +
+                "select symbol " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        final List<Object> expiredSymbols = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                    for (Event removeEvent : removeEvents) {
+                        expiredSymbols.add(removeEvent.getData(0));
+                    }
+                }
+                eventArrived = true;
+            }
+
+        });
+
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100L});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100L});
+        inputHandler.send(new Object[]{"ORACLE", 57.6f, 100L});
+        inputHandler.send(new Object[]{"GOOG", 55.6f, 50L});
+        Thread.sleep(1000);
+        Assert.assertEquals(4, inEventCount);
+        Assert.assertEquals(2, removeEventCount);
+        // among events with equal volume the latest arrived one is expired first
+        Assert.assertEquals(Arrays.<Object>asList("ORACLE", "IBM"), expiredSymbols);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
 }
@@ -102,6 +102,27 @@ public class EventTestCase {
 
     }
 
+    @Test
+    public void testEventPoolHitCount() {
+        StreamEventPool streamEventPool = new StreamEventPool(2, 3, 1, 4);
+
+        StreamEvent streamEvent = streamEventPool.borrowEvent();
+        streamEvent.setNext(streamEventPool.borrowEvent());
+        Assert.assertEquals(0, streamEventPool.getHitCount());
+        Assert.assertEquals(2, streamEventPool.getMissCount());
+
+        streamEventPool.returnEvents(streamEvent);
+        Assert.assertEquals(2, streamEventPool.getBufferedEventsSize());
+
+        StreamEvent reusedEvent = streamEventPool.borrowEvent();
+        Assert.assertNull(reusedEvent.getNext());
+        streamEventPool.borrowEvent();
+        streamEventPool.borrowEvent();
+        Assert.assertEquals(2, streamEventPool.getHitCount());
+        Assert.assertEquals(3, streamEventPool.getMissCount());
+        Assert.assertEquals(0, streamEventPool.getBufferedEventsSize());
+    }
+
     @Test
     public void testPassThroughStreamEventConverter() {
         Attribute symbol = new Attribute("symbol", Attribute.Type.STRING);
@@ -249,6 +270,21 @@ public class EventTestCase {
         Assert.assertEquals("Two events should pass through executor", 2, count);
     }
 
+    @Test
+    public void testStatelessExpressionExecutorClone() {
+        VariableExpressionExecutor priceVariableExpressionExecutor = new VariableExpressionExecutor(new Attribute
+                ("price", Attribute.Type.FLOAT), 0, 0);
+        priceVariableExpressionExecutor.setPosition(new int[]{0, SiddhiConstants.UNKNOWN_STATE, SiddhiConstants
+                .OUTPUT_DATA_INDEX, 1});
+
+        ExpressionExecutor compareLessThanExecutor = new LessThanCompareConditionExpressionExecutorFloatFloat(new
+                AddExpressionExecutorFloat(new ConstantExpressionExecutor(10f, Attribute.Type.FLOAT),
+                priceVariableExpressionExecutor), new ConstantExpressionExecutor(50f, Attribute.Type.FLOAT));
+
+        Assert.assertSame("Stateless executors should be shared across partition keys", compareLessThanExecutor,
+                compareLessThanExecutor.cloneExecutor("IBM"));
+    }
+
     @Test(expected = OperationNotSupportedException.class)
     public void testConditionExpressionExecutorValidation() {
 //        StreamDefinition streamDefinition = StreamDefinition.id("cseEventStream").attribute("symbol", Attribute
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.timestamp.SystemCurrentTimeMillisTimestampGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class TimerWheelTestCase {
+    private static final Logger log = Logger.getLogger(TimerWheelTestCase.class);
+    private ScheduledExecutorService scheduledExecutorService;
+    private TimerWheel timerWheel;
+
+    @Before
+    public void init() {
+        scheduledExecutorService = Executors.newScheduledThreadPool(2);
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("TimerWheelTest");
+        siddhiAppContext.setScheduledExecutorService(scheduledExecutorService);
+        siddhiAppContext.setTimestampGenerator(new SystemCurrentTimeMillisTimestampGenerator());
+        timerWheel = new TimerWheel(siddhiAppContext);
+    }
+
+    @After
+    public void shutdown() {
+        scheduledExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void timerWheelTest1() throws InterruptedException {
+        log.info("timer wheel test 1 - scheduling while the wheel goes idle");
+        final int threads = 4;
+        final int tasksPerThread = 500;
+        final CountDownLatch latch = new CountDownLatch(threads * tasksPerThread);
+        List<Thread> schedulers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final Random random = new Random(i);
+            Thread scheduler = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < tasksPerThread; j++) {
+                            // the notifications expire around the time the ticker finds the wheel idle and stops
+                            timerWheel.schedule(new Runnable() {
+                                @Override
+                                public void run() {
+                                    latch.countDown();
+                                }
+                            }, System.currentTimeMillis() + 1);
+                            Thread.sleep(random.nextInt(3));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            schedulers.add(scheduler);
+            scheduler.start();
+        }
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+
+        Assert.assertTrue("Notifications lost by the timer wheel", latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, timerWheel.getPendingCount());
+    }
+
+}